@@ -0,0 +1,116 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The shapes of beans the benchmarks run against.
+ * <p/>
+ * Each shape provides the flat metadata of a fully populated bean; beans themselves are obtained by unmapping it.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public enum BeanShape {
+
+    /**
+     * A bean with ten fields of various types.
+     */
+    FLAT(FlatBean.class) {
+        @Override
+        void fill(Map<String, String> metadata) {
+            metadata.put("flat_name", "Arthur Dent");
+            metadata.put("flat_city", "Cottington");
+            metadata.put("flat_comment", "Don't panic.");
+            metadata.put("flat_count", "42");
+            metadata.put("flat_id", "1234567890123");
+            metadata.put("flat_active", "true");
+            metadata.put("flat_rank", "7");
+            metadata.put("flat_amount", "314159265358979323846264338327950288419716939937510");
+            metadata.put("flat_birth", "1978/03/08");
+            metadata.put("flat_update", "2005/04/28-19:42:00");
+        }
+    },
+
+    /**
+     * A bean with 120 fields.
+     */
+    WIDE(WideBean.class) {
+        @Override
+        void fill(Map<String, String> metadata) {
+            for (int i = 0; i < 120; i++) {
+                String value;
+                switch (i % 5) {
+                    case 0:
+                        value = "Value #" + i;
+                        break;
+                    case 3:
+                        value = String.valueOf(i % 2 == 0);
+                        break;
+                    default:
+                        value = String.valueOf(i * 1000);
+                }
+                metadata.put(String.format("wide_%03d", i), value);
+            }
+        }
+    },
+
+    /**
+     * A bean nesting three levels of beans.
+     */
+    DEEP(DeepBean.class) {
+        @Override
+        void fill(Map<String, String> metadata) {
+            for (int i = 0; i < 4; i++) {
+                metadata.put("deep" + i + "_name", "Level " + i);
+                metadata.put("deep" + i + "_value", String.valueOf(i));
+            }
+        }
+    },
+
+    /**
+     * A bean inheriting fields from two levels of superclasses.
+     */
+    INHERITED(InheritedBean.class) {
+        @Override
+        void fill(Map<String, String> metadata) {
+            for (String prefix : new String[]{"root", "base", "leaf"}) {
+                metadata.put(prefix + "_name", "The " + prefix);
+                metadata.put(prefix + "_count", "3");
+                metadata.put(prefix + "_id", "123456789");
+            }
+        }
+    };
+
+    private final Class<?> type;
+
+    BeanShape(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the class of the beans of this shape.
+     *
+     * @return the bean class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the metadata of a fully populated bean.
+     *
+     * @return the metadata
+     */
+    public Map<String, String> metadata() {
+        Map<String, String> metadata = new HashMap<>();
+        fill(metadata);
+        return metadata;
+    }
+
+    /**
+     * Puts the metadata of a fully populated bean into the supplied map.
+     *
+     * @param metadata the map to fill
+     */
+    abstract void fill(Map<String, String> metadata);
+}
@@ -0,0 +1,46 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+
+/**
+ * A bean nesting three levels of beans.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class DeepBean {
+
+    @Metadata("deep0_name")
+    private String name;
+
+    @Metadata("deep0_value")
+    private int value;
+
+    @Nested
+    private DeepLevel1 child;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public DeepLevel1 getChild() {
+        return child;
+    }
+
+    public void setChild(DeepLevel1 child) {
+        this.child = child;
+    }
+}
@@ -0,0 +1,46 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+
+/**
+ * Level 1 of the {@link DeepBean}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class DeepLevel1 {
+
+    @Metadata("deep1_name")
+    private String name;
+
+    @Metadata("deep1_value")
+    private int value;
+
+    @Nested
+    private DeepLevel2 child;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public DeepLevel2 getChild() {
+        return child;
+    }
+
+    public void setChild(DeepLevel2 child) {
+        this.child = child;
+    }
+}
@@ -0,0 +1,46 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+
+/**
+ * Level 2 of the {@link DeepBean}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class DeepLevel2 {
+
+    @Metadata("deep2_name")
+    private String name;
+
+    @Metadata("deep2_value")
+    private int value;
+
+    @Nested
+    private DeepLevel3 child;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public DeepLevel3 getChild() {
+        return child;
+    }
+
+    public void setChild(DeepLevel3 child) {
+        this.child = child;
+    }
+}
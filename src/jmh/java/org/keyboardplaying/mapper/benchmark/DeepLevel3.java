@@ -0,0 +1,34 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * Level 3 of the {@link DeepBean}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class DeepLevel3 {
+
+    @Metadata("deep3_name")
+    private String name;
+
+    @Metadata("deep3_value")
+    private int value;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,130 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+
+/**
+ * A bean with a few fields of every supported type.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class FlatBean {
+
+    @Metadata("flat_name")
+    private String name;
+
+    @Metadata("flat_city")
+    private String city;
+
+    @Metadata("flat_comment")
+    private String comment;
+
+    @Metadata("flat_count")
+    private int count;
+
+    @Metadata("flat_id")
+    private long id;
+
+    @Metadata("flat_active")
+    private boolean active;
+
+    @Metadata("flat_rank")
+    private Integer rank;
+
+    @Metadata("flat_amount")
+    private BigInteger amount;
+
+    @Metadata("flat_birth")
+    @Temporal(TemporalType.DATE)
+    private Date birth;
+
+    @Metadata("flat_update")
+    @Temporal(TemporalType.DATETIME)
+    private Calendar update;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
+    public BigInteger getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigInteger amount) {
+        this.amount = amount;
+    }
+
+    public Date getBirth() {
+        return birth;
+    }
+
+    public void setBirth(Date birth) {
+        this.birth = birth;
+    }
+
+    public Calendar getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(Calendar update) {
+        this.update = update;
+    }
+}
@@ -0,0 +1,45 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * Intermediate superclass of the {@link InheritedBean}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class InheritedBase extends InheritedRoot {
+
+    @Metadata("base_name")
+    private String baseName;
+
+    @Metadata("base_count")
+    private int baseCount;
+
+    @Metadata("base_id")
+    private Long baseId;
+
+    public String getBaseName() {
+        return baseName;
+    }
+
+    public void setBaseName(String baseName) {
+        this.baseName = baseName;
+    }
+
+    public int getBaseCount() {
+        return baseCount;
+    }
+
+    public void setBaseCount(int baseCount) {
+        this.baseCount = baseCount;
+    }
+
+    public Long getBaseId() {
+        return baseId;
+    }
+
+    public void setBaseId(Long baseId) {
+        this.baseId = baseId;
+    }
+}
@@ -0,0 +1,45 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * A bean inheriting annotated fields from two levels of superclasses.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class InheritedBean extends InheritedBase {
+
+    @Metadata("leaf_name")
+    private String leafName;
+
+    @Metadata("leaf_count")
+    private int leafCount;
+
+    @Metadata("leaf_id")
+    private Long leafId;
+
+    public String getLeafName() {
+        return leafName;
+    }
+
+    public void setLeafName(String leafName) {
+        this.leafName = leafName;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public void setLeafCount(int leafCount) {
+        this.leafCount = leafCount;
+    }
+
+    public Long getLeafId() {
+        return leafId;
+    }
+
+    public void setLeafId(Long leafId) {
+        this.leafId = leafId;
+    }
+}
@@ -0,0 +1,45 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * Root superclass of the {@link InheritedBean}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class InheritedRoot {
+
+    @Metadata("root_name")
+    private String rootName;
+
+    @Metadata("root_count")
+    private int rootCount;
+
+    @Metadata("root_id")
+    private Long rootId;
+
+    public String getRootName() {
+        return rootName;
+    }
+
+    public void setRootName(String rootName) {
+        this.rootName = rootName;
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public void setRootCount(int rootCount) {
+        this.rootCount = rootCount;
+    }
+
+    public Long getRootId() {
+        return rootId;
+    }
+
+    public void setRootId(Long rootId) {
+        this.rootId = rootId;
+    }
+}
@@ -0,0 +1,88 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.mapper.engine.AccessMode;
+import org.keyboardplaying.mapper.engine.MappingEngine;
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link MappingEngine} and the {@link UnmappingEngine} for each {@link BeanShape}.
+ * <p/>
+ * The engines are benchmarked with and without the mappers generated at compile time, and in each
+ * {@link AccessMode}; the access mode only matters when generated mappers are not used.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MappingBenchmark {
+
+    @Param({"FLAT", "WIDE", "DEEP", "INHERITED"})
+    private BeanShape shape;
+
+    @Param({"true", "false"})
+    private boolean generatedMappers;
+
+    @Param({"METHOD_HANDLES", "LAMBDA"})
+    private AccessMode accessMode;
+
+    private MappingEngine mappingEngine;
+    private UnmappingEngine unmappingEngine;
+
+    private Map<String, String> metadata;
+    private Object bean;
+    private Object target;
+
+    /**
+     * Configures the engines and prepares the beans and metadata.
+     *
+     * @throws MapperException if the fixtures cannot be unmapped
+     */
+    @Setup
+    public void setUp() throws MapperException {
+        mappingEngine = new MappingEngine();
+        mappingEngine.setUseGeneratedMappers(generatedMappers);
+        mappingEngine.setAccessMode(accessMode);
+
+        unmappingEngine = new UnmappingEngine();
+        unmappingEngine.setUseGeneratedMappers(generatedMappers);
+        unmappingEngine.setAccessMode(accessMode);
+
+        metadata = shape.metadata();
+        bean = unmappingEngine.unmapToClass(metadata, shape.getType());
+        target = unmappingEngine.unmapToClass(metadata, shape.getType());
+    }
+
+    @Benchmark
+    public Map<String, String> map() throws MapperException {
+        return mappingEngine.map(bean);
+    }
+
+    @Benchmark
+    public Object unmapToClass() throws MapperException {
+        return unmappingEngine.unmapToClass(metadata, shape.getType());
+    }
+
+    @Benchmark
+    public Object unmapToBean() throws MapperException {
+        return unmappingEngine.unmapToBean(metadata, target);
+    }
+}
@@ -0,0 +1,55 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.mapper.exception.ParsingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the conversions of each parser of {@code org.keyboardplaying.mapper.parser}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParserBenchmark {
+
+    @Param
+    private ParserCase parserCase;
+
+    private String string;
+
+    /**
+     * Prepares the {@link String} representation of the sample value.
+     *
+     * @throws ParsingException if the sample value cannot be converted
+     */
+    @Setup
+    public void setUp() throws ParsingException {
+        string = parserCase.getParser().convertToString(parserCase.getValue());
+    }
+
+    @Benchmark
+    public String convertToString() throws ParsingException {
+        return parserCase.getParser().convertToString(parserCase.getValue());
+    }
+
+    @Benchmark
+    public Object convertFromString() throws ParsingException {
+        return parserCase.getParser().convertFromString(string);
+    }
+}
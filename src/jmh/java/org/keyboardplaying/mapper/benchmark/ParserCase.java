@@ -0,0 +1,80 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.parser.BigIntegerParser;
+import org.keyboardplaying.mapper.parser.BooleanParser;
+import org.keyboardplaying.mapper.parser.CalendarParser;
+import org.keyboardplaying.mapper.parser.DateParser;
+import org.keyboardplaying.mapper.parser.IntegerParser;
+import org.keyboardplaying.mapper.parser.LongParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+import org.keyboardplaying.mapper.parser.StringParser;
+import org.keyboardplaying.mapper.parser.TemporalParser;
+
+/**
+ * The parsers the {@link ParserBenchmark} runs against, with a sample value for each.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public enum ParserCase {
+
+    STRING(new StringParser(), "Don't panic."),
+    INTEGER(new IntegerParser(), 42),
+    LONG(new LongParser(), 1234567890123L),
+    BIG_INTEGER(new BigIntegerParser(), new BigInteger("314159265358979323846264338327950288419716939937510")),
+    BOOLEAN(booleans(), true),
+    DATE(temporal(new DateParser(), TemporalType.DATE.getFormat()), sampleCalendar().getTime()),
+    DATETIME(temporal(new DateParser(), TemporalType.DATETIME.getFormat()), sampleCalendar().getTime()),
+    /** A pattern without fixed-width fast path. */
+    DATETIME_CUSTOM(temporal(new DateParser(), "dd/MM/yyyy HH:mm"), sampleCalendar().getTime()),
+    CALENDAR_DATE(temporal(new CalendarParser(), TemporalType.DATE.getFormat()), sampleCalendar()),
+    CALENDAR_DATETIME(temporal(new CalendarParser(), TemporalType.DATETIME.getFormat()), sampleCalendar());
+
+    private final SimpleParser<Object> parser;
+    private final Object value;
+
+    @SuppressWarnings("unchecked")
+    ParserCase(SimpleParser<?> parser, Object value) {
+        this.parser = (SimpleParser<Object>) parser;
+        this.value = value;
+    }
+
+    /* Uses the representations the engines default to. */
+    private static BooleanParser booleans() {
+        BooleanParser parser = new BooleanParser();
+        parser.setTrueFalse(new String[]{Defaults.TRUE}, new String[]{Defaults.FALSE});
+        return parser;
+    }
+
+    private static <T> TemporalParser<T> temporal(TemporalParser<T> parser, String format) {
+        parser.setFormat(format);
+        return parser;
+    }
+
+    private static Calendar sampleCalendar() {
+        return new GregorianCalendar(2005, Calendar.APRIL, 28, 19, 42, 0);
+    }
+
+    /**
+     * Returns the parser.
+     *
+     * @return the parser
+     */
+    public SimpleParser<Object> getParser() {
+        return parser;
+    }
+
+    /**
+     * Returns the sample value.
+     *
+     * @return the value
+     */
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,1332 @@
+package org.keyboardplaying.mapper.benchmark;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * A bean with 120 fields.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class WideBean {
+
+    @Metadata("wide_000")
+    private String field000;
+
+    @Metadata("wide_001")
+    private int field001;
+
+    @Metadata("wide_002")
+    private Long field002;
+
+    @Metadata("wide_003")
+    private boolean field003;
+
+    @Metadata("wide_004")
+    private Integer field004;
+
+    @Metadata("wide_005")
+    private String field005;
+
+    @Metadata("wide_006")
+    private int field006;
+
+    @Metadata("wide_007")
+    private Long field007;
+
+    @Metadata("wide_008")
+    private boolean field008;
+
+    @Metadata("wide_009")
+    private Integer field009;
+
+    @Metadata("wide_010")
+    private String field010;
+
+    @Metadata("wide_011")
+    private int field011;
+
+    @Metadata("wide_012")
+    private Long field012;
+
+    @Metadata("wide_013")
+    private boolean field013;
+
+    @Metadata("wide_014")
+    private Integer field014;
+
+    @Metadata("wide_015")
+    private String field015;
+
+    @Metadata("wide_016")
+    private int field016;
+
+    @Metadata("wide_017")
+    private Long field017;
+
+    @Metadata("wide_018")
+    private boolean field018;
+
+    @Metadata("wide_019")
+    private Integer field019;
+
+    @Metadata("wide_020")
+    private String field020;
+
+    @Metadata("wide_021")
+    private int field021;
+
+    @Metadata("wide_022")
+    private Long field022;
+
+    @Metadata("wide_023")
+    private boolean field023;
+
+    @Metadata("wide_024")
+    private Integer field024;
+
+    @Metadata("wide_025")
+    private String field025;
+
+    @Metadata("wide_026")
+    private int field026;
+
+    @Metadata("wide_027")
+    private Long field027;
+
+    @Metadata("wide_028")
+    private boolean field028;
+
+    @Metadata("wide_029")
+    private Integer field029;
+
+    @Metadata("wide_030")
+    private String field030;
+
+    @Metadata("wide_031")
+    private int field031;
+
+    @Metadata("wide_032")
+    private Long field032;
+
+    @Metadata("wide_033")
+    private boolean field033;
+
+    @Metadata("wide_034")
+    private Integer field034;
+
+    @Metadata("wide_035")
+    private String field035;
+
+    @Metadata("wide_036")
+    private int field036;
+
+    @Metadata("wide_037")
+    private Long field037;
+
+    @Metadata("wide_038")
+    private boolean field038;
+
+    @Metadata("wide_039")
+    private Integer field039;
+
+    @Metadata("wide_040")
+    private String field040;
+
+    @Metadata("wide_041")
+    private int field041;
+
+    @Metadata("wide_042")
+    private Long field042;
+
+    @Metadata("wide_043")
+    private boolean field043;
+
+    @Metadata("wide_044")
+    private Integer field044;
+
+    @Metadata("wide_045")
+    private String field045;
+
+    @Metadata("wide_046")
+    private int field046;
+
+    @Metadata("wide_047")
+    private Long field047;
+
+    @Metadata("wide_048")
+    private boolean field048;
+
+    @Metadata("wide_049")
+    private Integer field049;
+
+    @Metadata("wide_050")
+    private String field050;
+
+    @Metadata("wide_051")
+    private int field051;
+
+    @Metadata("wide_052")
+    private Long field052;
+
+    @Metadata("wide_053")
+    private boolean field053;
+
+    @Metadata("wide_054")
+    private Integer field054;
+
+    @Metadata("wide_055")
+    private String field055;
+
+    @Metadata("wide_056")
+    private int field056;
+
+    @Metadata("wide_057")
+    private Long field057;
+
+    @Metadata("wide_058")
+    private boolean field058;
+
+    @Metadata("wide_059")
+    private Integer field059;
+
+    @Metadata("wide_060")
+    private String field060;
+
+    @Metadata("wide_061")
+    private int field061;
+
+    @Metadata("wide_062")
+    private Long field062;
+
+    @Metadata("wide_063")
+    private boolean field063;
+
+    @Metadata("wide_064")
+    private Integer field064;
+
+    @Metadata("wide_065")
+    private String field065;
+
+    @Metadata("wide_066")
+    private int field066;
+
+    @Metadata("wide_067")
+    private Long field067;
+
+    @Metadata("wide_068")
+    private boolean field068;
+
+    @Metadata("wide_069")
+    private Integer field069;
+
+    @Metadata("wide_070")
+    private String field070;
+
+    @Metadata("wide_071")
+    private int field071;
+
+    @Metadata("wide_072")
+    private Long field072;
+
+    @Metadata("wide_073")
+    private boolean field073;
+
+    @Metadata("wide_074")
+    private Integer field074;
+
+    @Metadata("wide_075")
+    private String field075;
+
+    @Metadata("wide_076")
+    private int field076;
+
+    @Metadata("wide_077")
+    private Long field077;
+
+    @Metadata("wide_078")
+    private boolean field078;
+
+    @Metadata("wide_079")
+    private Integer field079;
+
+    @Metadata("wide_080")
+    private String field080;
+
+    @Metadata("wide_081")
+    private int field081;
+
+    @Metadata("wide_082")
+    private Long field082;
+
+    @Metadata("wide_083")
+    private boolean field083;
+
+    @Metadata("wide_084")
+    private Integer field084;
+
+    @Metadata("wide_085")
+    private String field085;
+
+    @Metadata("wide_086")
+    private int field086;
+
+    @Metadata("wide_087")
+    private Long field087;
+
+    @Metadata("wide_088")
+    private boolean field088;
+
+    @Metadata("wide_089")
+    private Integer field089;
+
+    @Metadata("wide_090")
+    private String field090;
+
+    @Metadata("wide_091")
+    private int field091;
+
+    @Metadata("wide_092")
+    private Long field092;
+
+    @Metadata("wide_093")
+    private boolean field093;
+
+    @Metadata("wide_094")
+    private Integer field094;
+
+    @Metadata("wide_095")
+    private String field095;
+
+    @Metadata("wide_096")
+    private int field096;
+
+    @Metadata("wide_097")
+    private Long field097;
+
+    @Metadata("wide_098")
+    private boolean field098;
+
+    @Metadata("wide_099")
+    private Integer field099;
+
+    @Metadata("wide_100")
+    private String field100;
+
+    @Metadata("wide_101")
+    private int field101;
+
+    @Metadata("wide_102")
+    private Long field102;
+
+    @Metadata("wide_103")
+    private boolean field103;
+
+    @Metadata("wide_104")
+    private Integer field104;
+
+    @Metadata("wide_105")
+    private String field105;
+
+    @Metadata("wide_106")
+    private int field106;
+
+    @Metadata("wide_107")
+    private Long field107;
+
+    @Metadata("wide_108")
+    private boolean field108;
+
+    @Metadata("wide_109")
+    private Integer field109;
+
+    @Metadata("wide_110")
+    private String field110;
+
+    @Metadata("wide_111")
+    private int field111;
+
+    @Metadata("wide_112")
+    private Long field112;
+
+    @Metadata("wide_113")
+    private boolean field113;
+
+    @Metadata("wide_114")
+    private Integer field114;
+
+    @Metadata("wide_115")
+    private String field115;
+
+    @Metadata("wide_116")
+    private int field116;
+
+    @Metadata("wide_117")
+    private Long field117;
+
+    @Metadata("wide_118")
+    private boolean field118;
+
+    @Metadata("wide_119")
+    private Integer field119;
+
+    public String getField000() {
+        return field000;
+    }
+
+    public void setField000(String field000) {
+        this.field000 = field000;
+    }
+
+    public int getField001() {
+        return field001;
+    }
+
+    public void setField001(int field001) {
+        this.field001 = field001;
+    }
+
+    public Long getField002() {
+        return field002;
+    }
+
+    public void setField002(Long field002) {
+        this.field002 = field002;
+    }
+
+    public boolean isField003() {
+        return field003;
+    }
+
+    public void setField003(boolean field003) {
+        this.field003 = field003;
+    }
+
+    public Integer getField004() {
+        return field004;
+    }
+
+    public void setField004(Integer field004) {
+        this.field004 = field004;
+    }
+
+    public String getField005() {
+        return field005;
+    }
+
+    public void setField005(String field005) {
+        this.field005 = field005;
+    }
+
+    public int getField006() {
+        return field006;
+    }
+
+    public void setField006(int field006) {
+        this.field006 = field006;
+    }
+
+    public Long getField007() {
+        return field007;
+    }
+
+    public void setField007(Long field007) {
+        this.field007 = field007;
+    }
+
+    public boolean isField008() {
+        return field008;
+    }
+
+    public void setField008(boolean field008) {
+        this.field008 = field008;
+    }
+
+    public Integer getField009() {
+        return field009;
+    }
+
+    public void setField009(Integer field009) {
+        this.field009 = field009;
+    }
+
+    public String getField010() {
+        return field010;
+    }
+
+    public void setField010(String field010) {
+        this.field010 = field010;
+    }
+
+    public int getField011() {
+        return field011;
+    }
+
+    public void setField011(int field011) {
+        this.field011 = field011;
+    }
+
+    public Long getField012() {
+        return field012;
+    }
+
+    public void setField012(Long field012) {
+        this.field012 = field012;
+    }
+
+    public boolean isField013() {
+        return field013;
+    }
+
+    public void setField013(boolean field013) {
+        this.field013 = field013;
+    }
+
+    public Integer getField014() {
+        return field014;
+    }
+
+    public void setField014(Integer field014) {
+        this.field014 = field014;
+    }
+
+    public String getField015() {
+        return field015;
+    }
+
+    public void setField015(String field015) {
+        this.field015 = field015;
+    }
+
+    public int getField016() {
+        return field016;
+    }
+
+    public void setField016(int field016) {
+        this.field016 = field016;
+    }
+
+    public Long getField017() {
+        return field017;
+    }
+
+    public void setField017(Long field017) {
+        this.field017 = field017;
+    }
+
+    public boolean isField018() {
+        return field018;
+    }
+
+    public void setField018(boolean field018) {
+        this.field018 = field018;
+    }
+
+    public Integer getField019() {
+        return field019;
+    }
+
+    public void setField019(Integer field019) {
+        this.field019 = field019;
+    }
+
+    public String getField020() {
+        return field020;
+    }
+
+    public void setField020(String field020) {
+        this.field020 = field020;
+    }
+
+    public int getField021() {
+        return field021;
+    }
+
+    public void setField021(int field021) {
+        this.field021 = field021;
+    }
+
+    public Long getField022() {
+        return field022;
+    }
+
+    public void setField022(Long field022) {
+        this.field022 = field022;
+    }
+
+    public boolean isField023() {
+        return field023;
+    }
+
+    public void setField023(boolean field023) {
+        this.field023 = field023;
+    }
+
+    public Integer getField024() {
+        return field024;
+    }
+
+    public void setField024(Integer field024) {
+        this.field024 = field024;
+    }
+
+    public String getField025() {
+        return field025;
+    }
+
+    public void setField025(String field025) {
+        this.field025 = field025;
+    }
+
+    public int getField026() {
+        return field026;
+    }
+
+    public void setField026(int field026) {
+        this.field026 = field026;
+    }
+
+    public Long getField027() {
+        return field027;
+    }
+
+    public void setField027(Long field027) {
+        this.field027 = field027;
+    }
+
+    public boolean isField028() {
+        return field028;
+    }
+
+    public void setField028(boolean field028) {
+        this.field028 = field028;
+    }
+
+    public Integer getField029() {
+        return field029;
+    }
+
+    public void setField029(Integer field029) {
+        this.field029 = field029;
+    }
+
+    public String getField030() {
+        return field030;
+    }
+
+    public void setField030(String field030) {
+        this.field030 = field030;
+    }
+
+    public int getField031() {
+        return field031;
+    }
+
+    public void setField031(int field031) {
+        this.field031 = field031;
+    }
+
+    public Long getField032() {
+        return field032;
+    }
+
+    public void setField032(Long field032) {
+        this.field032 = field032;
+    }
+
+    public boolean isField033() {
+        return field033;
+    }
+
+    public void setField033(boolean field033) {
+        this.field033 = field033;
+    }
+
+    public Integer getField034() {
+        return field034;
+    }
+
+    public void setField034(Integer field034) {
+        this.field034 = field034;
+    }
+
+    public String getField035() {
+        return field035;
+    }
+
+    public void setField035(String field035) {
+        this.field035 = field035;
+    }
+
+    public int getField036() {
+        return field036;
+    }
+
+    public void setField036(int field036) {
+        this.field036 = field036;
+    }
+
+    public Long getField037() {
+        return field037;
+    }
+
+    public void setField037(Long field037) {
+        this.field037 = field037;
+    }
+
+    public boolean isField038() {
+        return field038;
+    }
+
+    public void setField038(boolean field038) {
+        this.field038 = field038;
+    }
+
+    public Integer getField039() {
+        return field039;
+    }
+
+    public void setField039(Integer field039) {
+        this.field039 = field039;
+    }
+
+    public String getField040() {
+        return field040;
+    }
+
+    public void setField040(String field040) {
+        this.field040 = field040;
+    }
+
+    public int getField041() {
+        return field041;
+    }
+
+    public void setField041(int field041) {
+        this.field041 = field041;
+    }
+
+    public Long getField042() {
+        return field042;
+    }
+
+    public void setField042(Long field042) {
+        this.field042 = field042;
+    }
+
+    public boolean isField043() {
+        return field043;
+    }
+
+    public void setField043(boolean field043) {
+        this.field043 = field043;
+    }
+
+    public Integer getField044() {
+        return field044;
+    }
+
+    public void setField044(Integer field044) {
+        this.field044 = field044;
+    }
+
+    public String getField045() {
+        return field045;
+    }
+
+    public void setField045(String field045) {
+        this.field045 = field045;
+    }
+
+    public int getField046() {
+        return field046;
+    }
+
+    public void setField046(int field046) {
+        this.field046 = field046;
+    }
+
+    public Long getField047() {
+        return field047;
+    }
+
+    public void setField047(Long field047) {
+        this.field047 = field047;
+    }
+
+    public boolean isField048() {
+        return field048;
+    }
+
+    public void setField048(boolean field048) {
+        this.field048 = field048;
+    }
+
+    public Integer getField049() {
+        return field049;
+    }
+
+    public void setField049(Integer field049) {
+        this.field049 = field049;
+    }
+
+    public String getField050() {
+        return field050;
+    }
+
+    public void setField050(String field050) {
+        this.field050 = field050;
+    }
+
+    public int getField051() {
+        return field051;
+    }
+
+    public void setField051(int field051) {
+        this.field051 = field051;
+    }
+
+    public Long getField052() {
+        return field052;
+    }
+
+    public void setField052(Long field052) {
+        this.field052 = field052;
+    }
+
+    public boolean isField053() {
+        return field053;
+    }
+
+    public void setField053(boolean field053) {
+        this.field053 = field053;
+    }
+
+    public Integer getField054() {
+        return field054;
+    }
+
+    public void setField054(Integer field054) {
+        this.field054 = field054;
+    }
+
+    public String getField055() {
+        return field055;
+    }
+
+    public void setField055(String field055) {
+        this.field055 = field055;
+    }
+
+    public int getField056() {
+        return field056;
+    }
+
+    public void setField056(int field056) {
+        this.field056 = field056;
+    }
+
+    public Long getField057() {
+        return field057;
+    }
+
+    public void setField057(Long field057) {
+        this.field057 = field057;
+    }
+
+    public boolean isField058() {
+        return field058;
+    }
+
+    public void setField058(boolean field058) {
+        this.field058 = field058;
+    }
+
+    public Integer getField059() {
+        return field059;
+    }
+
+    public void setField059(Integer field059) {
+        this.field059 = field059;
+    }
+
+    public String getField060() {
+        return field060;
+    }
+
+    public void setField060(String field060) {
+        this.field060 = field060;
+    }
+
+    public int getField061() {
+        return field061;
+    }
+
+    public void setField061(int field061) {
+        this.field061 = field061;
+    }
+
+    public Long getField062() {
+        return field062;
+    }
+
+    public void setField062(Long field062) {
+        this.field062 = field062;
+    }
+
+    public boolean isField063() {
+        return field063;
+    }
+
+    public void setField063(boolean field063) {
+        this.field063 = field063;
+    }
+
+    public Integer getField064() {
+        return field064;
+    }
+
+    public void setField064(Integer field064) {
+        this.field064 = field064;
+    }
+
+    public String getField065() {
+        return field065;
+    }
+
+    public void setField065(String field065) {
+        this.field065 = field065;
+    }
+
+    public int getField066() {
+        return field066;
+    }
+
+    public void setField066(int field066) {
+        this.field066 = field066;
+    }
+
+    public Long getField067() {
+        return field067;
+    }
+
+    public void setField067(Long field067) {
+        this.field067 = field067;
+    }
+
+    public boolean isField068() {
+        return field068;
+    }
+
+    public void setField068(boolean field068) {
+        this.field068 = field068;
+    }
+
+    public Integer getField069() {
+        return field069;
+    }
+
+    public void setField069(Integer field069) {
+        this.field069 = field069;
+    }
+
+    public String getField070() {
+        return field070;
+    }
+
+    public void setField070(String field070) {
+        this.field070 = field070;
+    }
+
+    public int getField071() {
+        return field071;
+    }
+
+    public void setField071(int field071) {
+        this.field071 = field071;
+    }
+
+    public Long getField072() {
+        return field072;
+    }
+
+    public void setField072(Long field072) {
+        this.field072 = field072;
+    }
+
+    public boolean isField073() {
+        return field073;
+    }
+
+    public void setField073(boolean field073) {
+        this.field073 = field073;
+    }
+
+    public Integer getField074() {
+        return field074;
+    }
+
+    public void setField074(Integer field074) {
+        this.field074 = field074;
+    }
+
+    public String getField075() {
+        return field075;
+    }
+
+    public void setField075(String field075) {
+        this.field075 = field075;
+    }
+
+    public int getField076() {
+        return field076;
+    }
+
+    public void setField076(int field076) {
+        this.field076 = field076;
+    }
+
+    public Long getField077() {
+        return field077;
+    }
+
+    public void setField077(Long field077) {
+        this.field077 = field077;
+    }
+
+    public boolean isField078() {
+        return field078;
+    }
+
+    public void setField078(boolean field078) {
+        this.field078 = field078;
+    }
+
+    public Integer getField079() {
+        return field079;
+    }
+
+    public void setField079(Integer field079) {
+        this.field079 = field079;
+    }
+
+    public String getField080() {
+        return field080;
+    }
+
+    public void setField080(String field080) {
+        this.field080 = field080;
+    }
+
+    public int getField081() {
+        return field081;
+    }
+
+    public void setField081(int field081) {
+        this.field081 = field081;
+    }
+
+    public Long getField082() {
+        return field082;
+    }
+
+    public void setField082(Long field082) {
+        this.field082 = field082;
+    }
+
+    public boolean isField083() {
+        return field083;
+    }
+
+    public void setField083(boolean field083) {
+        this.field083 = field083;
+    }
+
+    public Integer getField084() {
+        return field084;
+    }
+
+    public void setField084(Integer field084) {
+        this.field084 = field084;
+    }
+
+    public String getField085() {
+        return field085;
+    }
+
+    public void setField085(String field085) {
+        this.field085 = field085;
+    }
+
+    public int getField086() {
+        return field086;
+    }
+
+    public void setField086(int field086) {
+        this.field086 = field086;
+    }
+
+    public Long getField087() {
+        return field087;
+    }
+
+    public void setField087(Long field087) {
+        this.field087 = field087;
+    }
+
+    public boolean isField088() {
+        return field088;
+    }
+
+    public void setField088(boolean field088) {
+        this.field088 = field088;
+    }
+
+    public Integer getField089() {
+        return field089;
+    }
+
+    public void setField089(Integer field089) {
+        this.field089 = field089;
+    }
+
+    public String getField090() {
+        return field090;
+    }
+
+    public void setField090(String field090) {
+        this.field090 = field090;
+    }
+
+    public int getField091() {
+        return field091;
+    }
+
+    public void setField091(int field091) {
+        this.field091 = field091;
+    }
+
+    public Long getField092() {
+        return field092;
+    }
+
+    public void setField092(Long field092) {
+        this.field092 = field092;
+    }
+
+    public boolean isField093() {
+        return field093;
+    }
+
+    public void setField093(boolean field093) {
+        this.field093 = field093;
+    }
+
+    public Integer getField094() {
+        return field094;
+    }
+
+    public void setField094(Integer field094) {
+        this.field094 = field094;
+    }
+
+    public String getField095() {
+        return field095;
+    }
+
+    public void setField095(String field095) {
+        this.field095 = field095;
+    }
+
+    public int getField096() {
+        return field096;
+    }
+
+    public void setField096(int field096) {
+        this.field096 = field096;
+    }
+
+    public Long getField097() {
+        return field097;
+    }
+
+    public void setField097(Long field097) {
+        this.field097 = field097;
+    }
+
+    public boolean isField098() {
+        return field098;
+    }
+
+    public void setField098(boolean field098) {
+        this.field098 = field098;
+    }
+
+    public Integer getField099() {
+        return field099;
+    }
+
+    public void setField099(Integer field099) {
+        this.field099 = field099;
+    }
+
+    public String getField100() {
+        return field100;
+    }
+
+    public void setField100(String field100) {
+        this.field100 = field100;
+    }
+
+    public int getField101() {
+        return field101;
+    }
+
+    public void setField101(int field101) {
+        this.field101 = field101;
+    }
+
+    public Long getField102() {
+        return field102;
+    }
+
+    public void setField102(Long field102) {
+        this.field102 = field102;
+    }
+
+    public boolean isField103() {
+        return field103;
+    }
+
+    public void setField103(boolean field103) {
+        this.field103 = field103;
+    }
+
+    public Integer getField104() {
+        return field104;
+    }
+
+    public void setField104(Integer field104) {
+        this.field104 = field104;
+    }
+
+    public String getField105() {
+        return field105;
+    }
+
+    public void setField105(String field105) {
+        this.field105 = field105;
+    }
+
+    public int getField106() {
+        return field106;
+    }
+
+    public void setField106(int field106) {
+        this.field106 = field106;
+    }
+
+    public Long getField107() {
+        return field107;
+    }
+
+    public void setField107(Long field107) {
+        this.field107 = field107;
+    }
+
+    public boolean isField108() {
+        return field108;
+    }
+
+    public void setField108(boolean field108) {
+        this.field108 = field108;
+    }
+
+    public Integer getField109() {
+        return field109;
+    }
+
+    public void setField109(Integer field109) {
+        this.field109 = field109;
+    }
+
+    public String getField110() {
+        return field110;
+    }
+
+    public void setField110(String field110) {
+        this.field110 = field110;
+    }
+
+    public int getField111() {
+        return field111;
+    }
+
+    public void setField111(int field111) {
+        this.field111 = field111;
+    }
+
+    public Long getField112() {
+        return field112;
+    }
+
+    public void setField112(Long field112) {
+        this.field112 = field112;
+    }
+
+    public boolean isField113() {
+        return field113;
+    }
+
+    public void setField113(boolean field113) {
+        this.field113 = field113;
+    }
+
+    public Integer getField114() {
+        return field114;
+    }
+
+    public void setField114(Integer field114) {
+        this.field114 = field114;
+    }
+
+    public String getField115() {
+        return field115;
+    }
+
+    public void setField115(String field115) {
+        this.field115 = field115;
+    }
+
+    public int getField116() {
+        return field116;
+    }
+
+    public void setField116(int field116) {
+        this.field116 = field116;
+    }
+
+    public Long getField117() {
+        return field117;
+    }
+
+    public void setField117(Long field117) {
+        this.field117 = field117;
+    }
+
+    public boolean isField118() {
+        return field118;
+    }
+
+    public void setField118(boolean field118) {
+        this.field118 = field118;
+    }
+
+    public Integer getField119() {
+        return field119;
+    }
+
+    public void setField119(Integer field119) {
+        this.field119 = field119;
+    }
+}
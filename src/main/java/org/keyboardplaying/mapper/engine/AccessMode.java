@@ -0,0 +1,31 @@
+package org.keyboardplaying.mapper.engine;
+
+/**
+ * Lists the ways an engine may call the getters and setters of the beans.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public enum AccessMode {
+
+    /**
+     * Accessors are looked up once per bean class and invoked as method handles.
+     * <p/>
+     * This is the default mode.
+     */
+    METHOD_HANDLES,
+
+    /**
+     * Each getter and setter is bound to a {@link java.util.function.Function} or a
+     * {@link java.util.function.BiConsumer} spun by the {@link java.lang.invoke.LambdaMetafactory} when the bean class
+     * is first mapped, so that fields are read and written through plain interface calls.
+     * <p/>
+     * This only changes how the accessors are invoked: the engine still iterates over the fields of the
+     * {@link MappingPlan}, and has nothing to do with the {@link GeneratedMapper}s produced at compile time, which take
+     * precedence when they exist.
+     * <p/>
+     * Binding takes more time than a lookup, which makes this mode best suited to the bean types mapped most often.
+     * When an accessor cannot be bound (e.g. the bean class is not visible from the mapper's class loader), the engine
+     * falls back to {@link #METHOD_HANDLES} for this accessor.
+     */
+    LAMBDA
+}
@@ -2,10 +2,21 @@ package org.keyboardplaying.mapper.engine;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.keyboardplaying.mapper.exception.ParserInitializationException;
 import org.keyboardplaying.mapper.parser.SimpleParser;
@@ -13,12 +24,25 @@ import org.keyboardplaying.mapper.parser.SimpleParser;
 /**
  * Provides the correct implementation of {@link SimpleParser} to use based on the type of the field to convert.
  * <p/>
- * <h1>Adding custom parsers</h1> It is possible to add custom parsers. To do so, you need to create a
- * {@code META-INF/services/org.keyboardplaying.mapper.parser} directory in your project.
+ * <h1>Adding custom parsers</h1> It is possible to add custom parsers. The preferred way is to list them in a
+ * {@code META-INF/org.keyboardplaying.mapper.parser.index} file in your project. This file uses the
+ * {@link Properties} format, each line binding the fully qualified type of field your parser handles to the fully
+ * qualified class of your parser, for instance:
+ *
+ * <pre>
+ * java.lang.String = org.keyboardplaying.mapper.parser.StringParser
+ * </pre>
  * <p/>
- * In this directory, you will need to add one descriptor file per parser. This file will be named after the fully
- * qualified type of field your parser handles, and contain only one line which is the fully qualified class of your
- * parser. For example, in the case of the {@link org.keyboardplaying.mapper.parser.StringParser}, the file is:
+ * The index files of all the jars in the classpath are read once, when the first parser is required, and merged into
+ * an immutable table. The indexes of your project take precedence over the one of this library, which allows
+ * overriding the parsers it binds whatever the order of the classpath. When several of your indexes bind the same type,
+ * the first one in the classpath wins.
+ * <p/>
+ * Parsers can also be declared through descriptor files, which live in a
+ * {@code META-INF/services/org.keyboardplaying.mapper.parser} directory, with one descriptor file per parser. This
+ * file will be named after the fully qualified type of field your parser handles, and contain only one line which is
+ * the fully qualified class of your parser. For example, in the case of the
+ * {@link org.keyboardplaying.mapper.parser.StringParser}, the file is:
  *
  * <pre>
  * META - INF / services / org.keyboardplaying.mapper.parser / java.lang.String
@@ -30,7 +54,20 @@ import org.keyboardplaying.mapper.parser.SimpleParser;
  * parser = org.keyboardplaying.mapper.parser.StringParser
  * </pre>
  * <p/>
- * This provider instantiates the parsers only when required and then return them as singletons.
+ * Descriptors are only looked for when a type is bound in none of the indexes. Looking for one implies a resource
+ * lookup across the classpath, which is done once per type.
+ * <p/>
+ * When no parser is bound to the exact type of a field, the nearest one is used, looking at the primitive or wrapper
+ * counterpart of the type, then at its superclasses and interfaces. Such a parser can format the values of the field,
+ * but the unmapping engine only uses it if the type it binds to {@link SimpleParser} is the field's type or a subtype
+ * of it. For instance, the parser of {@link java.util.Date} formats {@link java.sql.Timestamp} fields, but the
+ * {@link java.util.Date}s it parses cannot be set to them: unmapping such fields requires a parser of their own.
+ * <p/>
+ * This provider instantiates the parsers only when required and then return them as singletons. The parser resolved
+ * for each type is remembered, as are the types for which none exists, so that lookups are not repeated.
+ * <p/>
+ * This provider is safe for concurrent use. Lookups do not lock: when several threads resolve the same type for the
+ * first time, each of them may look for the descriptor, but all of them end up with the same parser instance.
  * <p/>
  * This class implements the singleton design pattern.
  *
@@ -40,13 +77,35 @@ public class AutoDiscoverParserProvider implements ParserProvider {
 
     private static final String CONVERTER_DEFINITION_PATH = "META-INF/services/org.keyboardplaying.mapper.parser/";
     private static final String CONVERTER_PROPERTY = "parser";
+    private static final String INDEX_PATH = "META-INF/org.keyboardplaying.mapper.parser.index";
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_COUNTERPARTS = new HashMap<>();
+
+    static {
+        Class<?>[][] pairs = {{boolean.class, Boolean.class}, {byte.class, Byte.class}, {char.class, Character.class},
+                {short.class, Short.class}, {int.class, Integer.class}, {long.class, Long.class},
+                {float.class, Float.class}, {double.class, Double.class}};
+        for (Class<?>[] pair : pairs) {
+            PRIMITIVE_COUNTERPARTS.put(pair[0], pair[1]);
+            PRIMITIVE_COUNTERPARTS.put(pair[1], pair[0]);
+        }
+    }
 
     private static final AutoDiscoverParserProvider instance = new AutoDiscoverParserProvider();
 
     /** A list of parser types to use based on the field type. */
-    private final Map<Class<?>, Class<? extends SimpleParser<?>>> parserDefinitions = new HashMap<>();
+    private final ConcurrentMap<Class<?>, Class<? extends SimpleParser<?>>> parserDefinitions =
+            new ConcurrentHashMap<>();
+    /** The parser class names listed in the index files, by type name, loaded on first use. */
+    private volatile Map<String, String> index;
+    /** The types for which no descriptor could be found. */
+    private final Set<Class<?>> unknownTypes = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    /** The types for which no parser could be found in their hierarchy either. */
+    private final Set<Class<?>> unresolvedTypes =
+            Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
     /** A list of all previously loaded parsers based on their type. */
-    private final Map<Class<? extends SimpleParser<?>>, SimpleParser<?>> parsers = new HashMap<>();
+    private final ConcurrentMap<Class<? extends SimpleParser<?>>, SimpleParser<?>> parsers =
+            new ConcurrentHashMap<>();
 
     /* Private constructor. */
     private AutoDiscoverParserProvider() {
@@ -78,23 +137,33 @@ public class AutoDiscoverParserProvider implements ParserProvider {
         Class<? extends SimpleParser<T>> parserClass = (Class<? extends SimpleParser<T>>) parserDefinitions.get(klass);
         if (parserClass == null) {
             parserClass = getParserClass(klass);
-            parserDefinitions.put(klass, parserClass);
+            parserDefinitions.putIfAbsent(klass, parserClass);
         }
 
         @SuppressWarnings("unchecked")
         SimpleParser<T> parser = (SimpleParser<T>) parsers.get(parserClass);
         if (parser == null) {
-            try {
-                parser = parserClass.newInstance();
-                parsers.put(parserClass, parser);
-            } catch (InstantiationException | IllegalAccessException e) {
-                throw new ParserInitializationException(parserClass.getName()
-                        + " could not be instanciated. Does it define a public no-arg constructor?", e);
+            parser = instantiate(parserClass);
+            /* Another thread may have been faster, in which case its parser is kept. */
+            @SuppressWarnings("unchecked")
+            SimpleParser<T> existing = (SimpleParser<T>) parsers.putIfAbsent(parserClass, parser);
+            if (existing != null) {
+                parser = existing;
             }
         }
         return parser;
     }
 
+    private static <T> SimpleParser<T> instantiate(Class<? extends SimpleParser<T>> parserClass)
+            throws ParserInitializationException {
+        try {
+            return parserClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new ParserInitializationException(parserClass.getName()
+                    + " could not be instanciated. Does it define a public no-arg constructor?", e);
+        }
+    }
+
     /**
      * Returns the class of the parser to use for a specific class.
      *
@@ -105,7 +174,19 @@ public class AutoDiscoverParserProvider implements ParserProvider {
      *             if the {@link SimpleParser} cannot be found or initialized
      */
     private <T> Class<? extends SimpleParser<T>> getParserClass(Class<T> klass) throws ParserInitializationException {
-        String parserClassName = getParserClassName(klass);
+        String parserClassName = null;
+        if (!unresolvedTypes.contains(klass)) {
+            for (Class<?> candidate : getCandidateTypes(klass)) {
+                parserClassName = getParserClassName(candidate);
+                if (parserClassName != null) {
+                    break;
+                }
+            }
+        }
+        if (parserClassName == null) {
+            unresolvedTypes.add(klass);
+            throw new ParserInitializationException("No parser descriptor found for type " + klass.getName() + ".");
+        }
 
         try {
             return getActualParserClass(parserClassName);
@@ -116,21 +197,74 @@ public class AutoDiscoverParserProvider implements ParserProvider {
     }
 
     /**
-     * Reads the parser's class name from the mapper's configuration.
+     * Returns the types whose parsers can handle the supplied type, nearest first: the type itself, its primitive or
+     * wrapper counterpart, then their superclasses and interfaces, breadth-first. {@link Object} is excluded.
      *
      * @param klass
      *            the class of the field to parse
-     * @return the parser's class name
+     * @return the candidate types
+     */
+    private static Collection<Class<?>> getCandidateTypes(Class<?> klass) {
+        Set<Class<?>> candidates = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(klass);
+        Class<?> counterpart = PRIMITIVE_COUNTERPARTS.get(klass);
+        if (counterpart != null) {
+            queue.add(counterpart);
+        }
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            if (!Object.class.equals(candidate) && candidates.add(candidate)) {
+                if (candidate.getSuperclass() != null) {
+                    queue.add(candidate.getSuperclass());
+                }
+                queue.addAll(Arrays.asList(candidate.getInterfaces()));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Reads the parser's class name from the indexes, or from the type's descriptor if no index binds it.
+     *
+     * @param klass
+     *            the class of the field to parse
+     * @return the parser's class name, or {@code null} if no parser was registered for this exact type
      * @throws ParserInitializationException
-     *             if the mapper file could not be read
+     *             if the mapper file could not be read or is incorrect
      */
     private <T> String getParserClassName(Class<T> klass) throws ParserInitializationException {
-        String uri = CONVERTER_DEFINITION_PATH + klass.getName();
+        /* The indexes come first, so that indexed types never cost a resource lookup. */
+        String parserClassName = getIndex().get(klass.getName());
+        if (parserClassName == null) {
+            parserClassName = getDescriptorParserClassName(klass);
+        } else if (parserClassName.isEmpty()) {
+            throw new ParserInitializationException(
+                    "SimpleParser index entry for class " + klass.getName() + " is incorrect (empty).");
+        }
+        return parserClassName;
+    }
+
+    /**
+     * Reads the parser's class name from the type's descriptor file.
+     *
+     * @param klass
+     *            the class of the field to parse
+     * @return the parser's class name, or {@code null} if no descriptor exists for this exact type
+     * @throws ParserInitializationException
+     *             if the descriptor file could not be read or is incorrect
+     */
+    private <T> String getDescriptorParserClassName(Class<T> klass) throws ParserInitializationException {
+        if (unknownTypes.contains(klass)) {
+            return null;
+        }
 
         String parserClassName;
+        String uri = CONVERTER_DEFINITION_PATH + klass.getName();
         try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(uri)) {
             if (in == null) {
-                throw new ParserInitializationException("No parser descriptor found for type " + klass.getName() + ".");
+                unknownTypes.add(klass);
+                return null;
             }
 
             Properties properties = new Properties();
@@ -148,6 +282,78 @@ public class AutoDiscoverParserProvider implements ParserProvider {
         return parserClassName;
     }
 
+    /**
+     * Returns the parser class names listed in the index files, reading them on first call.
+     *
+     * @return the parser class names, by type name
+     * @throws ParserInitializationException if an index file could not be read
+     */
+    private Map<String, String> getIndex() throws ParserInitializationException {
+        Map<String, String> loaded = index;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = index;
+                if (loaded == null) {
+                    loaded = loadIndex();
+                    index = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static Map<String, String> loadIndex() throws ParserInitializationException {
+        Map<String, String> loaded = new HashMap<>();
+        String libraryIndex = getLibraryIndexLocation();
+        Properties library = null;
+        try {
+            Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(INDEX_PATH);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                Properties properties = new Properties();
+                try (InputStream in = resource.openStream()) {
+                    properties.load(in);
+                }
+                if (library == null && resource.toString().equals(libraryIndex)) {
+                    /* Read last, so that the indexes of the project override it. */
+                    library = properties;
+                } else {
+                    merge(loaded, properties);
+                }
+            }
+        } catch (IOException e) {
+            throw new ParserInitializationException("Error occurred when trying to read the parser index files.", e);
+        }
+        if (library != null) {
+            merge(loaded, library);
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    private static void merge(Map<String, String> loaded, Properties properties) {
+        for (String type : properties.stringPropertyNames()) {
+            /* The first index in the classpath wins. */
+            if (!loaded.containsKey(type)) {
+                loaded.put(type, properties.getProperty(type).trim());
+            }
+        }
+    }
+
+    /**
+     * Returns the location of the index file shipped with this library, next to its classes.
+     *
+     * @return the location of the library's index, or {@code null} if it cannot be determined
+     */
+    private static String getLibraryIndexLocation() {
+        String classFile = AutoDiscoverParserProvider.class.getName().replace('.', '/') + ".class";
+        URL classLocation = AutoDiscoverParserProvider.class.getResource('/' + classFile);
+        if (classLocation == null) {
+            return null;
+        }
+        String location = classLocation.toString();
+        return location.substring(0, location.length() - classFile.length()) + INDEX_PATH;
+    }
+
     /**
      * Loads the parser class from the supplied name and ensures it is a parser.
      *
@@ -1,34 +1,78 @@
 package org.keyboardplaying.mapper.engine;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.keyboardplaying.mapper.Defaults;
 import org.keyboardplaying.mapper.annotation.BooleanValues;
+import org.keyboardplaying.mapper.annotation.Nested;
 import org.keyboardplaying.mapper.annotation.Temporal;
 import org.keyboardplaying.mapper.exception.FieldMappingException;
+import org.keyboardplaying.mapper.exception.MapperException;
 import org.keyboardplaying.mapper.exception.MappingException;
 import org.keyboardplaying.mapper.exception.ParserInitializationException;
-import org.keyboardplaying.mapper.parser.BooleanParser;
+import org.keyboardplaying.mapper.exception.ParsingException;
+import org.keyboardplaying.mapper.exception.PreparationException;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
 import org.keyboardplaying.mapper.parser.SimpleParser;
-import org.keyboardplaying.mapper.parser.TemporalParser;
 
 /**
  * An abstract base for engine. This class includes methods for fetching {@link SimpleParser} instances when mapping or
  * unmapping.
+ * <p/>
+ * The annotations of a bean class are read only once: the engine compiles them into a {@link MappingPlan} which is
+ * cached and reused for every subsequent bean of the same class. If a {@link GeneratedMapper} was generated for the
+ * class at compile time, it is used instead.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
 public abstract class BaseEngine {
 
+    /**
+     * The number of slices per thread a parallel batch is split into, so that threads finishing early can take over.
+     */
+    private static final int SLICES_PER_THREAD = 4;
+
     /**
      * The {@link ParserProvider}.
      */
     private ParserProvider parserProvider;
 
+    /**
+     * The way the accessors of the beans are invoked.
+     */
+    private AccessMode accessMode = AccessMode.METHOD_HANDLES;
+
+    /**
+     * The plans compiled so far, by bean class.
+     */
+    private final ConcurrentMap<Class<?>, MappingPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the {@link GeneratedMapper}s should be used.
+     */
+    private boolean useGeneratedMappers = true;
+
+    /**
+     * The generated mappers looked up so far, by bean class.
+     */
+    private final ConcurrentMap<Class<?>, Optional<GeneratedMapper<?>>> generatedMappers = new ConcurrentHashMap<>();
+
     /**
      * Sets the provider for fetching parsers.
      *
@@ -36,6 +80,33 @@ public abstract class BaseEngine {
      */
     public void setParserProvider(ParserProvider parserProvider) {
         this.parserProvider = parserProvider;
+        /* Plans hold parsers from the previous provider. */
+        plans.clear();
+    }
+
+    /**
+     * Sets the way the engine invokes the getters and setters of the beans.
+     * <p/>
+     * The default is {@link AccessMode#METHOD_HANDLES}.
+     *
+     * @param accessMode the access mode
+     * @throws NullPointerException if the supplied mode is {@code null}
+     */
+    public void setAccessMode(AccessMode accessMode) {
+        this.accessMode = Objects.requireNonNull(accessMode, "The access mode must not be null.");
+        /* Plans hold accessors for the previous mode. */
+        plans.clear();
+    }
+
+    /**
+     * Sets whether the engine should use the {@link GeneratedMapper}s generated at compile time when they exist.
+     * <p/>
+     * This is the default. Generated mappers are never used when a custom {@link ParserProvider} was set.
+     *
+     * @param useGeneratedMappers {@code false} to always use the reflective mapping
+     */
+    public void setUseGeneratedMappers(boolean useGeneratedMappers) {
+        this.useGeneratedMappers = useGeneratedMappers;
     }
 
     /**
@@ -52,8 +123,193 @@ public abstract class BaseEngine {
         return parserProvider;
     }
 
+    /**
+     * Returns the {@link MappingPlan} for the supplied class, compiling it on first use.
+     *
+     * @param klass the class of the bean to map or unmap
+     * @return the plan for this class
+     */
+    MappingPlan getPlan(Class<?> klass) {
+        MappingPlan plan = plans.get(klass);
+        if (plan == null) {
+            plan = MappingPlan.build(klass, accessMode);
+            MappingPlan previous = plans.putIfAbsent(klass, plan);
+            if (previous != null) {
+                plan = previous;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the {@link GeneratedMapper} for the supplied class, if one was generated and should be used.
+     *
+     * @param klass the class of the bean to map or unmap
+     * @return the generated mapper, or {@code null} if the plan should be used
+     */
+    @SuppressWarnings("unchecked")
+    <T> GeneratedMapper<T> getGeneratedMapper(Class<?> klass) {
+        if (!useGeneratedMappers || getParserProvider() != AutoDiscoverParserProvider.getInstance()) {
+            return null;
+        }
+
+        Optional<GeneratedMapper<?>> mapper = generatedMappers.get(klass);
+        if (mapper == null) {
+            mapper = Optional.ofNullable(loadGeneratedMapper(klass));
+            generatedMappers.putIfAbsent(klass, mapper);
+        }
+        return (GeneratedMapper<T>) mapper.orElse(null);
+    }
+
+    private static GeneratedMapper<?> loadGeneratedMapper(Class<?> klass) {
+        try {
+            /* The name may belong to an unrelated class (a DAO, another framework's mapper): do not initialize it. */
+            Class<?> mapperClass = Class.forName(klass.getName() + GeneratedMapper.SUFFIX, false,
+                    klass.getClassLoader());
+            if (GeneratedMapper.class.isAssignableFrom(mapperClass)) {
+                GeneratedMapper<?> mapper = (GeneratedMapper<?>) mapperClass.getConstructor().newInstance();
+                if (klass.equals(mapper.getBeanType())) {
+                    return mapper;
+                }
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // no usable generated mapper, the plan will be used
+        }
+        return null;
+    }
+
+    /**
+     * Prepares the engine for the supplied bean classes and validates their annotations.
+     * <p/>
+     * The plans of the classes and of their nested beans are compiled, the generated mappers are looked up and the
+     * parsers of all fields are resolved and configured, as they would be on the first mapping. This allows paying the
+     * discovery cost at startup rather than on the first mapping.
+     * <p/>
+     * Rather than stopping at the first error, all the problems found are reported at once: missing
+     * {@link Temporal} annotations, types without parsers, invalid default values, fields with neither key nor
+     * elaborate parser, elaborate parsers which cannot be instantiated, unknown {@link Nested#className()}s or missing
+     * accessors.
+     *
+     * @param beanTypes the classes of the beans to map or unmap
+     * @throws PreparationException if problems were found
+     * @throws NullPointerException if a supplied class is {@code null}
+     */
+    public void prepare(Class<?>... beanTypes) throws PreparationException {
+        List<MapperException> problems = new ArrayList<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> beanType : beanTypes) {
+            prepare(Objects.requireNonNull(beanType, "The supplied bean type was null."), visited, problems);
+        }
+        if (!problems.isEmpty()) {
+            throw new PreparationException(problems);
+        }
+    }
+
+    private void prepare(Class<?> beanType, Set<Class<?>> visited, List<MapperException> problems) {
+        if (!visited.add(beanType)) {
+            return;
+        }
+
+        try {
+            checkBeanType(beanType);
+        } catch (MapperException e) {
+            problems.add(e);
+        }
+
+        MappingPlan plan;
+        try {
+            plan = getPlan(beanType);
+            getGeneratedMapper(beanType);
+        } catch (RuntimeException e) {
+            problems.add(new MappingException("Class " + beanType.getName() + " could not be prepared.", e));
+            return;
+        }
+
+        for (MappedField field : plan.getFields()) {
+            try {
+                prepareField(field, visited, problems);
+            } catch (MapperException e) {
+                problems.add(e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void prepareField(MappedField field, Set<Class<?>> visited, List<MapperException> problems)
+            throws MapperException {
+        checkField(field);
+        if (field.isNested()) {
+            prepare(getNestedType(field), visited, problems);
+        } else if (field.getElaborate() != null) {
+            ElaborateParserRegistry.get((Class<? extends ElaborateParser<Object>>) field.getElaborate());
+        } else if (!field.hasKey()) {
+            throw new FieldMappingException(field.getField(), "No key nor elaborate parser was provided.");
+        } else {
+            SimpleParser<Object> parser = getParser(field);
+            if (!Defaults.EMPTY.equals(field.getDefaultValue())) {
+                try {
+                    parser.convertFromString(field.getDefaultValue());
+                } catch (ParsingException e) {
+                    throw new FieldMappingException(field.getField(), "The default value could not be parsed.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that the engine can process beans of the supplied class, when preparing it.
+     *
+     * @param beanType the class of the beans
+     * @throws MappingException if the engine cannot process the beans
+     */
+    void checkBeanType(Class<?> beanType) throws MappingException {
+        /* Nothing to check by default. */
+    }
+
+    /**
+     * Checks that the engine can process the supplied field, when preparing its class.
+     *
+     * @param field the field
+     * @throws MappingException if the engine cannot process the field
+     */
+    void checkField(MappedField field) throws MappingException {
+        /* Nothing to check by default. */
+    }
+
+    /**
+     * Checks that the engine can process the supplied field with the parser provided for its type, when resolving it.
+     *
+     * @param field  the field
+     * @param parser the parser provided for the field's type
+     * @throws MappingException if the parser cannot be used for the field
+     */
+    void checkParser(MappedField field, SimpleParser<?> parser) throws MappingException {
+        /* Nothing to check by default. */
+    }
+
+    /**
+     * Returns the class to instantiate for a nested bean.
+     *
+     * @param field the nested field
+     * @return the class from {@link Nested#className()}, or the type of the field if none was specified
+     * @throws MappingException if the class cannot be found
+     */
+    Class<?> getNestedType(MappedField field) throws MappingException {
+        String className = field.getNestedClassName();
+        try {
+            return className == null || className.length() == 0 ? field.getType() : Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new MappingException("Could not find class " + className + " when instantiating bean for inner field "
+                    + field.getName() + " of class " + field.getDeclaringClassName(), e);
+        }
+    }
+
     /**
      * Returns the appropriate {@link SimpleParser} based on the supplied field's type.
+     * <p/>
+     * The parser is fetched from the {@link ParserProvider} and configured with the field's annotations on first use
+     * only, then kept with the field. It is never reconfigured afterwards, so that fields of the same type but with
+     * different settings can be processed concurrently.
      *
      * @param field the field to convert a value from or to
      * @return the {@link SimpleParser} to use
@@ -62,101 +318,198 @@ public abstract class BaseEngine {
      * @throws ParserInitializationException if the {@link SimpleParser} cannot be found or initialized
      */
     @SuppressWarnings("unchecked")
-    protected <T> SimpleParser<T> getParser(Field field) throws MappingException, ParserInitializationException {
-        SimpleParser<T> parser = getParserProvider().getParser((Class<T>) field.getType());
-
+    <T> SimpleParser<T> getParser(MappedField field) throws MappingException, ParserInitializationException {
+        SimpleParser<T> parser = (SimpleParser<T>) field.getParser();
         if (parser == null) {
-
-            throw new MappingException("No parser could be found for type " + field.getType() + " (field "
-                    + field.getName() + " of " + field.getDeclaringClass().getName() + ")");
-
-        } else if (parser instanceof TemporalParser) {
-
-            if (field.isAnnotationPresent(Temporal.class)) {
-                Temporal temporal = field.getAnnotation(Temporal.class);
-                ((TemporalParser<T>) parser).setFormat(temporal.value().getFormat());
-            } else {
-                throw new FieldMappingException(field, "This field must declare the @Temporal annotation.");
+            parser = getParserProvider().getParser((Class<T>) field.getType());
+            if (parser == null) {
+                throw new MappingException("No parser could be found for type " + field.getType() + " (field "
+                        + field.getName() + " of " + field.getDeclaringClassName() + ")");
             }
+            checkParser(field, parser);
 
-        } else if (parser instanceof BooleanParser) {
-            BooleanValues annot = field.getAnnotation(BooleanValues.class);
-            if (annot != null) {
-                ((BooleanParser) parser).setTrueFalse(annot.whenTrue(), annot.whenFalse());
-            } else {
-                ((BooleanParser) parser).setTrueFalse(new String[]{Defaults.TRUE}, new String[]{Defaults.FALSE});
+            Temporal temporal = field.getTemporal();
+            if (temporal == null && ParserConfigurer.requiresTemporal(parser)) {
+                throw new FieldMappingException(field.getField(), "This field must declare the @Temporal annotation.");
             }
-        }
+            BooleanValues booleanValues = field.getBooleanValues();
+            parser = ParserConfigurer.configure(parser, temporal == null ? null : temporal.value(),
+                    booleanValues == null ? null : booleanValues.whenTrue(),
+                    booleanValues == null ? null : booleanValues.whenFalse());
 
+            field.setParser(parser);
+        }
         return parser;
     }
 
     /**
-     * Returns a {@link PropertyDescriptor} for the supplied field.
+     * Returns the supplied collection as a list allowing fast random access, copying it if needed.
      *
-     * @param bean  the bean to get a descriptor for
-     * @param field the field to get a descriptor for
-     * @return the {@link PropertyDescriptor}
-     * @throws IntrospectionException if an exception occurs during introspection.
+     * @param collection the collection
+     * @return the list
      */
-    protected <T> PropertyDescriptor getPropertyDescriptor(T bean, Field field) throws IntrospectionException {
-        return new PropertyDescriptor(field.getName(), bean.getClass());
+    @SuppressWarnings("unchecked")
+    static <T> List<T> toRandomAccessList(Collection<T> collection) {
+        return collection instanceof List && collection instanceof RandomAccess ? (List<T>) collection
+                : new ArrayList<>(collection);
     }
 
     /**
-     * Gets the value of a field in the supplied bean.
+     * Processes a batch of inputs, sequentially or split into slices run on the supplied {@link Executor}.
+     * <p/>
+     * The calling thread processes slices as well, and only waits for the slices other threads already started. This
+     * method may therefore be called from a thread of the executor itself, even a saturated one, without deadlocking.
+     * <p/>
+     * This method returns once all slices were processed. If some failed, the failure of the first one, in input
+     * order, is thrown.
      *
-     * @param bean  the bean
-     * @param field the field
-     * @return the value
+     * @param size     the number of inputs
+     * @param executor the executor to run the slices on, or {@code null} to process the batch in the calling thread
+     * @param slice    the processing of a slice of the inputs
+     * @throws MapperException            if the processing of a slice fails
+     * @throws RejectedExecutionException if the executor rejects a task, once the slices already started are
+     *                                    processed; the other slices are not
      */
-    protected <T> T get(Object bean, Field field)
-            throws IllegalAccessException, InvocationTargetException, IntrospectionException {
-        return get(bean, getPropertyDescriptor(bean, field));
+    static void processBatch(int size, Executor executor, BatchSlice slice) throws MapperException {
+        if (executor == null || size < 2) {
+            slice.process(0, size);
+            return;
+        }
+
+        int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        Batch batch = new Batch(size, Math.min(size, parallelism * SLICES_PER_THREAD), slice);
+        try {
+            /* The calling thread makes up for the last task. */
+            for (int i = 1; i < batch.slices; i++) {
+                executor.execute(batch);
+            }
+        } catch (RejectedExecutionException e) {
+            batch.abort();
+            throw e;
+        }
+        batch.run();
+        batch.await();
     }
 
     /**
-     * Gets the value of a field in the supplied bean.
-     *
-     * @param bean       the bean
-     * @param descriptor the field's descriptor
-     * @return the value
+     * The slices of a batch, which the tasks and the calling thread claim in order until none is left.
      */
-    @SuppressWarnings("unchecked")
-    protected <T> T get(Object bean, PropertyDescriptor descriptor)
-            throws IllegalAccessException, InvocationTargetException {
-        Method readMethod = descriptor.getReadMethod();
-        if (readMethod == null) {
-            throw new IllegalAccessException("Field " + descriptor.getName() + " does not possess a read method.");
+    private static final class Batch implements Runnable {
+
+        private final int size;
+        private final int slices;
+        private final BatchSlice slice;
+        private final AtomicInteger next = new AtomicInteger();
+        private final List<CompletableFuture<Void>> futures;
+
+        Batch(int size, int slices, BatchSlice slice) {
+            this.size = size;
+            this.slices = slices;
+            this.slice = slice;
+            this.futures = new ArrayList<>(slices);
+            for (int i = 0; i < slices; i++) {
+                futures.add(new CompletableFuture<Void>());
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = next.getAndIncrement(); i < slices; i = next.getAndIncrement()) {
+                CompletableFuture<Void> future = futures.get(i);
+                try {
+                    slice.process((int) ((long) size * i / slices), (int) ((long) size * (i + 1) / slices));
+                    future.complete(null);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        }
+
+        /**
+         * Prevents the slices which were not started from being processed, and waits for the others.
+         */
+        void abort() {
+            int started = Math.min(next.getAndSet(slices), slices);
+            for (int i = 0; i < started; i++) {
+                try {
+                    futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    /* The rejection is reported instead. */
+                }
+            }
+        }
+
+        /**
+         * Waits for all slices, which were all started, and reports the first failure.
+         */
+        void await() throws MapperException {
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MappingException("Interrupted while waiting for the batch to be processed.", e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof MapperException) {
+                        throw (MapperException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new MappingException("The batch could not be processed.", cause);
+                }
+            }
         }
-        return (T) readMethod.invoke(bean);
     }
 
     /**
-     * Sets the value of a field in the supplied bean.
+     * The processing of a slice of a batch.
+     * <p/>
+     * Implemented with anonymous classes rather than lambdas, which the dependency checks cannot read.
+     */
+    @FunctionalInterface
+    interface BatchSlice {
+
+        /**
+         * Processes the inputs between the supplied indexes.
+         *
+         * @param from the index of the first input, inclusive
+         * @param to   the index of the last input, exclusive
+         * @throws MapperException if the processing fails
+         */
+        void process(int from, int to) throws MapperException;
+    }
+
+    /**
+     * Gets the value of a field in the supplied bean.
      *
      * @param bean  the bean
      * @param field the field
-     * @param value the value
+     * @return the value
+     * @throws IllegalAccessException    if the field does not possess a read method
+     * @throws InvocationTargetException if the getter throws an exception
      */
-    protected void set(Object bean, Field field, Object value)
-            throws IllegalAccessException, InvocationTargetException, IntrospectionException {
-        set(bean, getPropertyDescriptor(bean, field), value);
+    @SuppressWarnings("unchecked")
+    <T> T get(Object bean, MappedField field) throws IllegalAccessException, InvocationTargetException {
+        return (T) field.getAccessor().get(bean);
     }
 
     /**
      * Sets the value of a field in the supplied bean.
      *
-     * @param bean       the bean
-     * @param descriptor the field's descriptor
-     * @param value      the value
+     * @param bean  the bean
+     * @param field the field
+     * @param value the value
+     * @throws IllegalAccessException    if the field does not possess a write method
+     * @throws InvocationTargetException if the setter throws an exception
      */
-    protected void set(Object bean, PropertyDescriptor descriptor, Object value)
-            throws IllegalAccessException, InvocationTargetException {
-        Method writeMethod = descriptor.getWriteMethod();
-        if (writeMethod == null) {
-            throw new IllegalAccessException("Field " + descriptor.getName() + " does not possess a write method.");
-        }
-        writeMethod.invoke(bean, value);
+    void set(Object bean, MappedField field, Object value) throws IllegalAccessException, InvocationTargetException {
+        field.getAccessor().set(bean, value);
     }
 }
@@ -0,0 +1,298 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
+
+/**
+ * A read-only {@link Map} view of a bean, serializing its fields on demand.
+ * <p/>
+ * When a key is produced by several fields, the last one in mapping order prevails, as in the map returned by
+ * {@link MappingEngine#map(Object)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see MappingEngine#view(Object)
+ */
+final class BeanMapView extends AbstractMap<String, String> {
+
+    /** Returned by the lookups when the key is absent, as {@code null} is a valid value. */
+    private static final Object ABSENT = new Object();
+
+    private final MappingEngine engine;
+    private final Object bean;
+
+    private Set<Entry<String, String>> entrySet;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param engine the engine to serialize the fields with
+     * @param bean   the bean
+     */
+    BeanMapView(MappingEngine engine, Object bean) {
+        this.engine = engine;
+        this.bean = bean;
+    }
+
+    @Override
+    public String get(Object key) {
+        Object value = lookup(key);
+        return value == ABSENT ? null : (String) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return lookup(key) != ABSENT;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private Object lookup(Object key) {
+        if (!(key instanceof String)) {
+            return ABSENT;
+        }
+        try {
+            return lookup(bean, (String) key);
+        } catch (MapperException e) {
+            throw new UncheckedMapperException(e);
+        }
+    }
+
+    /**
+     * Looks a key up in a bean, starting with the fields mapped last.
+     */
+    private Object lookup(Object target, String key) throws MapperException {
+        MappingPlan plan = engine.getPlan(target.getClass());
+        MappedField[] fields = plan.getFields();
+        int[] direct = plan.getFieldsForKey(key);
+        int[] indirect = plan.getIndirectFields();
+
+        int d = direct == null ? -1 : direct.length - 1;
+        for (int i = indirect.length - 1; i >= 0; i--) {
+            if (d >= 0 && direct[d] > indirect[i]) {
+                break;
+            }
+            Object value = lookupIndirect(target, fields[indirect[i]], key);
+            if (value != ABSENT) {
+                return value;
+            }
+        }
+        return d >= 0 ? engine.getMappedValue(target, fields[direct[d]]) : ABSENT;
+    }
+
+    private Object lookupIndirect(Object target, MappedField field, String key) throws MapperException {
+        if (field.isNested()) {
+            Object nested = getNested(target, field);
+            return nested == null ? ABSENT : lookup(nested, key);
+        }
+
+        Map<String, String> produced = new HashMap<>();
+        engine.performFieldMapping(target, field, produced);
+        return produced.containsKey(key) ? produced.get(key) : ABSENT;
+    }
+
+    /**
+     * Returns the value of a nested field.
+     *
+     * @return the nested bean, or {@code null} if it is {@code null} and not mandatory
+     */
+    private Object getNested(Object target, MappedField field) throws MappingException {
+        try {
+            Object nested = engine.get(target, field);
+            if (nested == null && field.isNestedMandatory()) {
+                throw new MappingException("Mandatory nested bean " + field.getName() + " of "
+                        + field.getDeclaringClassName() + " is null.");
+            }
+            return nested;
+        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
+            throw new MappingException(
+                    "Error while mapping nested " + field.getName() + " of " + field.getDeclaringClassName(), e);
+        }
+    }
+
+    /**
+     * The entries of the view, computed while iterating.
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Iterator<Entry<String, String>> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                size++;
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+    }
+
+    /**
+     * Walks the fields of the bean and of its nested beans in mapping order, yielding each key once.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final Set<String> seen = new HashSet<>();
+        /** The keys produced by the last elaborate parser. */
+        private Iterator<String> produced;
+        private String next;
+
+        EntryIterator() {
+            frames.push(new Frame(bean));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = advance();
+                } catch (MapperException e) {
+                    throw new UncheckedMapperException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String key = next;
+            next = null;
+            return new ViewEntry(key);
+        }
+
+        private String advance() throws MapperException {
+            for (;;) {
+                if (produced != null && produced.hasNext()) {
+                    String key = produced.next();
+                    if (seen.add(key)) {
+                        return key;
+                    }
+                    continue;
+                }
+
+                Frame frame = frames.peek();
+                if (frame == null) {
+                    return null;
+                }
+                if (frame.position == frame.fields.length) {
+                    frames.pop();
+                    continue;
+                }
+
+                MappedField field = frame.fields[frame.position++];
+                if (field.isNested()) {
+                    Object nested = getNested(frame.target, field);
+                    if (nested != null) {
+                        frames.push(new Frame(nested));
+                    }
+                } else if (field.getElaborate() != null) {
+                    Map<String, String> map = new HashMap<>();
+                    engine.performFieldMapping(frame.target, field, map);
+                    produced = map.keySet().iterator();
+                } else if (!field.hasKey()) {
+                    throw new MappingException("No key nor elaborate parser was provided for field "
+                            + field.getName() + " of bean " + frame.target.getClass().getSimpleName());
+                } else if (seen.add(field.getKey())) {
+                    return field.getKey();
+                }
+            }
+        }
+    }
+
+    /**
+     * A bean being walked.
+     */
+    private final class Frame {
+
+        private final Object target;
+        private final MappedField[] fields;
+        private int position;
+
+        Frame(Object target) {
+            this.target = target;
+            this.fields = engine.getPlan(target.getClass()).getFields();
+        }
+    }
+
+    /**
+     * An entry of the view, whose value is looked up when first read.
+     */
+    private final class ViewEntry implements Entry<String, String> {
+
+        private final String key;
+        private Object value = ABSENT;
+
+        ViewEntry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            if (value == ABSENT) {
+                value = lookup(key);
+            }
+            return (String) value;
+        }
+
+        @Override
+        public String setValue(String value) {
+            throw new UnsupportedOperationException("The view is read-only.");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            String v = getValue();
+            return key.equals(entry.getKey()) && (v == null ? entry.getValue() == null : v.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            String v = getValue();
+            return key.hashCode() ^ (v == null ? 0 : v.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+import org.keyboardplaying.mapper.parser.Shareable;
+
+/**
+ * Provides the instances of the {@link ElaborateParser}s.
+ * <p/>
+ * The constructor of each parser class is looked up once. Parsers annotated with {@link Shareable} are then
+ * instantiated once; the other ones are instantiated on each call, so that no two conversions share an instance,
+ * even in the same thread when a parser maps a bean which uses it again.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class ElaborateParserRegistry {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(ElaborateParser.class);
+
+    private static final ConcurrentMap<Class<?>, Source> SOURCES = new ConcurrentHashMap<>();
+
+    /* Private constructor, static methods only. */
+    private ElaborateParserRegistry() {
+    }
+
+    /**
+     * Returns an instance of the supplied parser class.
+     *
+     * @param parserClass the class of the parser
+     * @return the instance to use for a single conversion, unless the parser is {@link Shareable}
+     * @throws ParserInitializationException if the parser cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    static <F> ElaborateParser<F> get(Class<? extends ElaborateParser<F>> parserClass)
+            throws ParserInitializationException {
+        Source source = SOURCES.get(parserClass);
+        if (source == null) {
+            MethodHandle constructor = findConstructor(parserClass);
+            source = parserClass.isAnnotationPresent(Shareable.class)
+                    ? new SharedSource(instantiate(constructor, parserClass)) : new InstantiatingSource(constructor);
+            Source existing = SOURCES.putIfAbsent(parserClass, source);
+            if (existing != null) {
+                source = existing;
+            }
+        }
+        return (ElaborateParser<F>) source.get(parserClass);
+    }
+
+    private static MethodHandle findConstructor(Class<?> parserClass) throws ParserInitializationException {
+        try {
+            return MethodHandles.publicLookup().findConstructor(parserClass, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ParserInitializationException(parserClass.getName()
+                    + " could not be instanciated. Does it define a public no-arg constructor?", e);
+        }
+    }
+
+    private static ElaborateParser<?> instantiate(MethodHandle constructor, Class<?> parserClass)
+            throws ParserInitializationException {
+        try {
+            return (ElaborateParser<?>) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new ParserInitializationException(parserClass.getName() + " could not be instanciated.", t);
+        }
+    }
+
+    /**
+     * Provides the instances of a parser class.
+     */
+    private abstract static class Source {
+
+        abstract ElaborateParser<?> get(Class<?> parserClass) throws ParserInitializationException;
+    }
+
+    /**
+     * Provides the single instance of a {@link Shareable} parser.
+     */
+    private static final class SharedSource extends Source {
+
+        private final ElaborateParser<?> parser;
+
+        SharedSource(ElaborateParser<?> parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        ElaborateParser<?> get(Class<?> parserClass) {
+            return parser;
+        }
+    }
+
+    /**
+     * Provides a new instance on each call.
+     */
+    private static final class InstantiatingSource extends Source {
+
+        private final MethodHandle constructor;
+
+        InstantiatingSource(MethodHandle constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        ElaborateParser<?> get(Class<?> parserClass) throws ParserInitializationException {
+            return instantiate(constructor, parserClass);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+import org.keyboardplaying.mapper.exception.ParsingException;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+import org.keyboardplaying.mapper.parser.PrimitiveParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+
+/**
+ * The base class for the mappers generated at compile time by the {@code org.keyboardplaying.mapper.processor}.
+ * <p/>
+ * A generated mapper maps and unmaps one bean class with straight-line code, calling the getters and setters
+ * directly. It is named after the bean class with the {@link #SUFFIX} appended and placed in the same package, which
+ * is how the engines find it. When present, the engines prefer it over their reflective mapping, unless
+ * {@link BaseEngine#setUseGeneratedMappers(boolean)} was set to {@code false} or a custom {@link ParserProvider} was
+ * set, as generated mappers rely on the {@link AutoDiscoverParserProvider}.
+ * <p/>
+ * This class is not meant to be extended by hand.
+ *
+ * @param <T> the type of bean this mapper maps
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public abstract class GeneratedMapper<T> {
+
+    /**
+     * The suffix appended to the bean class name to name its mapper.
+     */
+    public static final String SUFFIX = "Mapper";
+
+    private final Class<T> beanType;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param beanType the type of bean this mapper maps
+     */
+    protected GeneratedMapper(Class<T> beanType) {
+        this.beanType = beanType;
+    }
+
+    /**
+     * Returns the type of bean this mapper maps.
+     *
+     * @return the type of bean
+     */
+    public Class<T> getBeanType() {
+        return beanType;
+    }
+
+    /**
+     * Creates a new bean.
+     *
+     * @return the new bean
+     */
+    public abstract T newInstance();
+
+    /**
+     * Maps the bean to the supplied map.
+     *
+     * @param bean   the bean
+     * @param map    the destination map
+     * @param engine the engine to use for mapping the nested beans
+     * @throws MapperException if the mapping fails
+     */
+    public abstract void map(T bean, Map<String, String> map, MappingEngine engine) throws MapperException;
+
+    /**
+     * Unmaps the supplied map to the bean.
+     *
+     * @param map    the flat metadata
+     * @param bean   the destination bean
+     * @param engine the engine to use for unmapping the nested beans
+     * @throws MapperException if the unmapping fails
+     */
+    public abstract void unmap(Map<String, String> map, T bean, UnmappingEngine engine) throws MapperException;
+
+    /**
+     * Returns the parser to use for a field.
+     * <p/>
+     * Parsers needing settings from the field's annotations get an instance of their own.
+     *
+     * @param type      the type of the field
+     * @param field     the qualified name of the field, for error messages
+     * @param temporal  the value of the field's {@link org.keyboardplaying.mapper.annotation.Temporal} annotation,
+     *                  or {@code null} if absent
+     * @param whenTrue  the {@link org.keyboardplaying.mapper.annotation.BooleanValues#whenTrue()}, or {@code null} if
+     *                  the annotation is absent
+     * @param whenFalse the {@link org.keyboardplaying.mapper.annotation.BooleanValues#whenFalse()}, or {@code null}
+     *                  if the annotation is absent
+     * @return the parser
+     * @throws ParserInitializationException if the parser cannot be found or initialized
+     * @throws MappingException              if the parser does not produce instances of the type or requires an
+     *                                       annotation the field does not declare
+     */
+    protected final <F> SimpleParser<F> parser(Class<F> type, String field, TemporalType temporal, String[] whenTrue,
+                                               String[] whenFalse)
+            throws ParserInitializationException, MappingException {
+        SimpleParser<F> parser = AutoDiscoverParserProvider.getInstance().getParser(type);
+
+        if (parser == null) {
+            throw new MappingException("No parser could be found for type " + type + " (field " + field + ")");
+        } else if (!ParsedTypes.canProduce(parser, type)) {
+            /* The mapper would fail when unmapping: leave the field to the engines, which report it. */
+            throw new MappingException(fieldMessage(field, "The parser " + parser.getClass().getName()
+                    + " does not produce instances of " + type.getName() + "."));
+        } else if (temporal == null && ParserConfigurer.requiresTemporal(parser)) {
+            throw new MappingException(fieldMessage(field, "This field must declare the @Temporal annotation."));
+        }
+        return ParserConfigurer.configure(parser, temporal, whenTrue, whenFalse);
+    }
+
+    /**
+     * Handles a {@code null} field when mapping: puts its default metadata if it defines one, fails if it is
+     * mandatory.
+     *
+     * @param map                  the destination map
+     * @param key                  the key of the field
+     * @param defaultMetadata      the default metadata of the field, possibly empty
+     * @param blankDefaultMetadata {@code true} if an empty string is the default metadata
+     * @param mandatory            {@code true} if the field is mandatory
+     * @param field                the qualified name of the field, for error messages
+     * @return {@code true} if a default value was put, {@code false} if the {@code null} field should be serialized
+     * @throws MappingException if the field is mandatory and does not define a default value
+     */
+    protected final boolean putDefault(Map<String, String> map, String key, String defaultMetadata,
+                                       boolean blankDefaultMetadata, boolean mandatory, String field)
+            throws MappingException {
+        if (!Defaults.EMPTY.equals(defaultMetadata)) {
+            map.put(key, defaultMetadata);
+        } else if (blankDefaultMetadata) {
+            map.put(key, Defaults.EMPTY);
+        } else if (mandatory) {
+            throw new MappingException(
+                    "Mandatory field " + field + " is null and does not define a default value.");
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Converts a field's value to its {@link String} representation.
+     *
+     * @param parser the parser of the field
+     * @param value  the non-{@code null} value
+     * @param field  the qualified name of the field, for error messages
+     * @return the {@link String} representation
+     * @throws MappingException if the conversion fails
+     */
+    protected final <F> String format(SimpleParser<F> parser, F value, String field) throws MappingException {
+        try {
+            return parser.convertToString(value);
+        } catch (ParsingException e) {
+            throw new MappingException(fieldMessage(field, "Field could not be read."), e);
+        }
+    }
+
+    /**
+     * Converts a {@link String} representation to a field's value.
+     *
+     * @param parser the parser of the field
+     * @param value  the non-{@code null} {@link String} representation
+     * @param field  the qualified name of the field, for error messages
+     * @return the value
+     * @throws MappingException if the conversion fails
+     */
+    protected final <F> F parse(SimpleParser<F> parser, String value, String field) throws MappingException {
+        try {
+            return parser.convertFromString(value);
+        } catch (ParsingException e) {
+            throw new MappingException("Field " + field + " could not be set.", e);
+        }
+    }
+
+    /**
+     * Converts an {@code int} field's value to its {@link String} representation, without boxing it if the parser is a
+     * {@link PrimitiveParser.OfInt}.
+     *
+     * @param parser the parser of the field
+     * @param value  the value
+     * @param field  the qualified name of the field, for error messages
+     * @return the {@link String} representation
+     * @throws MappingException if the conversion fails
+     */
+    protected final String formatInt(SimpleParser<Integer> parser, int value, String field) throws MappingException {
+        return parser instanceof PrimitiveParser.OfInt ? ((PrimitiveParser.OfInt) parser).formatInt(value)
+                : format(parser, value, field);
+    }
+
+    /**
+     * Converts a {@code long} field's value to its {@link String} representation, without boxing it if the parser is a
+     * {@link PrimitiveParser.OfLong}.
+     *
+     * @param parser the parser of the field
+     * @param value  the value
+     * @param field  the qualified name of the field, for error messages
+     * @return the {@link String} representation
+     * @throws MappingException if the conversion fails
+     */
+    protected final String formatLong(SimpleParser<Long> parser, long value, String field) throws MappingException {
+        return parser instanceof PrimitiveParser.OfLong ? ((PrimitiveParser.OfLong) parser).formatLong(value)
+                : format(parser, value, field);
+    }
+
+    /**
+     * Converts a {@code boolean} field's value to its {@link String} representation, without boxing it if the parser
+     * is a {@link PrimitiveParser.OfBoolean}.
+     *
+     * @param parser the parser of the field
+     * @param value  the value
+     * @param field  the qualified name of the field, for error messages
+     * @return the {@link String} representation
+     * @throws MappingException if the conversion fails
+     */
+    protected final String formatBoolean(SimpleParser<Boolean> parser, boolean value, String field)
+            throws MappingException {
+        return parser instanceof PrimitiveParser.OfBoolean
+                ? ((PrimitiveParser.OfBoolean) parser).formatBoolean(value) : format(parser, value, field);
+    }
+
+    /**
+     * Converts a {@link String} representation to an {@code int} field's value, without boxing it if the parser is a
+     * {@link PrimitiveParser.OfInt}.
+     *
+     * @param parser the parser of the field
+     * @param value  the non-{@code null} {@link String} representation
+     * @param field  the qualified name of the field, for error messages
+     * @return the value
+     * @throws MappingException if the conversion fails
+     */
+    protected final int parseInt(SimpleParser<Integer> parser, String value, String field) throws MappingException {
+        if (!(parser instanceof PrimitiveParser.OfInt)) {
+            return parse(parser, value, field);
+        }
+        try {
+            return ((PrimitiveParser.OfInt) parser).parseInt(value);
+        } catch (ParsingException e) {
+            throw new MappingException("Field " + field + " could not be set.", e);
+        }
+    }
+
+    /**
+     * Converts a {@link String} representation to a {@code long} field's value, without boxing it if the parser is a
+     * {@link PrimitiveParser.OfLong}.
+     *
+     * @param parser the parser of the field
+     * @param value  the non-{@code null} {@link String} representation
+     * @param field  the qualified name of the field, for error messages
+     * @return the value
+     * @throws MappingException if the conversion fails
+     */
+    protected final long parseLong(SimpleParser<Long> parser, String value, String field) throws MappingException {
+        if (!(parser instanceof PrimitiveParser.OfLong)) {
+            return parse(parser, value, field);
+        }
+        try {
+            return ((PrimitiveParser.OfLong) parser).parseLong(value);
+        } catch (ParsingException e) {
+            throw new MappingException("Field " + field + " could not be set.", e);
+        }
+    }
+
+    /**
+     * Converts a {@link String} representation to a {@code boolean} field's value, without boxing it if the parser is
+     * a {@link PrimitiveParser.OfBoolean}.
+     *
+     * @param parser the parser of the field
+     * @param value  the non-{@code null} {@link String} representation
+     * @param field  the qualified name of the field, for error messages
+     * @return the value
+     * @throws MappingException if the conversion fails
+     */
+    protected final boolean parseBoolean(SimpleParser<Boolean> parser, String value, String field)
+            throws MappingException {
+        if (!(parser instanceof PrimitiveParser.OfBoolean)) {
+            return parse(parser, value, field);
+        }
+        try {
+            return ((PrimitiveParser.OfBoolean) parser).parseBoolean(value);
+        } catch (ParsingException e) {
+            throw new MappingException("Field " + field + " could not be set.", e);
+        }
+    }
+
+    /**
+     * Converts the default value of a field, parsing it only once if the parsed value can be shared.
+     * <p/>
+     * As in the {@link UnmappingEngine}, defaults of types {@link SharedValues} cannot share are parsed on each call.
+     *
+     * @param parser the parser of the field
+     * @param value  the default value
+     * @param field  the qualified name of the field, for error messages
+     * @param cache  the holder of the field's parsed default value
+     * @return the value, copied if it is mutable
+     * @throws MappingException if the conversion fails
+     */
+    protected final <F> F parseDefault(SimpleParser<F> parser, String value, String field, AtomicReference<F> cache)
+            throws MappingException {
+        F parsed = cache.get();
+        if (parsed == null) {
+            parsed = parse(parser, value, field);
+            if (!SharedValues.isShareable(parsed)) {
+                return parsed;
+            }
+            cache.set(parsed);
+        }
+        return SharedValues.copy(parsed);
+    }
+
+    /**
+     * Returns the instance of an {@link ElaborateParser} to use in the current thread.
+     *
+     * @param parserClass the class of the parser
+     * @return the parser
+     * @throws ParserInitializationException if the parser cannot be instantiated
+     */
+    protected final <F> ElaborateParser<F> elaborate(Class<? extends ElaborateParser<F>> parserClass)
+            throws ParserInitializationException {
+        return ElaborateParserRegistry.get(parserClass);
+    }
+
+    /**
+     * Serializes a field using an {@link ElaborateParser}.
+     *
+     * @param parser the parser
+     * @param value  the value of the field
+     * @param map    the destination map
+     * @param field  the qualified name of the field, for error messages
+     * @throws MappingException if the serialization fails
+     */
+    protected final <F> void toMap(ElaborateParser<F> parser, F value, Map<String, String> map, String field)
+            throws MappingException {
+        try {
+            parser.toMap(value, map);
+        } catch (ParsingException e) {
+            throw new MappingException(fieldMessage(field,
+                    "Field could not be serialized using parser " + parser.getClass().getSimpleName() + "."), e);
+        }
+    }
+
+    /**
+     * Deserializes a field using an {@link ElaborateParser}.
+     *
+     * @param parser the parser
+     * @param map    the flat metadata
+     * @param field  the qualified name of the field, for error messages
+     * @return the value of the field
+     * @throws MappingException if the deserialization fails
+     */
+    protected final <F> F fromMap(ElaborateParser<F> parser, Map<String, String> map, String field)
+            throws MappingException {
+        try {
+            return parser.fromMap(map);
+        } catch (ParsingException e) {
+            throw new MappingException("Serialization through parser " + parser.getClass().getSimpleName()
+                    + " could not be performed for field " + field, e);
+        }
+    }
+
+    /**
+     * Maps a nested bean.
+     *
+     * @param value     the nested bean
+     * @param map       the destination map
+     * @param engine    the engine to map the nested bean with
+     * @param mandatory {@code true} if the nested bean is mandatory
+     * @param field     the qualified name of the field, for error messages
+     * @throws MapperException if the mapping fails or a mandatory nested bean is {@code null}
+     */
+    protected final void mapNested(Object value, Map<String, String> map, MappingEngine engine, boolean mandatory,
+                                   String field) throws MapperException {
+        if (value != null) {
+            engine.map(value, map);
+        } else if (mandatory) {
+            throw new MappingException("Mandatory nested bean " + field + " is null.");
+        }
+    }
+
+    /**
+     * Returns the exception to throw when mandatory data is missing.
+     *
+     * @param key the key of the missing data
+     * @param map the flat metadata
+     * @return the exception
+     */
+    protected final MappingException missing(String key, Map<String, String> map) {
+        return new MappingException("Mandatory data " + key + " is missing from metadata map (" + map.keySet() + ").");
+    }
+
+    private static String fieldMessage(String field, String message) {
+        return String.format("[%s] %s", field, message);
+    }
+}
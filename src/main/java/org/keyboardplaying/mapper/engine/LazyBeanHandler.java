@@ -0,0 +1,91 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
+
+/**
+ * The handler of a lazily unmapped bean's proxy: unmaps the annotated fields when their getters are first called,
+ * then delegates to the bean.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see UnmappingEngine#unmapLazily(Map, Class, Class)
+ */
+final class LazyBeanHandler implements InvocationHandler {
+
+    private final UnmappingEngine engine;
+    private final LazyBeanType type;
+    private final Map<String, String> metadata;
+    private final Object bean;
+    private final int[] positions;
+
+    /** Whether each field of the plan was unmapped or set through the proxy. */
+    private final boolean[] resolved;
+    private int unresolved;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param engine   the engine to unmap the fields with
+     * @param type     the description of the bean
+     * @param metadata the flat metadata
+     * @param bean     the destination bean
+     */
+    LazyBeanHandler(UnmappingEngine engine, LazyBeanType type, Map<String, String> metadata, Object bean) {
+        this.engine = engine;
+        this.type = type;
+        this.metadata = metadata;
+        this.bean = bean;
+        this.positions = UnmappingEngine.getPositions(metadata, type.getPlan());
+        this.resolved = new boolean[type.getPlan().getFields().length];
+        this.unresolved = resolved.length;
+    }
+
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        int[] fields = type.getFieldsRead(method);
+        if (fields != null) {
+            for (int field : fields) {
+                resolve(field);
+            }
+        } else if ((fields = type.getFieldsWritten(method)) != null) {
+            for (int field : fields) {
+                markResolved(field);
+            }
+        } else {
+            for (int field = 0; unresolved > 0 && field < resolved.length; field++) {
+                resolve(field);
+            }
+        }
+
+        try {
+            return method.invoke(bean, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void resolve(int field) {
+        if (resolved[field]) {
+            return;
+        }
+        try {
+            engine.unmapField(metadata, bean, type.getPlan().getFields()[field],
+                    positions == null ? MetadataKeys.NOT_FOUND : positions[field]);
+        } catch (MapperException e) {
+            throw new UncheckedMapperException(e);
+        }
+        markResolved(field);
+    }
+
+    private void markResolved(int field) {
+        if (!resolved[field]) {
+            resolved[field] = true;
+            unresolved--;
+        }
+    }
+}
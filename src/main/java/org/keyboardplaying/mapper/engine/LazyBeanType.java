@@ -0,0 +1,103 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes a lazily unmapped bean: which annotated fields each method of its interface reads or writes.
+ * <p/>
+ * Getters and setters are matched to the fields by name, following the bean notation: {@code getName()} and
+ * {@code isName()} read the field {@code name}, {@code setName(value)} writes it.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see UnmappingEngine#unmapLazily(Map, Class, Class)
+ */
+final class LazyBeanType {
+
+    private final MappingPlan plan;
+    /** The positions in the plan of the fields read by each getter. */
+    private final Map<Method, int[]> getters = new HashMap<>();
+    /** The positions in the plan of the fields written by each setter. */
+    private final Map<Method, int[]> setters = new HashMap<>();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param itf  the interface of the proxy
+     * @param plan the plan of the bean class
+     */
+    LazyBeanType(Class<?> itf, MappingPlan plan) {
+        this.plan = plan;
+        for (Method method : itf.getMethods()) {
+            String name = method.getName();
+            if (method.getParameterTypes().length == 0) {
+                String property = name.startsWith("get") ? property(name, 3)
+                        : name.startsWith("is") ? property(name, 2) : null;
+                put(getters, method, property);
+            } else if (method.getParameterTypes().length == 1 && name.startsWith("set")) {
+                put(setters, method, property(name, 3));
+            }
+        }
+    }
+
+    private static String property(String methodName, int prefixLength) {
+        if (methodName.length() == prefixLength) {
+            return null;
+        }
+        return Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+    }
+
+    private void put(Map<Method, int[]> methods, Method method, String property) {
+        if (property == null) {
+            return;
+        }
+        List<Integer> positions = new ArrayList<>();
+        MappedField[] fields = plan.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getName().equals(property)) {
+                positions.add(i);
+            }
+        }
+        if (!positions.isEmpty()) {
+            int[] array = new int[positions.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = positions.get(i);
+            }
+            methods.put(method, array);
+        }
+    }
+
+    /**
+     * Returns the plan of the bean class.
+     *
+     * @return the plan
+     */
+    MappingPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the annotated fields a method reads.
+     *
+     * @param method a method of the interface
+     * @return the positions of the fields in the plan, or {@code null} if the method is not the getter of an
+     * annotated field
+     */
+    int[] getFieldsRead(Method method) {
+        return getters.get(method);
+    }
+
+    /**
+     * Returns the annotated fields a method writes.
+     *
+     * @param method a method of the interface
+     * @return the positions of the fields in the plan, or {@code null} if the method is not the setter of an
+     * annotated field
+     */
+    int[] getFieldsWritten(Method method) {
+        return setters.get(method);
+    }
+}
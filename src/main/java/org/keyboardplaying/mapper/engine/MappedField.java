@@ -0,0 +1,312 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.Field;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.BooleanValues;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+
+/**
+ * A step of a {@link MappingPlan}: an annotated field, with all its annotation settings resolved once.
+ * <p/>
+ * A step is either a {@link Nested} field or a {@link Metadata} field. When a field bears both annotations,
+ * {@link Nested} prevails, as it always did.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class MappedField {
+
+    private static final DefaultValueProvider TYPE_DEFAULTS = new DefaultValueProvider();
+
+    private final Field field;
+    private final PropertyAccessor accessor;
+    private final boolean nested;
+
+    /* Nested settings. */
+    private final String nestedClassName;
+    private final boolean nestedMandatory;
+
+    /* Metadata settings. */
+    private final String key;
+    private final boolean mandatory;
+    private final String defaultValue;
+    private final boolean blankDefaultValue;
+    private final String defaultMetadata;
+    private final boolean blankDefaultMetadata;
+    private final Class<? extends ElaborateParser<?>> elaborate;
+    private final Temporal temporal;
+    private final BooleanValues booleanValues;
+
+    /** The value set when the metadata is {@code null}, for primitive types. */
+    private final Object typeDefault;
+
+    /** The parser, resolved on first use. */
+    private volatile SimpleParser<?> parser;
+    /** The parsed default value, if it can be shared. */
+    private volatile Object parsedDefaultValue;
+
+    /**
+     * Creates a step for a {@link Nested} field.
+     *
+     * @param field    the field
+     * @param accessor the accessor to the field's value
+     * @param nested   the field's annotation
+     */
+    MappedField(Field field, PropertyAccessor accessor, Nested nested) {
+        this.field = field;
+        this.accessor = accessor;
+        this.nested = true;
+        this.nestedClassName = nested.className();
+        this.nestedMandatory = nested.mandatory();
+
+        this.key = null;
+        this.mandatory = false;
+        this.defaultValue = null;
+        this.blankDefaultValue = false;
+        this.defaultMetadata = null;
+        this.blankDefaultMetadata = false;
+        this.elaborate = null;
+        this.temporal = null;
+        this.booleanValues = null;
+        this.typeDefault = null;
+    }
+
+    /**
+     * Creates a step for a {@link Metadata} field.
+     *
+     * @param field    the field
+     * @param accessor the accessor to the field's value
+     * @param metadata the field's annotation
+     */
+    MappedField(Field field, PropertyAccessor accessor, Metadata metadata) {
+        this.field = field;
+        this.accessor = accessor;
+        this.nested = false;
+        this.nestedClassName = null;
+        this.nestedMandatory = false;
+
+        this.key = metadata.value();
+        this.mandatory = metadata.mandatory();
+        this.defaultValue = metadata.defaultValue();
+        this.blankDefaultValue = metadata.blankDefaultValue();
+        this.defaultMetadata = metadata.defaultMetadata();
+        this.blankDefaultMetadata = metadata.blankDefaultMetadata();
+        this.elaborate = ElaborateParser.None.class.equals(metadata.elaborate()) ? null : metadata.elaborate();
+        this.temporal = field.getAnnotation(Temporal.class);
+        this.booleanValues = field.getAnnotation(BooleanValues.class);
+        this.typeDefault = TYPE_DEFAULTS.getDefaultValue(field.getType());
+    }
+
+    /**
+     * Returns the reflected field.
+     *
+     * @return the field
+     */
+    Field getField() {
+        return field;
+    }
+
+    /**
+     * Returns the accessor to the field's value.
+     *
+     * @return the accessor
+     */
+    PropertyAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * Returns the name of the field.
+     *
+     * @return the name of the field
+     */
+    String getName() {
+        return field.getName();
+    }
+
+    /**
+     * Returns the declared type of the field.
+     *
+     * @return the type of the field
+     */
+    Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * Returns the name of the class declaring the field, for error messages.
+     *
+     * @return the name of the declaring class
+     */
+    String getDeclaringClassName() {
+        return field.getDeclaringClass().getName();
+    }
+
+    /**
+     * Tells whether this field is a {@link Nested} bean.
+     *
+     * @return {@code true} for a {@link Nested} field, {@code false} for a {@link Metadata} field
+     */
+    boolean isNested() {
+        return nested;
+    }
+
+    /**
+     * Returns the {@link Nested#className()}, or an empty string when none was specified.
+     *
+     * @return the class name to instantiate for a nested bean
+     */
+    String getNestedClassName() {
+        return nestedClassName;
+    }
+
+    /**
+     * Returns {@link Nested#mandatory()}.
+     *
+     * @return {@code true} if the nested bean is mandatory
+     */
+    boolean isNestedMandatory() {
+        return nestedMandatory;
+    }
+
+    /**
+     * Returns the key of the field in the map.
+     *
+     * @return the key, possibly empty
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Tells whether the field has a key.
+     *
+     * @return {@code true} if {@link Metadata#value()} is not empty
+     */
+    boolean hasKey() {
+        return !Defaults.EMPTY.equals(key);
+    }
+
+    /**
+     * Returns {@link Metadata#mandatory()}.
+     *
+     * @return {@code true} if the field is mandatory
+     */
+    boolean isMandatory() {
+        return mandatory;
+    }
+
+    /**
+     * Returns {@link Metadata#defaultValue()}.
+     *
+     * @return the default value when unmapping, possibly empty
+     */
+    String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Returns {@link Metadata#blankDefaultValue()}.
+     *
+     * @return {@code true} if an empty string should be used as default value
+     */
+    boolean isBlankDefaultValue() {
+        return blankDefaultValue;
+    }
+
+    /**
+     * Returns {@link Metadata#defaultMetadata()}.
+     *
+     * @return the default metadata when mapping, possibly empty
+     */
+    String getDefaultMetadata() {
+        return defaultMetadata;
+    }
+
+    /**
+     * Returns {@link Metadata#blankDefaultMetadata()}.
+     *
+     * @return {@code true} if an empty string should be used as default metadata
+     */
+    boolean isBlankDefaultMetadata() {
+        return blankDefaultMetadata;
+    }
+
+    /**
+     * Returns the {@link ElaborateParser} of the field.
+     *
+     * @return the {@link ElaborateParser} class, or {@code null} if the field uses a {@link SimpleParser}
+     */
+    Class<? extends ElaborateParser<?>> getElaborate() {
+        return elaborate;
+    }
+
+    /**
+     * Returns the {@link Temporal} annotation of the field.
+     *
+     * @return the annotation, or {@code null} if absent
+     */
+    Temporal getTemporal() {
+        return temporal;
+    }
+
+    /**
+     * Returns the {@link BooleanValues} annotation of the field.
+     *
+     * @return the annotation, or {@code null} if absent
+     */
+    BooleanValues getBooleanValues() {
+        return booleanValues;
+    }
+
+    /**
+     * Returns the parser previously resolved for this field.
+     *
+     * @return the parser, or {@code null} if not resolved yet
+     */
+    SimpleParser<?> getParser() {
+        return parser;
+    }
+
+    /**
+     * Stores the parser resolved for this field.
+     *
+     * @param parser the parser
+     */
+    void setParser(SimpleParser<?> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the value to set when the metadata is {@code null}.
+     *
+     * @return the default value of the field's type: {@code null}, unless the type is primitive
+     */
+    Object getTypeDefault() {
+        return typeDefault;
+    }
+
+    /**
+     * Returns the default value previously parsed for this field.
+     * <p/>
+     * The value is shared: it must be copied through {@link SharedValues#copy(Object)} before being set.
+     *
+     * @return the parsed default value, or {@code null} if not parsed yet
+     */
+    Object getParsedDefaultValue() {
+        return parsedDefaultValue;
+    }
+
+    /**
+     * Stores the default value parsed for this field.
+     *
+     * @param parsedDefaultValue a value for which {@link SharedValues#isShareable(Object)} is {@code true}
+     */
+    void setParsedDefaultValue(Object parsedDefaultValue) {
+        this.parsedDefaultValue = parsedDefaultValue;
+    }
+}
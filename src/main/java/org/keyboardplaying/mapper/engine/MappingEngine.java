@@ -1,21 +1,30 @@
 package org.keyboardplaying.mapper.engine;
 
-import java.beans.IntrospectionException;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import org.keyboardplaying.mapper.Defaults;
-import org.keyboardplaying.mapper.annotation.Metadata;
-import org.keyboardplaying.mapper.annotation.Nested;
 import org.keyboardplaying.mapper.exception.FieldMappingException;
 import org.keyboardplaying.mapper.exception.MapperException;
 import org.keyboardplaying.mapper.exception.MappingException;
 import org.keyboardplaying.mapper.exception.ParserInitializationException;
 import org.keyboardplaying.mapper.exception.ParsingException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
 import org.keyboardplaying.mapper.parser.ElaborateParser;
+import org.keyboardplaying.mapper.parser.PrimitiveParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
 
 /**
  * The mapping engine for mapping an annotated POJO to a flat {@link Map} (mapping).
@@ -24,6 +33,29 @@ import org.keyboardplaying.mapper.parser.ElaborateParser;
  */
 public class MappingEngine extends BaseEngine {
 
+    private static final int INITIAL_CAPACITY = 16;
+
+    private boolean useMetadataMaps;
+
+    /**
+     * The keys produced by each bean class mapped so far, for the {@link MetadataMap}s.
+     */
+    private final ConcurrentMap<Class<?>, MetadataKeys> metadataKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Sets whether {@link #map(Object)} and {@link #mapAll(Collection)} should return {@link MetadataMap}s instead of
+     * {@link HashMap}s.
+     * <p/>
+     * A {@link MetadataMap} shares its keys with all the maps of the same bean class and only holds an array of
+     * values, and the {@link UnmappingEngine} reads it by position. This is not the default, as its iteration order
+     * differs from a {@link HashMap}'s.
+     *
+     * @param useMetadataMaps {@code true} to return {@link MetadataMap}s
+     */
+    public void setUseMetadataMaps(boolean useMetadataMaps) {
+        this.useMetadataMaps = useMetadataMaps;
+    }
+
     /**
      * Converts the annotated bean to {@link Map}.
      *
@@ -33,7 +65,8 @@ public class MappingEngine extends BaseEngine {
      * @throws NullPointerException if the supplied bean is {@code null}
      */
     public <T> Map<String, String> map(T bean) throws MapperException {
-        return map(bean, new HashMap<>());
+        Objects.requireNonNull(bean, "The supplied bean was null.");
+        return map(bean, newMap(bean.getClass()));
     }
 
     /**
@@ -52,126 +85,421 @@ public class MappingEngine extends BaseEngine {
         Objects.requireNonNull(bean, "The supplied bean was null.");
 
         /* Go and parse. */
-        performMapping(bean, map, bean.getClass());
+        GeneratedMapper<T> mapper = getGeneratedMapper(bean.getClass());
+        if (mapper != null) {
+            mapper.map(bean, map, this);
+        } else {
+            performMapping(bean, getPlan(bean.getClass()), map);
+        }
 
         return map;
     }
 
-    private <T> void performMapping(T bean, Map<String, String> map, Class<?> klass)
+    /**
+     * Maps the annotated bean to the supplied map, writing only the keys whose values changed since the snapshot.
+     * <p/>
+     * The bean is compared to the state the snapshot recorded during the previous call, and the snapshot is then
+     * updated. Keys whose values changed or which appeared are put into the map; keys which are not produced anymore,
+     * e.g. because a nested bean became {@code null}, are removed from it. The map may therefore be the complete
+     * metadata of the bean, kept up to date, or an empty map receiving only the changes.
+     * <p/>
+     * The generated mappers are not used.
+     *
+     * @param bean     the annotated bean
+     * @param map      the destination map
+     * @param snapshot the state of the bean when last mapped, empty for the first mapping
+     * @return the keys which were put or removed
+     * @throws MapperException      if a SimpleParser could not be initialized or the mapping fails; the map is left
+     *                              unchanged and the changes will be written by the next call
+     * @throws NullPointerException if a parameter is {@code null}
+     */
+    public <T> Set<String> mapChanges(T bean, Map<String, String> map, MappingSnapshot snapshot)
             throws MapperException {
-        final Field[] fields = klass.getDeclaredFields();
+        Objects.requireNonNull(bean, "The supplied bean was null.");
+        Objects.requireNonNull(map, "The destination map must not be null.");
+        Objects.requireNonNull(snapshot, "The supplied snapshot was null.");
 
-        for (Field field : fields) {
-            if (field.isAnnotationPresent(Nested.class)) {
-                performNestedMapping(bean, field, map);
-            } else if (field.isAnnotationPresent(Metadata.class)) {
+        Map<String, String> previous = snapshot.getMetadataMap();
+        Map<String, String> current = new HashMap<>(Math.max(INITIAL_CAPACITY, previous.size() * 4 / 3 + 1));
+        mapChanges(bean, current, snapshot, 0);
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String key = entry.getKey();
+            if (!previous.containsKey(key) || !Objects.equals(previous.get(key), entry.getValue())) {
+                map.put(key, entry.getValue());
+                changed.add(key);
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                map.remove(key);
+                changed.add(key);
+            }
+        }
+
+        snapshot.setMetadataMap(current);
+        return changed;
+    }
+
+    /**
+     * Maps a bean and its nested beans, reusing the metadata of the fields which did not change.
+     *
+     * @return the position of the next field in the mapping order
+     */
+    private int mapChanges(Object bean, Map<String, String> map, MappingSnapshot snapshot, int position)
+            throws MapperException {
+        int nextPosition = position;
+        for (MappedField field : getPlan(bean.getClass()).getFields()) {
+            if (field.isNested()) {
+                Object nested = getFieldValue(bean, field);
+                if (nested != null) {
+                    nextPosition = mapChanges(nested, map, snapshot, nextPosition);
+                } else if (field.isNestedMandatory()) {
+                    throw new MappingException("Mandatory nested bean " + field.getName() + " of "
+                            + field.getDeclaringClassName() + " is null.");
+                }
+            } else if (field.getElaborate() != null || !field.hasKey()) {
                 performFieldMapping(bean, field, map);
+            } else {
+                Object value = getFieldValue(bean, field);
+                String mapped = snapshot.getUnchanged(nextPosition, field, value);
+                if (mapped == null) {
+                    mapped = toMappedValue(field, value);
+                    snapshot.record(nextPosition, field, value, mapped);
+                }
+                nextPosition++;
+                setValue(map, field, mapped);
             }
         }
+        return nextPosition;
+    }
+
+    /**
+     * Returns a read-only view of the annotated bean as a {@link Map}.
+     * <p/>
+     * The view holds no value: each lookup calls the getter and the parser of the fields bound to the key, and only
+     * them, and the entries are serialized one at a time while iterating. The view therefore reflects the current
+     * state of the bean. It is what {@link #map(Object)} would return, except that the errors are thrown as
+     * {@link UncheckedMapperException}s when the failing field is read, and that the generated mappers are not used.
+     * <p/>
+     * Looking up a key may call the getters of the nested beans and the elaborate parsers, as they may produce any key.
+     *
+     * @param bean the annotated bean
+     * @return the view
+     * @throws NullPointerException if the supplied bean is {@code null}
+     */
+    public <T> Map<String, String> view(T bean) {
+        return new BeanMapView(this, Objects.requireNonNull(bean, "The supplied bean was null."));
+    }
+
+    /**
+     * Converts annotated beans to {@link Map}s.
+     *
+     * @param beans the annotated beans
+     * @return the {@link Map}s containing the mapped properties, in the order of the beans
+     * @throws MapperException      if a SimpleParser could not be initialized or the mapping of a bean fails
+     * @throws NullPointerException if the collection or one of the beans is {@code null}
+     */
+    public <T> List<Map<String, String>> mapAll(Collection<T> beans) throws MapperException {
+        return mapAll(beans, null);
+    }
 
-        /* Take care of inherited fields. */
-        final Class<?> superklass = klass.getSuperclass();
-        if (!superklass.equals(Object.class)) {
-            performMapping(bean, map, superklass);
+    /**
+     * Converts annotated beans to {@link Map}s, splitting the work over the supplied {@link Executor}.
+     * <p/>
+     * The beans are split in slices, each of which is mapped in a single task. The calling thread maps slices too,
+     * then waits until all beans are mapped; it may be a thread of the executor. A
+     * {@link java.util.concurrent.ForkJoinPool} is a good fit for large batches.
+     *
+     * @param beans    the annotated beans
+     * @param executor the executor to map the beans on, or {@code null} to map them in the calling thread
+     * @return the {@link Map}s containing the mapped properties, in the order of the beans
+     * @throws MapperException      if a SimpleParser could not be initialized or the mapping of a bean fails
+     * @throws NullPointerException if the collection or one of the beans is {@code null}
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects a task, once the slices
+     *                                                         already started are mapped
+     */
+    public <T> List<Map<String, String>> mapAll(Collection<T> beans, Executor executor) throws MapperException {
+        Objects.requireNonNull(beans, "The supplied beans were null.");
+
+        List<T> inputs = toRandomAccessList(beans);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map<String, String>[] results = new Map[inputs.size()];
+        processBatch(inputs.size(), executor, new BatchSlice() {
+            @Override
+            public void process(int from, int to) throws MapperException {
+                mapSlice(inputs, from, to, results);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Maps a slice of a batch, looking up the way to map a class only when it differs from the previous bean's.
+     */
+    private void mapSlice(List<?> beans, int from, int to, Map<String, String>[] results) throws MapperException {
+        Class<?> type = null;
+        GeneratedMapper<Object> mapper = null;
+        MappingPlan plan = null;
+
+        for (int i = from; i < to; i++) {
+            Object bean = Objects.requireNonNull(beans.get(i), "The supplied bean was null.");
+            if (bean.getClass() != type) {
+                type = bean.getClass();
+                mapper = getGeneratedMapper(type);
+                plan = mapper == null ? getPlan(type) : null;
+            }
+
+            Map<String, String> map = newMap(type);
+            if (mapper != null) {
+                mapper.map(bean, map, this);
+            } else {
+                performMapping(bean, plan, map);
+            }
+            results[i] = map;
         }
     }
 
-    private <T> void performNestedMapping(T bean, Field field, Map<String, String> result) throws MapperException {
+    @Override
+    void checkBeanType(Class<?> beanType) throws MappingException {
+        if (useMetadataMaps) {
+            /* Index the keys of the class in advance. */
+            newMap(beanType);
+        }
+    }
+
+    @Override
+    void checkField(MappedField field) throws MappingException {
+        if (!field.getAccessor().isReadable()) {
+            throw new FieldMappingException(field.getField(), "This field does not possess a read method.");
+        }
+    }
+
+    private Map<String, String> newMap(Class<?> klass) {
+        if (!useMetadataMaps) {
+            return new HashMap<>();
+        }
+
+        MetadataKeys keys = metadataKeys.get(klass);
+        if (keys == null) {
+            List<String> collected = new ArrayList<>();
+            collectKeys(klass, collected, new HashSet<Class<?>>());
+            keys = MetadataKeys.of(collected);
+            MetadataKeys existing = metadataKeys.putIfAbsent(klass, keys);
+            if (existing != null) {
+                keys = existing;
+            }
+        }
+        return new MetadataMap(keys);
+    }
+
+    /**
+     * Collects the keys of a class's fields and of its nested beans' fields. The keys of elaborate parsers and of
+     * nested beans whose actual class is not the declared one cannot be known, they are not collected.
+     */
+    private void collectKeys(Class<?> klass, List<String> keys, Set<Class<?>> visited) {
+        if (!visited.add(klass)) {
+            return;
+        }
+        for (MappedField field : getPlan(klass).getFields()) {
+            if (field.isNested()) {
+                Class<?> nestedType = field.getType();
+                if (!field.getNestedClassName().isEmpty()) {
+                    try {
+                        nestedType = Class.forName(field.getNestedClassName());
+                    } catch (ClassNotFoundException e) {
+                        /* The unmapping will report it, the keys are simply not indexed. */
+                    }
+                }
+                collectKeys(nestedType, keys, visited);
+            } else if (field.getElaborate() == null && field.hasKey()) {
+                keys.add(field.getKey());
+            }
+        }
+    }
+
+    private <T> void performMapping(T bean, MappingPlan plan, Map<String, String> map) throws MapperException {
+        for (MappedField field : plan.getFields()) {
+            if (field.isNested()) {
+                performNestedMapping(bean, field, map);
+            } else {
+                performFieldMapping(bean, field, map);
+            }
+        }
+    }
+
+    private <T> void performNestedMapping(T bean, MappedField field, Map<String, String> result)
+            throws MapperException {
         try {
 
             Object value = get(bean, field);
             if (value != null) {
                 map(value, result);
-            } else if (field.getAnnotation(Nested.class).mandatory()) {
+            } else if (field.isNestedMandatory()) {
                 throw new MappingException("Mandatory nested bean " + field.getName() + " of "
-                        + field.getDeclaringClass().getName() + " is null.");
+                        + field.getDeclaringClassName() + " is null.");
             }
 
-        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException
-                | IntrospectionException e) {
+        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
             throw new MappingException(
-                    "Error while mapping nested " + field.getName() + " of " + field.getDeclaringClass().getName(), e);
+                    "Error while mapping nested " + field.getName() + " of " + field.getDeclaringClassName(), e);
         }
     }
 
-    private <T, F> void performFieldMapping(T bean, Field field, Map<String, String> map)
+    /**
+     * Maps a {@link org.keyboardplaying.mapper.annotation.Metadata} field to the supplied map.
+     *
+     * @param bean  the bean
+     * @param field the field
+     * @param map   the destination map
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    <T, F> void performFieldMapping(T bean, MappedField field, Map<String, String> map)
             throws ParserInitializationException, MappingException {
-        Metadata settings = field.getAnnotation(Metadata.class);
+        String primitive = formatPrimitiveField(bean, field);
+        if (primitive != null) {
+            setValue(map, field, primitive);
+            return;
+        }
 
         try {
             F fieldValue = get(bean, field);
 
-            if (fieldValue == null) {
-
-                /* Field is null. */
-                if (!Defaults.EMPTY.equals(settings.defaultMetadata())) {
+            String defaultMetadata = fieldValue == null ? getDefaultMetadata(field) : null;
+            if (defaultMetadata != null) {
+                /* Use the default value instead. */
+                setValue(map, field, defaultMetadata);
+            } else {
+                serializeField(bean, field, fieldValue, map);
+            }
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new FieldMappingException(field.getField(), "Field could not be serialized.", e);
+        }
+    }
 
-                    /* Use the default value instead. */
-                    setValue(map, settings, settings.defaultMetadata());
+    /**
+     * Returns the value a field with a key and without an elaborate parser is mapped to.
+     *
+     * @param bean  the bean
+     * @param field the field
+     * @return the value mapped to the field's key
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    String getMappedValue(Object bean, MappedField field) throws ParserInitializationException, MappingException {
+        String primitive = formatPrimitiveField(bean, field);
+        return primitive != null ? primitive : toMappedValue(field, getFieldValue(bean, field));
+    }
 
-                } else if (settings.blankDefaultMetadata()) {
+    /**
+     * Maps an {@code int}, {@code long} or {@code boolean} field without boxing its value, if its parser is a
+     * {@link PrimitiveParser} and its getter returns the primitive type.
+     *
+     * @param bean  the bean
+     * @param field the field
+     * @return the value mapped to the field's key, or {@code null} if the field cannot be mapped this way
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    private String formatPrimitiveField(Object bean, MappedField field)
+            throws ParserInitializationException, MappingException {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive() || field.getElaborate() != null || !field.hasKey()) {
+            return null;
+        }
 
-                    /* Use the default value instead. */
-                    setValue(map, settings, Defaults.EMPTY);
+        SimpleParser<?> parser = getParser(field);
+        PropertyAccessor accessor = field.getAccessor();
+        try {
+            if (type == int.class && parser instanceof PrimitiveParser.OfInt && accessor.hasPrimitiveGetter(type)) {
+                return ((PrimitiveParser.OfInt) parser).formatInt(accessor.getInt(bean));
+            } else if (type == long.class && parser instanceof PrimitiveParser.OfLong
+                    && accessor.hasPrimitiveGetter(type)) {
+                return ((PrimitiveParser.OfLong) parser).formatLong(accessor.getLong(bean));
+            } else if (type == boolean.class && parser instanceof PrimitiveParser.OfBoolean
+                    && accessor.hasPrimitiveGetter(type)) {
+                return ((PrimitiveParser.OfBoolean) parser).formatBoolean(accessor.getBoolean(bean));
+            }
+        } catch (InvocationTargetException e) {
+            throw new FieldMappingException(field.getField(), "Field could not be serialized.", e);
+        }
+        return null;
+    }
 
-                } else if (settings.mandatory()) {
+    private String toMappedValue(MappedField field, Object fieldValue)
+            throws ParserInitializationException, MappingException {
+        return fieldValue == null ? getDefaultMetadata(field) : getFieldAsString(field, fieldValue);
+    }
 
-                    /* Data is absent though mandatory, raise an exception. */
-                    throw new MappingException("Mandatory field " + field.getName() + " of "
-                            + field.getDeclaringClass().getName() + " is null and does not define a default value.");
-                } else {
-                    serializeField(bean, field, settings, map);
-                }
+    private Object getFieldValue(Object bean, MappedField field) throws FieldMappingException {
+        try {
+            return get(bean, field);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new FieldMappingException(field.getField(), "Field could not be serialized.", e);
+        }
+    }
 
-            } else {
-                serializeField(bean, field, settings, map);
-            }
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | IntrospectionException e) {
-            throw new FieldMappingException(field, "Field could not be serialized.", e);
+    /**
+     * Returns the value to map a {@code null} field to.
+     *
+     * @param field the field
+     * @return the default metadata, or {@code null} if the field does not define any
+     * @throws MappingException if the field is mandatory and does not define a default value
+     */
+    private static String getDefaultMetadata(MappedField field) throws MappingException {
+        if (!Defaults.EMPTY.equals(field.getDefaultMetadata())) {
+            return field.getDefaultMetadata();
+        } else if (field.isBlankDefaultMetadata()) {
+            return Defaults.EMPTY;
+        } else if (field.isMandatory()) {
+            /* Data is absent though mandatory, raise an exception. */
+            throw new MappingException("Mandatory field " + field.getName() + " of "
+                    + field.getDeclaringClassName() + " is null and does not define a default value.");
         }
+        return null;
     }
 
-    private <F, T> void serializeField(T bean, Field field, Metadata settings, Map<String, String> map)
+    private <F, T> void serializeField(T bean, MappedField field, F value, Map<String, String> map)
             throws ParserInitializationException, MappingException {
         @SuppressWarnings("unchecked")
-        Class<? extends ElaborateParser<F>> elaborate = (Class<? extends ElaborateParser<F>>) settings.elaborate();
-        if (!elaborate.equals(ElaborateParser.None.class)) {
+        Class<? extends ElaborateParser<F>> elaborate = (Class<? extends ElaborateParser<F>>) field.getElaborate();
+        if (elaborate != null) {
             // an elaborate parser was defined, overrides the default parser
-            serializeField(bean, field, map, elaborate);
-        } else if (Defaults.EMPTY.equals(settings.value())) {
+            serializeField(field, value, map, elaborate);
+        } else if (!field.hasKey()) {
             throw new MappingException("No key nor elaborate parser was provided for field " + field.getName()
                     + " of bean " + bean.getClass().getSimpleName());
         } else {
             // simple parse and store
-            setValue(map, settings, field == null ? null : getFieldAsString(bean, field));
+            setValue(map, field, getFieldAsString(field, value));
         }
     }
 
-    private <T> String getFieldAsString(T bean, Field field) throws ParserInitializationException, MappingException {
+    private String getFieldAsString(MappedField field, Object value)
+            throws ParserInitializationException, MappingException {
         try {
 
-            Object value = get(bean, field);
             return value == null ? null : getParser(field).convertToString(value);
 
-        } catch (IllegalAccessException | ParsingException | InvocationTargetException | IntrospectionException e) {
-            throw new FieldMappingException(field, "Field could not be read.", e);
+        } catch (ParsingException e) {
+            throw new FieldMappingException(field.getField(), "Field could not be read.", e);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T, F> void serializeField(T bean, Field field, Map<String, String> map,
-                                       Class<? extends ElaborateParser<F>> parser) throws MappingException {
+    private <F> void serializeField(MappedField field, F value, Map<String, String> map,
+                                    Class<? extends ElaborateParser<F>> parser)
+            throws ParserInitializationException, MappingException {
         try {
-            parser.newInstance().toMap(get(bean, field), map);
-        } catch (ParsingException | InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | IntrospectionException e) {
-            throw new FieldMappingException(field,
-                    "Field could not be serialized using parser " + parser.getClass().getSimpleName() + ".", e);
+            ElaborateParserRegistry.get(parser).toMap(value, map);
+        } catch (ParsingException e) {
+            throw new FieldMappingException(field.getField(),
+                    "Field could not be serialized using parser " + parser.getSimpleName() + ".", e);
         }
     }
 
-    private void setValue(Map<String, String> map, Metadata settings, String value) {
-        map.put(settings.value(), value);
+    private void setValue(Map<String, String> map, MappedField field, String value) {
+        map.put(field.getKey(), value);
     }
 }
@@ -0,0 +1,216 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+
+/**
+ * The compiled mapping of a bean class: the ordered list of its annotated fields, inherited ones included.
+ * <p/>
+ * Plans are built once per class by the engines and then reused, so that mapping a bean only iterates over an array
+ * instead of walking the class hierarchy and its annotations. The accessors of each field are resolved against the
+ * planned class as well.
+ * <p/>
+ * The structure of a plan and the annotation settings of its fields never change once built. The parser and the
+ * parsed default value of a field are resolved on first use instead, and cached in {@code volatile} fields of the
+ * {@link MappedField}, as are the positions of the keys in a {@link MetadataKeys} by the plan: threads racing to
+ * resolve them may each compute a value, but each value is fully configured before being published and any of them
+ * can be used, so plans are safe to share between threads.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class MappingPlan {
+
+    private final Class<?> beanType;
+    private final MappedField[] fields;
+    /** The positions of the fields set from a single key, by key. */
+    private final Map<String, int[]> keyIndex;
+    private final boolean elaborate;
+    /** The positions of the nested and elaborate fields, which may produce any key. */
+    private final int[] indirectFields;
+    /** The positions of the fields to process even when their key is absent. */
+    private final int[] unconditionalFields;
+    /** The positions of the fields' keys in the last {@link MetadataKeys} they were looked up in. */
+    private volatile KeyPositions keyPositions;
+
+    private MappingPlan(Class<?> beanType, MappedField[] fields) {
+        this.beanType = beanType;
+        this.fields = fields;
+
+        Map<String, int[]> index = new HashMap<>();
+        boolean hasElaborate = false;
+        int[] indirect = new int[fields.length];
+        int indirectCount = 0;
+        int[] unconditional = new int[fields.length];
+        int unconditionalCount = 0;
+        for (int i = 0; i < fields.length; i++) {
+            MappedField field = fields[i];
+            if (field.isNested() || field.getElaborate() != null || !field.hasKey() || field.isMandatory()
+                    || field.isBlankDefaultValue() || !Defaults.EMPTY.equals(field.getDefaultValue())) {
+                unconditional[unconditionalCount++] = i;
+            }
+            if (field.isNested()) {
+                indirect[indirectCount++] = i;
+            } else if (field.getElaborate() != null) {
+                indirect[indirectCount++] = i;
+                hasElaborate = true;
+            } else if (field.hasKey()) {
+                int[] positions = index.get(field.getKey());
+                positions = positions == null ? new int[1] : Arrays.copyOf(positions, positions.length + 1);
+                positions[positions.length - 1] = i;
+                index.put(field.getKey(), positions);
+            }
+        }
+        this.keyIndex = index;
+        this.elaborate = hasElaborate;
+        this.indirectFields = Arrays.copyOf(indirect, indirectCount);
+        this.unconditionalFields = Arrays.copyOf(unconditional, unconditionalCount);
+    }
+
+    /**
+     * Builds the plan for the supplied class, accessing fields through method handles.
+     *
+     * @param beanType the class of the beans to map
+     * @return the plan for the class
+     */
+    static MappingPlan build(Class<?> beanType) {
+        return build(beanType, AccessMode.METHOD_HANDLES);
+    }
+
+    /**
+     * Builds the plan for the supplied class.
+     * <p/>
+     * Fields are ordered as they always were processed: fields declared by the class first, then those of its
+     * superclass, and so on up to {@link Object}.
+     *
+     * @param beanType   the class of the beans to map
+     * @param accessMode the way the accessors of the fields should be invoked
+     * @return the plan for the class
+     */
+    static MappingPlan build(Class<?> beanType, AccessMode accessMode) {
+        List<MappedField> fields = new ArrayList<>();
+
+        for (Class<?> klass = beanType; klass != null && !Object.class.equals(klass); klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                Nested nested = field.getAnnotation(Nested.class);
+                if (nested != null) {
+                    fields.add(new MappedField(field, PropertyAccessor.of(beanType, field, accessMode), nested));
+                } else {
+                    Metadata metadata = field.getAnnotation(Metadata.class);
+                    if (metadata != null) {
+                        fields.add(new MappedField(field, PropertyAccessor.of(beanType, field, accessMode), metadata));
+                    }
+                }
+            }
+        }
+
+        return new MappingPlan(beanType, fields.toArray(new MappedField[fields.size()]));
+    }
+
+    /**
+     * Returns the class this plan was built for.
+     *
+     * @return the class of the mapped beans
+     */
+    Class<?> getBeanType() {
+        return beanType;
+    }
+
+    /**
+     * Returns the annotated fields, in processing order.
+     * <p/>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the annotated fields
+     */
+    MappedField[] getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the fields set from the supplied key, elaborate fields excepted.
+     * <p/>
+     * The returned array is shared and must not be modified.
+     *
+     * @param key the key
+     * @return the positions of the fields in {@link #getFields()}, or {@code null} if no field uses this key
+     */
+    int[] getFieldsForKey(String key) {
+        return keyIndex.get(key);
+    }
+
+    /**
+     * Tells whether some fields of the class, nested beans excepted, use an {@link ElaborateParser}. Such fields may
+     * read any key of the map.
+     *
+     * @return {@code true} if at least one field uses an elaborate parser
+     */
+    boolean hasElaborateFields() {
+        return elaborate;
+    }
+
+    /**
+     * Returns the nested fields and the fields using an {@link ElaborateParser}, whose keys are not known in advance.
+     * <p/>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the positions of the fields in {@link #getFields()}, in ascending order
+     */
+    int[] getIndirectFields() {
+        return indirectFields;
+    }
+
+    /**
+     * Returns the fields an unmapping must process even when their key is absent from the metadata: nested and
+     * elaborate fields, fields without a key, mandatory fields and fields with a default value.
+     * <p/>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the positions of the fields in {@link #getFields()}, in ascending order
+     */
+    int[] getUnconditionalFields() {
+        return unconditionalFields;
+    }
+
+    /**
+     * Returns the positions of the fields' keys in the supplied index, so that the values of a {@link MetadataMap} are
+     * read without looking up the keys.
+     * <p/>
+     * Only the positions in the last index are kept: a plan is most often unmapped from the maps of a single class,
+     * and keeping them with the plan rather than with the index does not retain plans once their engine is gone. The
+     * returned array is shared and must not be modified.
+     *
+     * @param keys the index of the keys of the metadata
+     * @return the positions, as returned by {@link MetadataKeys#positionsOf(MappedField[])}
+     */
+    int[] getKeyPositions(MetadataKeys keys) {
+        KeyPositions cached = keyPositions;
+        if (cached == null || cached.keys != keys) {
+            cached = new KeyPositions(keys, keys.positionsOf(fields));
+            keyPositions = cached;
+        }
+        return cached.positions;
+    }
+
+    /**
+     * The positions of the fields' keys in an index.
+     */
+    private static final class KeyPositions {
+
+        private final MetadataKeys keys;
+        private final int[] positions;
+
+        KeyPositions(MetadataKeys keys, int[] positions) {
+            this.keys = keys;
+            this.positions = positions;
+        }
+    }
+}
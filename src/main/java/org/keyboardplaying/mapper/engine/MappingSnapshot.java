@@ -0,0 +1,85 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of a bean when it was last mapped by {@link MappingEngine#mapChanges(Object, Map, MappingSnapshot)}.
+ * <p/>
+ * A snapshot holds the metadata the bean was mapped to, so that only the keys whose values changed are written on the
+ * next mapping. It also holds the value of each field, so that the fields of immutable types ({@link String}s,
+ * primitive wrappers, {@link java.math.BigInteger}s, {@link java.math.BigDecimal}s and enums) which did not change are
+ * not serialized again. Fields of other types, such as {@link java.util.Date}s, may be modified in place: they are
+ * always serialized, and compared to the previous metadata.
+ * <p/>
+ * A new snapshot is empty: the first mapping writes all keys. A snapshot should only be used with a single bean and
+ * is not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class MappingSnapshot {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Map<String, String> metadata = new HashMap<>();
+
+    /* The fields in the order they were mapped, with their values and the metadata they were mapped to. */
+    private MappedField[] fields = new MappedField[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private String[] mapped = new String[INITIAL_CAPACITY];
+
+    /**
+     * Returns the metadata the bean was mapped to.
+     *
+     * @return an unmodifiable view of the metadata
+     */
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    Map<String, String> getMetadataMap() {
+        return metadata;
+    }
+
+    void setMetadataMap(Map<String, String> metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * Returns what a field was mapped to, if it can be reused.
+     *
+     * @param position the position of the field in the mapping order
+     * @param field    the field
+     * @param value    the current value of the field
+     * @return the metadata previously mapped, or {@code null} if the field must be serialized
+     */
+    String getUnchanged(int position, MappedField field, Object value) {
+        if (position < fields.length && fields[position] == field && value != null && SharedValues.isImmutable(value)
+                && value.equals(values[position])) {
+            return mapped[position];
+        }
+        return null;
+    }
+
+    /**
+     * Records what a field was mapped to.
+     *
+     * @param position the position of the field in the mapping order
+     * @param field    the field
+     * @param value    the value of the field
+     * @param metadata the metadata the value was mapped to
+     */
+    void record(int position, MappedField field, Object value, String metadata) {
+        if (position >= fields.length) {
+            int length = Math.max(position + 1, fields.length * 2);
+            fields = Arrays.copyOf(fields, length);
+            values = Arrays.copyOf(values, length);
+            mapped = Arrays.copyOf(mapped, length);
+        }
+        fields[position] = field;
+        values[position] = value;
+        mapped[position] = metadata;
+    }
+}
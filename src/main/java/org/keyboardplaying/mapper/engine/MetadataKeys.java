@@ -0,0 +1,139 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * The keys a bean class produces when mapped, indexed by a perfect hash.
+ * <p/>
+ * An instance is built once per class and shared by all the {@link MetadataMap}s of this class. Each key gets a
+ * position, which its value uses in the maps' arrays. The hash table holds at most one key per slot, so that finding
+ * a key's position takes a single comparison.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class MetadataKeys {
+
+    /** Returned when a key is not indexed. */
+    static final int NOT_FOUND = -1;
+
+    /* The table may be up to 8 times as large as the number of keys. */
+    private static final int MAX_LOAD_SHIFT = 3;
+    private static final int SEEDS_PER_SIZE = 64;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final String[] keys;
+    /** The positions of the keys plus one, by slot; {@code 0} marks an empty slot. */
+    private final int[] slots;
+    private final int seed;
+    private final int shift;
+    /** Used instead of the table when no perfect hash was found, e.g. when two keys share a hash code. */
+    private final Map<String, Integer> fallback;
+
+    private MetadataKeys(String[] keys, int[] slots, int seed, int shift, Map<String, Integer> fallback) {
+        this.keys = keys;
+        this.slots = slots;
+        this.seed = seed;
+        this.shift = shift;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Indexes the supplied keys.
+     *
+     * @param keys the keys; duplicates are ignored
+     * @return the index
+     */
+    static MetadataKeys of(Collection<String> keys) {
+        String[] distinct = new LinkedHashSet<>(keys).toArray(new String[0]);
+
+        int minBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(distinct.length));
+        for (int bits = minBits; bits <= minBits + MAX_LOAD_SHIFT && bits < 31; bits++) {
+            int[] slots = new int[1 << bits];
+            for (int attempt = 0; attempt < SEEDS_PER_SIZE; attempt++) {
+                int seed = GOLDEN_RATIO * (2 * attempt + 1);
+                if (fill(distinct, slots, seed, 32 - bits)) {
+                    return new MetadataKeys(distinct, slots, seed, 32 - bits, null);
+                }
+            }
+        }
+
+        Map<String, Integer> fallback = new HashMap<>();
+        for (int i = 0; i < distinct.length; i++) {
+            fallback.put(distinct[i], i);
+        }
+        return new MetadataKeys(distinct, null, 0, 0, fallback);
+    }
+
+    private static boolean fill(String[] keys, int[] slots, int seed, int shift) {
+        Arrays.fill(slots, 0);
+        for (int i = 0; i < keys.length; i++) {
+            int slot = keys[i].hashCode() * seed >>> shift;
+            if (slots[slot] != 0) {
+                return false;
+            }
+            slots[slot] = i + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the position of a key.
+     *
+     * @param key the key
+     * @return the position, or {@link #NOT_FOUND} if the key is not indexed
+     */
+    int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return NOT_FOUND;
+        }
+        if (fallback != null) {
+            Integer index = fallback.get(key);
+            return index == null ? NOT_FOUND : index;
+        }
+        int position = slots[key.hashCode() * seed >>> shift] - 1;
+        return position >= 0 && keys[position].equals(key) ? position : NOT_FOUND;
+    }
+
+    /**
+     * Returns the key at the supplied position.
+     *
+     * @param index the position
+     * @return the key
+     */
+    String keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the positions of the keys of a plan's fields, so that unmapping a class whose keys are indexed here
+     * reads its values without looking up the keys.
+     * <p/>
+     * The positions are computed on each call: {@link MappingPlan#getKeyPositions(MetadataKeys)} keeps them.
+     *
+     * @param fields the fields of the plan
+     * @return the position of each field's key, by position of the field in the plan, or {@link #NOT_FOUND} for the
+     * fields whose key is not indexed, the nested and the elaborate fields
+     */
+    int[] positionsOf(MappedField[] fields) {
+        int[] positions = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            MappedField field = fields[i];
+            positions[i] = field.isNested() || field.getElaborate() != null || !field.hasKey() ? NOT_FOUND
+                    : indexOf(field.getKey());
+        }
+        return positions;
+    }
+}
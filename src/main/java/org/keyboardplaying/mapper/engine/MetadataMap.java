@@ -0,0 +1,277 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact {@link Map} for the metadata of a bean class.
+ * <p/>
+ * The keys the class produces are indexed once for the class and shared by all its maps, so that a map only holds an
+ * array of values. Any other key, such as those written by elaborate parsers, is kept in a regular map created when
+ * needed. The {@link UnmappingEngine} reads the values of such a map by position rather than by key.
+ * <p/>
+ * The iteration order is the order of the indexed keys, then the order of the other keys. {@code null} values are
+ * supported. This map is not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see MappingEngine#setUseMetadataMaps(boolean)
+ */
+public final class MetadataMap extends AbstractMap<String, String> {
+
+    /** Stands for a {@code null} value, as a {@code null} element marks an absent key. */
+    private static final Object NULL = new Object();
+
+    private final MetadataKeys keys;
+    private final Object[] values;
+    private int indexedSize;
+    private Map<String, String> others;
+
+    private Set<Entry<String, String>> entrySet;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param keys the keys of the bean class
+     */
+    MetadataMap(MetadataKeys keys) {
+        this.keys = keys;
+        this.values = new Object[keys.size()];
+    }
+
+    /**
+     * Returns the keys indexed by this map.
+     *
+     * @return the keys
+     */
+    MetadataKeys getKeys() {
+        return keys;
+    }
+
+    /**
+     * Tells whether the key at the supplied position is present.
+     *
+     * @param index the position of the key in {@link #getKeys()}
+     * @return {@code true} if the map contains the key
+     */
+    boolean containsAt(int index) {
+        return values[index] != null;
+    }
+
+    /**
+     * Returns the value of the key at the supplied position.
+     *
+     * @param index the position of the key in {@link #getKeys()}
+     * @return the value, or {@code null} if the key is absent or mapped to {@code null}
+     */
+    String getAt(int index) {
+        return unmask(values[index]);
+    }
+
+    @Override
+    public int size() {
+        return indexedSize + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int index = keys.indexOf(key);
+        return index >= 0 ? values[index] != null : others != null && others.containsKey(key);
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = keys.indexOf(key);
+        return index >= 0 ? unmask(values[index]) : others == null ? null : others.get(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            if (others == null) {
+                others = new HashMap<>();
+            }
+            return others.put(key, value);
+        }
+
+        Object previous = values[index];
+        values[index] = value == null ? NULL : value;
+        if (previous == null) {
+            indexedSize++;
+        }
+        return unmask(previous);
+    }
+
+    @Override
+    public String remove(Object key) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return others == null ? null : others.remove(key);
+        }
+        return removeAt(index);
+    }
+
+    private String removeAt(int index) {
+        Object previous = values[index];
+        if (previous != null) {
+            values[index] = null;
+            indexedSize--;
+        }
+        return unmask(previous);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+        }
+        indexedSize = 0;
+        others = null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private static String unmask(Object value) {
+        return value == NULL ? null : (String) value;
+    }
+
+    /**
+     * The entries of the map, backed by the map.
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+        @Override
+        public Iterator<Entry<String, String>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return MetadataMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            MetadataMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterates over the indexed entries, then over the other ones.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private int next = advance(0);
+        private int current = -1;
+        private Iterator<Entry<String, String>> othersIterator;
+        private boolean currentIsOther;
+
+        private int advance(int from) {
+            int index = from;
+            while (index < values.length && values[index] == null) {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) {
+                return true;
+            }
+            if (othersIterator == null && others != null) {
+                othersIterator = others.entrySet().iterator();
+            }
+            return othersIterator != null && othersIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (next < values.length) {
+                current = next;
+                currentIsOther = false;
+                next = advance(next + 1);
+                return new IndexedEntry(current);
+            }
+            current = -1;
+            currentIsOther = true;
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (currentIsOther) {
+                othersIterator.remove();
+                currentIsOther = false;
+            } else if (current >= 0 && values[current] != null) {
+                removeAt(current);
+                current = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * An indexed entry, writing through to the map.
+     */
+    private final class IndexedEntry implements Entry<String, String> {
+
+        private final int index;
+
+        IndexedEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys.keyAt(index);
+        }
+
+        @Override
+        public String getValue() {
+            return getAt(index);
+        }
+
+        @Override
+        public String setValue(String value) {
+            return put(getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            String value = getValue();
+            return getKey().equals(entry.getKey())
+                    && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            String value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.keyboardplaying.mapper.parser.SimpleParser;
+
+/**
+ * Tells which type of values a {@link SimpleParser} produces, from the type argument it binds to {@link SimpleParser}.
+ * <p/>
+ * Parsers are provided for the nearest type bound in the {@link ParserProvider}, which may be a supertype of the field
+ * to unmap: the parser of {@link java.util.Date} would happily format a {@link java.sql.Timestamp}, but parses
+ * {@link java.util.Date}s, which cannot be set to such a field.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class ParsedTypes {
+
+    /* Private constructor, static methods only. */
+    private ParsedTypes() {
+    }
+
+    /**
+     * Tells whether the values produced by the supplied parser can be set to a field of the supplied type.
+     *
+     * @param parser the parser
+     * @param type   the type of the field
+     * @return {@code true} if the parser produces instances of the type, or if its produced type cannot be determined
+     */
+    static boolean canProduce(SimpleParser<?> parser, Class<?> type) {
+        Class<?> parsedType = getParsedType(parser.getClass());
+        return parsedType == null || MethodType.methodType(type).wrap().returnType().isAssignableFrom(parsedType);
+    }
+
+    /**
+     * Returns the type of values the supplied parser class produces.
+     *
+     * @param parserClass the class of the parser
+     * @return the erasure of the type argument bound to {@link SimpleParser}, or {@code null} if the parser class does
+     *         not bind it to a class
+     */
+    static Class<?> getParsedType(Class<?> parserClass) {
+        return getParsedType(parserClass, new HashMap<TypeVariable<?>, Type>());
+    }
+
+    private static Class<?> getParsedType(Class<?> klass, Map<TypeVariable<?>, Type> bindings) {
+        Type superclass = klass.getGenericSuperclass();
+        Class<?> parsedType = superclass == null ? null : getParsedTypeFrom(superclass, bindings);
+        Type[] interfaces = klass.getGenericInterfaces();
+        for (int i = 0; parsedType == null && i < interfaces.length; i++) {
+            parsedType = getParsedTypeFrom(interfaces[i], bindings);
+        }
+        return parsedType;
+    }
+
+    private static Class<?> getParsedTypeFrom(Type supertype, Map<TypeVariable<?>, Type> bindings) {
+        if (supertype instanceof Class) {
+            /* Raw supertype: its type arguments are unknown. */
+            return SimpleParser.class.isAssignableFrom((Class<?>) supertype)
+                    ? getParsedType((Class<?>) supertype, new HashMap<TypeVariable<?>, Type>()) : null;
+        } else if (!(supertype instanceof ParameterizedType)) {
+            return null;
+        }
+
+        ParameterizedType parameterized = (ParameterizedType) supertype;
+        Class<?> raw = (Class<?>) parameterized.getRawType();
+        if (!SimpleParser.class.isAssignableFrom(raw)) {
+            return null;
+        }
+
+        Type[] arguments = parameterized.getActualTypeArguments();
+        for (int i = 0; i < arguments.length; i++) {
+            Type bound = bindings.get(arguments[i]);
+            if (bound != null) {
+                arguments[i] = bound;
+            }
+        }
+        if (SimpleParser.class.equals(raw)) {
+            return erase(arguments[0]);
+        }
+
+        Map<TypeVariable<?>, Type> rawBindings = new HashMap<>();
+        TypeVariable<?>[] variables = raw.getTypeParameters();
+        for (int i = 0; i < variables.length; i++) {
+            rawBindings.put(variables[i], arguments[i]);
+        }
+        return getParsedType(raw, rawBindings);
+    }
+
+    private static Class<?> erase(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        /* Unbound variables, wildcards and arrays of them. */
+        return null;
+    }
+}
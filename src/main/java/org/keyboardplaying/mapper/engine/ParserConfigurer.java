@@ -0,0 +1,71 @@
+package org.keyboardplaying.mapper.engine;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+import org.keyboardplaying.mapper.parser.BooleanParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+import org.keyboardplaying.mapper.parser.TemporalParser;
+
+/**
+ * Applies the settings of a field's annotations to the parser of its type.
+ * <p/>
+ * The parsers returned by a {@link ParserProvider} are shared by all fields of the same type. Parsers which need
+ * settings ({@link TemporalParser}s and {@link BooleanParser}s) are therefore never configured in place: each field
+ * gets a copy of its own, obtained from {@link TemporalParser#copy()} or {@link BooleanParser#copy()}, configured
+ * once and never modified afterwards.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class ParserConfigurer {
+
+    /* Private constructor, static methods only. */
+    private ParserConfigurer() {
+    }
+
+    /**
+     * Tells whether the supplied parser needs the {@link org.keyboardplaying.mapper.annotation.Temporal} annotation.
+     *
+     * @param parser the parser
+     * @return {@code true} if the parser is a {@link TemporalParser}
+     */
+    static boolean requiresTemporal(SimpleParser<?> parser) {
+        return parser instanceof TemporalParser;
+    }
+
+    /**
+     * Returns the parser to use for a field.
+     *
+     * @param parser    the parser provided for the field's type
+     * @param temporal  the value of the field's {@link org.keyboardplaying.mapper.annotation.Temporal} annotation;
+     *                  must not be {@code null} if the parser {@link #requiresTemporal(SimpleParser) requires} it
+     * @param whenTrue  the {@link org.keyboardplaying.mapper.annotation.BooleanValues#whenTrue()}, or {@code null} if
+     *                  the annotation is absent
+     * @param whenFalse the {@link org.keyboardplaying.mapper.annotation.BooleanValues#whenFalse()}, or {@code null}
+     *                  if the annotation is absent
+     * @return the supplied parser if it needs no settings, a configured copy otherwise
+     * @throws ParserInitializationException if the copy cannot be created
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SimpleParser<T> configure(SimpleParser<T> parser, TemporalType temporal, String[] whenTrue,
+                                         String[] whenFalse) throws ParserInitializationException {
+        if (parser instanceof TemporalParser) {
+
+            TemporalParser<T> temporalParser = ((TemporalParser<T>) parser).copy();
+            temporalParser.setFormat(temporal.getFormat());
+            return temporalParser;
+
+        } else if (parser instanceof BooleanParser) {
+
+            BooleanParser booleanParser = ((BooleanParser) parser).copy();
+            if (whenTrue != null) {
+                booleanParser.setTrueFalse(whenTrue, whenFalse);
+            } else {
+                booleanParser.setTrueFalse(new String[]{Defaults.TRUE}, new String[]{Defaults.FALSE});
+            }
+            return (SimpleParser<T>) booleanParser;
+
+        }
+        return parser;
+    }
+}
@@ -0,0 +1,483 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reads and writes a bean property through its getter and setter.
+ * <p/>
+ * The accessor methods are looked up once, following the JavaBeans naming conventions ({@code isXxx} or
+ * {@code getXxx}, and {@code setXxx}). Calling them afterwards involves neither introspection nor reflective
+ * invocation: depending on the {@link AccessMode}, they are invoked as {@link MethodHandle}s or through functions
+ * spun by the {@link LambdaMetafactory}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+abstract class PropertyAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final String name;
+    private final boolean readable;
+    private final boolean writable;
+
+    /* The classes declaring the accessors and the parameter type of the setter, to report wrong arguments. */
+    private final Class<?> readClass;
+    private final Class<?> writeClass;
+    private final Class<?> writeType;
+
+    /* Handles typed with the primitive type of the property, if it is an int, a long or a boolean. */
+    private final MethodHandle primitiveGetter;
+    private final MethodHandle primitiveSetter;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name        the name of the property
+     * @param readMethod  the getter of the property, if any
+     * @param writeMethod the setter of the property, if any
+     */
+    PropertyAccessor(String name, Method readMethod, Method writeMethod) {
+        this.name = name;
+        this.readable = readMethod != null;
+        this.writable = writeMethod != null;
+        this.readClass = readMethod == null ? null : readMethod.getDeclaringClass();
+        this.writeClass = writeMethod == null ? null : writeMethod.getDeclaringClass();
+        this.writeType = writeMethod == null ? null : writeMethod.getParameterTypes()[0];
+
+        Class<?> readType = readMethod == null ? null : readMethod.getReturnType();
+        this.primitiveGetter = isSpecialized(readType)
+                ? unreflect(readMethod).asType(MethodType.methodType(readType, Object.class)) : null;
+        Class<?> writeType = writeMethod == null ? null : writeMethod.getParameterTypes()[0];
+        this.primitiveSetter = isSpecialized(writeType)
+                ? unreflect(writeMethod).asType(MethodType.methodType(void.class, Object.class, writeType)) : null;
+    }
+
+    private static boolean isSpecialized(Class<?> type) {
+        return type == int.class || type == long.class || type == boolean.class;
+    }
+
+    /**
+     * Resolves the accessor for a field of the supplied bean class, using method handles.
+     *
+     * @param beanType the class of the bean, which may override the accessors of the class declaring the field
+     * @param field    the field
+     * @return the accessor
+     */
+    static PropertyAccessor of(Class<?> beanType, Field field) {
+        return of(beanType, field, AccessMode.METHOD_HANDLES);
+    }
+
+    /**
+     * Resolves the accessor for a field of the supplied bean class.
+     *
+     * @param beanType the class of the bean, which may override the accessors of the class declaring the field
+     * @param field    the field
+     * @param mode     the way accessors should be invoked
+     * @return the accessor
+     */
+    static PropertyAccessor of(Class<?> beanType, Field field, AccessMode mode) {
+        Method readMethod = findReadMethod(beanType, field);
+        Method writeMethod = findWriteMethod(beanType, field, readMethod);
+
+        if (mode == AccessMode.LAMBDA && isVisible(beanType)) {
+            try {
+                return new LambdaAccessor(field.getName(), beanType, readMethod, writeMethod);
+            } catch (Throwable t) {
+                // the accessors cannot be bound for this property, fall back to method handles
+            }
+        }
+        return new MethodHandleAccessor(field.getName(), readMethod, writeMethod);
+    }
+
+    /**
+     * Returns the getter of the field, if any.
+     *
+     * @param beanType the class of the bean
+     * @param field    the field
+     * @return the getter, or {@code null} if none was found
+     */
+    static Method findReadMethod(Class<?> beanType, Field field) {
+        String capitalized = capitalize(field.getName());
+        Method method = findMethod(beanType, "is" + capitalized);
+        if (method == null) {
+            method = findMethod(beanType, "get" + capitalized);
+        }
+        return method == null || void.class.equals(method.getReturnType()) ? null : method;
+    }
+
+    /**
+     * Returns the setter of the field, if any.
+     *
+     * @param beanType   the class of the bean
+     * @param field      the field
+     * @param readMethod the getter of the field, if any, whose return type may be used as a fallback parameter type
+     * @return the setter, or {@code null} if none was found
+     */
+    static Method findWriteMethod(Class<?> beanType, Field field, Method readMethod) {
+        String name = "set" + capitalize(field.getName());
+        Method method = findMethod(beanType, name, field.getType());
+        if (method == null && readMethod != null) {
+            method = findMethod(beanType, name, readMethod.getReturnType());
+        }
+        return method;
+    }
+
+    private static Method findMethod(Class<?> beanType, String name, Class<?>... parameterTypes) {
+        try {
+            return beanType.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            /* Public method of a non-public class, typically. */
+            method.setAccessible(true);
+            try {
+                return LOOKUP.unreflect(method);
+            } catch (IllegalAccessException e1) {
+                throw new IllegalStateException("Method " + method + " could not be made accessible.", e1);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the generated classes, defined along this class, will be able to link against the bean class.
+     *
+     * @param beanType the class of the bean
+     * @return {@code true} if the bean class is visible from this class's loader
+     */
+    private static boolean isVisible(Class<?> beanType) {
+        try {
+            return Class.forName(beanType.getName(), false, PropertyAccessor.class.getClassLoader()) == beanType;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the name of the property.
+     *
+     * @return the name of the property
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Tells whether the property has a getter.
+     *
+     * @return {@code true} if the value of the property can be read
+     */
+    boolean isReadable() {
+        return readable;
+    }
+
+    /**
+     * Tells whether the property has a setter.
+     *
+     * @return {@code true} if the value of the property can be written
+     */
+    boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Tells whether the getter of the property returns the supplied primitive type, so that
+     * {@link #getInt(Object)}, {@link #getLong(Object)} or {@link #getBoolean(Object)} can be called.
+     *
+     * @param type {@code int.class}, {@code long.class} or {@code boolean.class}
+     * @return {@code true} if the getter returns this type
+     */
+    boolean hasPrimitiveGetter(Class<?> type) {
+        return primitiveGetter != null && primitiveGetter.type().returnType() == type;
+    }
+
+    /**
+     * Tells whether the setter of the property accepts the supplied primitive type, so that
+     * {@link #setInt(Object, int)}, {@link #setLong(Object, long)} or {@link #setBoolean(Object, boolean)} can be
+     * called.
+     *
+     * @param type {@code int.class}, {@code long.class} or {@code boolean.class}
+     * @return {@code true} if the setter accepts this type
+     */
+    boolean hasPrimitiveSetter(Class<?> type) {
+        return primitiveSetter != null && primitiveSetter.type().parameterType(1) == type;
+    }
+
+    /**
+     * Gets the value of an {@code int} property without boxing it.
+     *
+     * @param bean the bean
+     * @return the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the getter
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    final int getInt(Object bean) throws InvocationTargetException {
+        try {
+            return (int) primitiveGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw failure(t, readClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Gets the value of a {@code long} property without boxing it.
+     *
+     * @param bean the bean
+     * @return the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the getter
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    final long getLong(Object bean) throws InvocationTargetException {
+        try {
+            return (long) primitiveGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw failure(t, readClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Gets the value of a {@code boolean} property without boxing it.
+     *
+     * @param bean the bean
+     * @return the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the getter
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    final boolean getBoolean(Object bean) throws InvocationTargetException {
+        try {
+            return (boolean) primitiveGetter.invokeExact(bean);
+        } catch (Throwable t) {
+            throw failure(t, readClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Sets the value of an {@code int} property without boxing it.
+     *
+     * @param bean  the bean
+     * @param value the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the setter
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    final void setInt(Object bean, int value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw failure(t, writeClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Sets the value of a {@code long} property without boxing it.
+     *
+     * @param bean  the bean
+     * @param value the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the setter
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    final void setLong(Object bean, long value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw failure(t, writeClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Sets the value of a {@code boolean} property without boxing it.
+     *
+     * @param bean  the bean
+     * @param value the value
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the setter
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    final void setBoolean(Object bean, boolean value) throws InvocationTargetException {
+        try {
+            primitiveSetter.invokeExact(bean, value);
+        } catch (Throwable t) {
+            throw failure(t, writeClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Gets the value of the property in the supplied bean.
+     *
+     * @param bean the bean
+     * @return the value
+     * @throws IllegalAccessException    if the property does not possess a read method
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the getter
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    final Object get(Object bean) throws IllegalAccessException, InvocationTargetException {
+        if (!readable) {
+            throw new IllegalAccessException("Field " + name + " does not possess a read method.");
+        }
+        try {
+            return read(bean);
+        } catch (Throwable t) {
+            throw failure(t, readClass, bean, null, null);
+        }
+    }
+
+    /**
+     * Sets the value of the property in the supplied bean.
+     *
+     * @param bean  the bean
+     * @param value the value
+     * @throws IllegalAccessException    if the property does not possess a write method
+     * @throws IllegalArgumentException  if the bean is not an instance of the class declaring the setter, or the
+     *                                   value cannot be assigned to the parameter of the setter
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    final void set(Object bean, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (!writable) {
+            throw new IllegalAccessException("Field " + name + " does not possess a write method.");
+        }
+        try {
+            write(bean, value);
+        } catch (Throwable t) {
+            throw failure(t, writeClass, bean, writeType, value);
+        }
+    }
+
+    /**
+     * Translates the failure of an accessor into the exception {@link Method#invoke(Object, Object...)} would have
+     * thrown: the casts and unboxings of the handles fail with a {@link ClassCastException} or a
+     * {@link NullPointerException} when the arguments are wrong, where reflection reports an
+     * {@link IllegalArgumentException}.
+     *
+     * @param failure        the exception thrown when calling the accessor
+     * @param declaringClass the class declaring the accessor
+     * @param bean           the bean
+     * @param valueType      the parameter type of the setter, or {@code null} for a getter or a primitive setter
+     * @param value          the value passed to the setter
+     * @return the exception to throw
+     * @throws IllegalArgumentException if the bean or the value is not of the type the accessor expects
+     */
+    private static InvocationTargetException failure(Throwable failure, Class<?> declaringClass, Object bean,
+                                                     Class<?> valueType, Object value) {
+        if (failure instanceof ClassCastException || failure instanceof NullPointerException) {
+            if (bean != null && !declaringClass.isInstance(bean)) {
+                throw new IllegalArgumentException(bean.getClass().getName() + " is not an instance of "
+                        + declaringClass.getName(), failure);
+            } else if (valueType != null && (value == null ? valueType.isPrimitive()
+                    : !MethodType.methodType(valueType).wrap().returnType().isInstance(value))) {
+                throw new IllegalArgumentException((value == null ? "null" : value.getClass().getName())
+                        + " cannot be assigned to " + valueType.getName(), failure);
+            }
+        }
+        return new InvocationTargetException(failure);
+    }
+
+    /**
+     * Calls the getter.
+     *
+     * @param bean the bean
+     * @return the value returned by the getter
+     * @throws Throwable anything thrown by the getter
+     */
+    abstract Object read(Object bean) throws Throwable;
+
+    /**
+     * Calls the setter.
+     *
+     * @param bean  the bean
+     * @param value the value to set
+     * @throws Throwable anything thrown by the setter
+     */
+    abstract void write(Object bean, Object value) throws Throwable;
+
+    /**
+     * Invokes the accessors as {@link MethodHandle}s.
+     */
+    private static final class MethodHandleAccessor extends PropertyAccessor {
+
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        MethodHandleAccessor(String name, Method readMethod, Method writeMethod) {
+            super(name, readMethod, writeMethod);
+            this.getter = readMethod == null ? null : unreflect(readMethod).asType(GETTER_TYPE);
+            this.setter = writeMethod == null ? null : unreflect(writeMethod).asType(SETTER_TYPE);
+        }
+
+        @Override
+        Object read(Object bean) throws Throwable {
+            return getter.invokeExact(bean);
+        }
+
+        @Override
+        void write(Object bean, Object value) throws Throwable {
+            setter.invokeExact(bean, value);
+        }
+    }
+
+    /**
+     * Invokes the accessors through a {@link Function} and a {@link BiConsumer} whose implementations are generated
+     * by the {@link LambdaMetafactory}, and which call the getter and setter directly.
+     */
+    private static final class LambdaAccessor extends PropertyAccessor {
+
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        LambdaAccessor(String name, Class<?> beanType, Method readMethod, Method writeMethod) throws Throwable {
+            super(name, readMethod, writeMethod);
+            this.getter = readMethod == null ? null : generateGetter(beanType, readMethod);
+            this.setter = writeMethod == null ? null : generateSetter(beanType, writeMethod);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> generateGetter(Class<?> beanType, Method readMethod)
+                throws Throwable {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), LOOKUP.unreflect(readMethod),
+                    MethodType.methodType(wrap(readMethod.getReturnType()), beanType));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, Object> generateSetter(Class<?> beanType, Method writeMethod)
+                throws Throwable {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), LOOKUP.unreflect(writeMethod),
+                    MethodType.methodType(void.class, beanType, wrap(writeMethod.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+
+        private static Class<?> wrap(Class<?> type) {
+            return MethodType.methodType(type).wrap().returnType();
+        }
+
+        @Override
+        Object read(Object bean) {
+            return getter.apply(bean);
+        }
+
+        @Override
+        void write(Object bean, Object value) {
+            setter.accept(bean, value);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Tells which values can be kept and reused across beans.
+ * <p/>
+ * Values of immutable types can be shared as they are. {@link Date}s and {@link Calendar}s can be kept as well, as
+ * long as each bean receives its own copy.
+ * <p/>
+ * Values of any other type, including all the types handled by custom parsers, are neither kept nor copied: their
+ * mutability is unknown and no generic way to copy them exists. The default values of such fields are parsed again
+ * for each bean.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class SharedValues {
+
+    /* Private constructor, static methods only. */
+    private SharedValues() {
+    }
+
+    /**
+     * Tells whether a value is of an immutable type: {@link String}, primitive wrappers, {@link BigInteger},
+     * {@link BigDecimal} or an enum.
+     *
+     * @param value the non-{@code null} value
+     * @return {@code true} if the value cannot be modified
+     */
+    static boolean isImmutable(Object value) {
+        Class<?> type = value.getClass();
+        return type == String.class || type == Integer.class || type == Long.class || type == Boolean.class
+                || type == Double.class || type == Float.class || type == Short.class || type == Byte.class
+                || type == Character.class || type == BigInteger.class || type == BigDecimal.class
+                || value instanceof Enum;
+    }
+
+    /**
+     * Tells whether a value can be kept and handed out through {@link #copy(Object)}.
+     *
+     * @param value the value
+     * @return {@code true} if the value is immutable, a {@link Date} or a {@link Calendar}
+     */
+    static boolean isShareable(Object value) {
+        return value != null && (isImmutable(value) || value instanceof Date || value instanceof Calendar);
+    }
+
+    /**
+     * Returns a value which can be handed to a bean.
+     *
+     * @param value a value for which {@link #isShareable(Object)} is {@code true}
+     * @return a copy of the value if it is mutable, the value itself otherwise
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F copy(F value) {
+        if (value instanceof Date) {
+            return (F) ((Date) value).clone();
+        } else if (value instanceof Calendar) {
+            return (F) ((Calendar) value).clone();
+        }
+        return value;
+    }
+}
@@ -1,20 +1,31 @@
 package org.keyboardplaying.mapper.engine;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import org.keyboardplaying.mapper.Defaults;
-import org.keyboardplaying.mapper.annotation.Metadata;
 import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.exception.FieldMappingException;
 import org.keyboardplaying.mapper.exception.MapperException;
 import org.keyboardplaying.mapper.exception.MappingException;
 import org.keyboardplaying.mapper.exception.ParserInitializationException;
 import org.keyboardplaying.mapper.exception.ParsingException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
 import org.keyboardplaying.mapper.parser.ElaborateParser;
+import org.keyboardplaying.mapper.parser.PrimitiveParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
 
 /**
  * The mapping engine for mapping a flat map to a POJO (unmapping).
@@ -23,7 +34,16 @@ import org.keyboardplaying.mapper.parser.ElaborateParser;
  */
 public class UnmappingEngine extends BaseEngine {
 
-    private static final DefaultValueProvider DEFAULT_VALUES = new DefaultValueProvider();
+    /**
+     * The metadata is dispatched to the fields by key when the bean has this many times more fields than the metadata
+     * has keys.
+     */
+    private static final int SPARSE_RATIO = 2;
+
+    /**
+     * The descriptions of the lazily unmapped beans, by interface and bean class.
+     */
+    private final ConcurrentMap<List<Class<?>>, LazyBeanType> lazyBeanTypes = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new bean of specified type and unmaps metadata to it, based on the annotations in the bean.
@@ -34,14 +54,212 @@ public class UnmappingEngine extends BaseEngine {
      * @throws MapperException if the parser could not be initialized for a field or the mapping fails
      */
     public <T> T unmapToClass(Map<String, String> metadata, Class<T> beanType) throws MapperException {
+        return unmapToBean(metadata, newInstance(beanType, getGeneratedMapper(beanType)));
+    }
+
+    /**
+     * Instantiates new beans of specified type and unmaps each metadata map to one of them.
+     *
+     * @param metadata the flat metadata maps
+     * @param beanType the destination beans' type
+     * @return the destination beans, in the order of the metadata maps
+     * @throws MapperException      if the parser could not be initialized for a field or the mapping of a bean fails
+     * @throws NullPointerException if the collection or one of the maps is {@code null}
+     */
+    public <T> List<T> unmapAll(Collection<? extends Map<String, String>> metadata, Class<T> beanType)
+            throws MapperException {
+        return unmapAll(metadata, beanType, null);
+    }
+
+    /**
+     * Instantiates new beans of specified type and unmaps each metadata map to one of them, splitting the work over
+     * the supplied {@link Executor}.
+     * <p/>
+     * The maps are split in slices, each of which is unmapped in a single task. The calling thread unmaps slices too,
+     * then waits until all beans are unmapped; it may be a thread of the executor. A
+     * {@link java.util.concurrent.ForkJoinPool} is a good fit for large batches.
+     *
+     * @param metadata the flat metadata maps
+     * @param beanType the destination beans' type
+     * @param executor the executor to unmap the beans on, or {@code null} to unmap them in the calling thread
+     * @return the destination beans, in the order of the metadata maps
+     * @throws MapperException      if the parser could not be initialized for a field or the mapping of a bean fails
+     * @throws NullPointerException if the collection or one of the maps is {@code null}
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects a task, once the slices
+     *                                                         already started are unmapped
+     */
+    public <T> List<T> unmapAll(Collection<? extends Map<String, String>> metadata, Class<T> beanType,
+                                Executor executor) throws MapperException {
+        Objects.requireNonNull(metadata, "The supplied metadata was null.");
+        Objects.requireNonNull(beanType, "The supplied bean type was null.");
+
+        List<? extends Map<String, String>> inputs = toRandomAccessList(metadata);
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[inputs.size()];
+
+        /* Resolved once for the whole batch. */
+        GeneratedMapper<T> mapper = getGeneratedMapper(beanType);
+        MappingPlan plan = mapper == null ? getPlan(beanType) : null;
+
+        processBatch(inputs.size(), executor, new BatchSlice() {
+            @Override
+            public void process(int from, int to) throws MapperException {
+                for (int i = from; i < to; i++) {
+                    Map<String, String> map = Objects.requireNonNull(inputs.get(i),
+                            "The supplied metadata was null.");
+                    T bean = newInstance(beanType, mapper);
+                    if (mapper != null) {
+                        mapper.unmap(map, bean, UnmappingEngine.this);
+                    } else {
+                        performUnmapping(map, bean, plan);
+                    }
+                    results[i] = bean;
+                }
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    @Override
+    void checkBeanType(Class<?> beanType) throws MappingException {
         try {
-            return unmapToBean(metadata, beanType.newInstance());
+            if (Modifier.isAbstract(beanType.getModifiers()) || !Modifier.isPublic(beanType.getConstructor()
+                    .getModifiers())) {
+                throw new MappingException("Could not instanciate a new bean for type " + beanType.getSimpleName()
+                        + ". Did you provide a public no-argument constructor?");
+            }
+        } catch (NoSuchMethodException e) {
+            throw new MappingException("Could not instanciate a new bean for type " + beanType.getSimpleName()
+                    + ". Did you provide a public no-argument constructor?", e);
+        }
+    }
+
+    @Override
+    void checkField(MappedField field) throws MappingException {
+        if (!field.getAccessor().isWritable()) {
+            throw new FieldMappingException(field.getField(), "This field does not possess a write method.");
+        } else if (field.isNested() && !field.getAccessor().isReadable()) {
+            throw new FieldMappingException(field.getField(), "This field does not possess a read method.");
+        }
+    }
+
+    @Override
+    void checkParser(MappedField field, SimpleParser<?> parser) throws MappingException {
+        if (!ParsedTypes.canProduce(parser, field.getType())) {
+            throw new FieldMappingException(field.getField(), "The parser " + parser.getClass().getName()
+                    + " does not produce instances of " + field.getType().getName() + ".");
+        }
+    }
+
+    <T> T newInstance(Class<T> beanType, GeneratedMapper<T> mapper) throws MappingException {
+        if (mapper != null) {
+            return mapper.newInstance();
+        }
+
+        try {
+            return beanType.newInstance();
         } catch (InstantiationException | IllegalAccessException e) {
             throw new MappingException("Could not instanciate a new bean for type " + beanType.getSimpleName()
                     + ". Did you provide a public no-argument constructor?", e);
         }
     }
 
+    /**
+     * Unmaps metadata to a new bean of specified type whose fields are converted and set only when first accessed.
+     * <p/>
+     * The bean is hidden behind a proxy implementing the supplied interface. The first call to a getter of an
+     * annotated field unmaps this field; the calls to its setter prevent it from being unmapped. Any other method
+     * unmaps all the remaining fields before being called. Fields which are never read are never converted.
+     * <p/>
+     * The metadata is checked for missing mandatory values right away, but conversion errors only surface when a field
+     * is read, as an {@link UncheckedMapperException}. The proxy keeps a reference to the metadata, which must not be
+     * modified afterwards. The proxy is thread-safe, its calls being serialized.
+     *
+     * @param metadata  the flat metadata
+     * @param itf       the public interface the returned proxy implements
+     * @param beanType  the destination bean's type, implementing the interface
+     * @return the proxy to the destination bean
+     * @throws MapperException          if a mandatory value is missing or the bean cannot be instantiated
+     * @throws IllegalArgumentException if the interface is not an interface
+     */
+    public <I, T extends I> I unmapLazily(Map<String, String> metadata, Class<I> itf, Class<T> beanType)
+            throws MapperException {
+        Objects.requireNonNull(metadata, "The supplied metadata was null.");
+        Objects.requireNonNull(itf, "The supplied interface was null.");
+        Objects.requireNonNull(beanType, "The supplied bean type was null.");
+        if (!itf.isInterface()) {
+            throw new IllegalArgumentException(itf.getName() + " is not an interface.");
+        }
+
+        LazyBeanType type = getLazyBeanType(itf, beanType);
+        checkMandatory(metadata, type.getPlan());
+        return itf.cast(Proxy.newProxyInstance(itf.getClassLoader(), new Class<?>[]{itf},
+                new LazyBeanHandler(this, type, metadata, newInstance(beanType, null))));
+    }
+
+    private LazyBeanType getLazyBeanType(Class<?> itf, Class<?> beanType) {
+        List<Class<?>> key = Arrays.<Class<?>>asList(itf, beanType);
+        LazyBeanType type = lazyBeanTypes.get(key);
+        if (type == null) {
+            type = new LazyBeanType(itf, getPlan(beanType));
+            LazyBeanType existing = lazyBeanTypes.putIfAbsent(key, type);
+            if (existing != null) {
+                type = existing;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Reports the errors the unmapping of a bean's own fields would raise without converting any value.
+     *
+     * @param metadata the flat metadata
+     * @param plan     the plan of the destination bean
+     * @throws MappingException if a field has no key or if a mandatory value is missing
+     */
+    private static void checkMandatory(Map<String, String> metadata, MappingPlan plan) throws MappingException {
+        for (MappedField field : plan.getFields()) {
+            if (field.isNested() || field.getElaborate() != null) {
+                continue;
+            }
+            if (!field.hasKey()) {
+                throw new MappingException("No key nor elaborate parser was provided for field " + field.getName()
+                        + " of bean " + plan.getBeanType().getSimpleName());
+            }
+            if (field.isMandatory() && field.getDefaultValue().equals(Defaults.EMPTY) && !field.isBlankDefaultValue()
+                    && !metadata.containsKey(field.getKey())) {
+                throw new MappingException("Mandatory data " + field.getKey() + " is missing from metadata map ("
+                        + metadata.keySet().toString() + ").");
+            }
+        }
+    }
+
+    /**
+     * Opens a session unmapping metadata to a new bean of specified type, one key at a time.
+     *
+     * @param beanType the destination bean's type
+     * @return the session
+     * @throws MapperException if the bean or one of its mandatory nested beans cannot be instantiated
+     * @see UnmappingSession
+     */
+    public <T> UnmappingSession<T> openSession(Class<T> beanType) throws MapperException {
+        Objects.requireNonNull(beanType, "The supplied bean type was null.");
+        return new UnmappingSession<>(this, newInstance(beanType, null), getPlan(beanType));
+    }
+
+    /**
+     * Opens a session unmapping metadata to a destination bean, one key at a time.
+     *
+     * @param bean the destination bean
+     * @return the session
+     * @throws MapperException if one of the mandatory nested beans cannot be instantiated
+     * @see UnmappingSession
+     */
+    public <T> UnmappingSession<T> openSession(T bean) throws MapperException {
+        Objects.requireNonNull(bean, "The supplied bean was null.");
+        return new UnmappingSession<>(this, bean, getPlan(bean.getClass()));
+    }
+
     /**
      * Unmaps metadata to a destination bean, based on the annotations in the bean.
      * <p/>
@@ -58,27 +276,176 @@ public class UnmappingEngine extends BaseEngine {
         Objects.requireNonNull(metadata, "The supplied metadata was null.");
 
         /* Now perform the unmapping. */
-        performUnmapping(metadata, bean, bean.getClass());
+        GeneratedMapper<T> mapper = getGeneratedMapper(bean.getClass());
+        if (mapper != null) {
+            mapper.unmap(metadata, bean, this);
+        } else {
+            performUnmapping(metadata, bean, getPlan(bean.getClass()));
+        }
 
         return bean;
     }
 
-    private <T> void performUnmapping(Map<String, String> metadata, T bean, Class<?> klass)
+    /**
+     * Applies a change-set to a bean which was already unmapped, setting only the fields whose keys are in the
+     * change-set.
+     * <p/>
+     * The fields are found through the key index of the bean's plan, so that the cost depends on the number of changes
+     * rather than on the number of fields. The change-set is expected to hold the keys which were put into the
+     * metadata: default values are not applied for the other keys, and mandatory data is not checked.
+     * <p/>
+     * Nested beans are updated the same way. A {@code null} nested bean is instantiated and unmapped from the
+     * change-set only if the change-set holds some of its keys. Fields using an {@link ElaborateParser} are not
+     * updated, as they may need keys which are not in the change-set. The generated mappers are not used.
+     *
+     * @param changes the keys which changed, with their new values
+     * @param bean    the destination bean
+     * @return the destination bean
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T applyChanges(Map<String, String> changes, T bean) throws MapperException {
+        Objects.requireNonNull(bean, "The supplied bean was null.");
+        Objects.requireNonNull(changes, "The supplied change-set was null.");
+
+        if (!changes.isEmpty()) {
+            applyChanges(changes, bean, getPlan(bean.getClass()));
+        }
+        return bean;
+    }
+
+    private <T> void applyChanges(Map<String, String> changes, T bean, MappingPlan plan) throws MapperException {
+        MappedField[] fields = plan.getFields();
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            int[] positions = plan.getFieldsForKey(change.getKey());
+            if (positions != null) {
+                for (int position : positions) {
+                    setField(bean, fields[position], change.getValue());
+                }
+            }
+        }
+
+        for (int position : plan.getIndirectFields()) {
+            MappedField field = fields[position];
+            if (field.isNested()) {
+                applyNestedChanges(changes, bean, field);
+            }
+        }
+    }
+
+    private <T> void applyNestedChanges(Map<String, String> changes, T bean, MappedField field)
+            throws MapperException {
+        Object innerBean;
+        try {
+            innerBean = get(bean, field);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new MappingException("Error while unmapping nested bean " + field.getName() + " of "
+                    + field.getDeclaringClassName(), e);
+        }
+
+        if (innerBean != null) {
+            applyChanges(changes, innerBean, getPlan(innerBean.getClass()));
+        } else if (touches(changes, getNestedType(field), new HashSet<Class<?>>())) {
+            performNestedUnmapping(changes, bean, field);
+        }
+    }
+
+    /**
+     * Tells whether a change-set holds keys of the supplied bean type or of its nested beans.
+     */
+    private boolean touches(Map<String, String> changes, Class<?> beanType, Set<Class<?>> visited)
+            throws MappingException {
+        if (!visited.add(beanType)) {
+            return false;
+        }
+        MappingPlan plan = getPlan(beanType);
+        for (String key : changes.keySet()) {
+            if (plan.getFieldsForKey(key) != null) {
+                return true;
+            }
+        }
+        MappedField[] fields = plan.getFields();
+        for (int position : plan.getIndirectFields()) {
+            if (fields[position].isNested() && touches(changes, getNestedType(fields[position]), visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> void performUnmapping(Map<String, String> metadata, T bean, MappingPlan plan)
             throws MapperException {
-        final Field[] fields = klass.getDeclaredFields();
+        int[] positions = getPositions(metadata, plan);
+        MappedField[] fields = plan.getFields();
+        if (positions == null && metadata.size() * SPARSE_RATIO < fields.length) {
+            performSparseUnmapping(metadata, bean, plan);
+            return;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            unmapField(metadata, bean, fields[i], positions == null ? MetadataKeys.NOT_FOUND : positions[i]);
+        }
+    }
 
-        for (Field field : fields) {
-            if (field.isAnnotationPresent(Nested.class)) {
-                performNestedUnmapping(metadata, bean, field);
-            } else if (field.isAnnotationPresent(Metadata.class)) {
-                performFieldUnmapping(metadata, bean, field);
+    /**
+     * Unmaps metadata holding few keys compared to the number of fields of the bean.
+     * <p/>
+     * Instead of looking each field's key up in the metadata, the entries of the metadata are dispatched to the fields
+     * through the key index of the plan. Only the fields which must be processed when their key is absent are then
+     * visited, skipping those which were already set.
+     *
+     * @param metadata the flat metadata
+     * @param bean     the destination bean
+     * @param plan     the plan of the destination bean
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    private <T> void performSparseUnmapping(Map<String, String> metadata, T bean, MappingPlan plan)
+            throws MapperException {
+        MappedField[] fields = plan.getFields();
+        BitSet set = new BitSet(fields.length);
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            int[] positions = plan.getFieldsForKey(entry.getKey());
+            if (positions != null) {
+                for (int position : positions) {
+                    setField(bean, fields[position], entry.getValue());
+                    set.set(position);
+                }
             }
         }
 
-        /* Take care of inherited fields. */
-        Class<?> superklass = klass.getSuperclass();
-        if (!superklass.equals(Object.class)) {
-            performUnmapping(metadata, bean, superklass);
+        for (int position : plan.getUnconditionalFields()) {
+            if (!set.get(position)) {
+                unmapField(metadata, bean, fields[position], MetadataKeys.NOT_FOUND);
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of the values of a plan's fields if the metadata is a {@link MetadataMap}, whose values
+     * are read by position.
+     *
+     * @param metadata the flat metadata
+     * @param plan     the plan of the destination bean
+     * @return the positions, as returned by {@link MappingPlan#getKeyPositions(MetadataKeys)}, or {@code null} if
+     * the metadata is not a {@link MetadataMap}
+     */
+    static int[] getPositions(Map<String, String> metadata, MappingPlan plan) {
+        return metadata instanceof MetadataMap ? plan.getKeyPositions(((MetadataMap) metadata).getKeys()) : null;
+    }
+
+    /**
+     * Unmaps a single field of a bean.
+     *
+     * @param metadata the flat metadata
+     * @param bean     the destination bean
+     * @param field    the field to set
+     * @param position the position of the field's value, see {@link #getPositions(Map, MappingPlan)}
+     * @throws MapperException if the parser could not be initialized for the field or the mapping fails
+     */
+    <T> void unmapField(Map<String, String> metadata, T bean, MappedField field, int position)
+            throws MapperException {
+        if (field.isNested()) {
+            performNestedUnmapping(metadata, bean, field);
+        } else {
+            performFieldUnmapping(metadata, bean, field, position);
         }
     }
 
@@ -90,43 +457,32 @@ public class UnmappingEngine extends BaseEngine {
      * @param field    the field to set
      * @throws MapperException if the parser could not be initialized for a field or the mapping fails
      */
-    private <T> void performNestedUnmapping(Map<String, String> metadata, T bean, Field field) throws MapperException {
-        Nested annotation = field.getAnnotation(Nested.class);
+    private <T> void performNestedUnmapping(Map<String, String> metadata, T bean, MappedField field)
+            throws MapperException {
         try {
 
-            PropertyDescriptor descriptor = getPropertyDescriptor(bean, field);
-
-            Object innerBean = get(bean, descriptor);
+            Object innerBean = get(bean, field);
             if (innerBean == null) {
-                innerBean = intantiateBeanAndUnmap(metadata, field, annotation.className());
-                set(bean, descriptor, innerBean);
+                innerBean = intantiateBeanAndUnmap(metadata, field);
+                set(bean, field, innerBean);
             } else {
                 // unmap to bean
                 unmapToBean(metadata, innerBean);
             }
 
-        } catch (IllegalAccessException | InvocationTargetException | IntrospectionException e) {
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             throw new MappingException("Error while unmapping nested bean " + field.getName() + " of "
-                    + field.getDeclaringClass().getName(), e);
+                    + field.getDeclaringClassName(), e);
         } catch (MapperException e) {
-            if (annotation.mandatory()) {
+            if (field.isNestedMandatory()) {
                 throw e;
             }
             // XXX some log here would be great otherwise
         }
     }
 
-    private Object intantiateBeanAndUnmap(Map<String, String> metadata, Field field, String className)
-            throws MapperException {
-        try {
-            // unmap to class
-            // compilation fails when variable is inline (?!)
-            Class<?> beanType = className == null || className.length() == 0 ? field.getType() : Class.forName(className);
-            return unmapToClass(metadata, beanType);
-        } catch (ClassNotFoundException e) {
-            throw new MappingException("Could not find class " + className + " when instantiating bean for inner field "
-                    + field.getName() + " of class " + field.getDeclaringClass().getName(), e);
-        }
+    private Object intantiateBeanAndUnmap(Map<String, String> metadata, MappedField field) throws MapperException {
+        return unmapToClass(metadata, getNestedType(field));
     }
 
     /**
@@ -135,48 +491,94 @@ public class UnmappingEngine extends BaseEngine {
      * @param metadata the flat metadata
      * @param bean     the destination bean
      * @param field    the field to set
+     * @param position the position of the field's key if the metadata is a {@link MetadataMap} indexing it,
+     *                 {@link MetadataKeys#NOT_FOUND} otherwise
      * @throws ParserInitializationException if the parser for the field could not be initialized
      * @throws MappingException              if the mapping fails
      */
-    private <T> void performFieldUnmapping(Map<String, String> metadata, T bean, Field field)
+    private <T> void performFieldUnmapping(Map<String, String> metadata, T bean, MappedField field, int position)
             throws ParserInitializationException, MappingException {
-        Metadata settings = field.getAnnotation(Metadata.class);
+        Class<? extends ElaborateParser<?>> elaborate = field.getElaborate();
+        String metadataName = field.getKey();
 
-        Class<? extends ElaborateParser<?>> elaborate = settings.elaborate();
-        String metadataName = settings.value();
-
-        if (!ElaborateParser.None.class.equals(elaborate)) {
+        if (elaborate != null) {
 
             // a custom setter was defined, overrides the default parser
             setElaborateField(bean, field, elaborate, metadata);
 
-        } else if (Defaults.EMPTY.equals(metadataName)) {
+        } else if (!field.hasKey()) {
 
             throw new MappingException("No key nor elaborate parser was provided for field " + field.getName()
                     + " of bean " + bean.getClass().getSimpleName());
 
-        } else if (metadata.containsKey(metadataName)) {
+        } else if (position != MetadataKeys.NOT_FOUND ? ((MetadataMap) metadata).containsAt(position)
+                : metadata.containsKey(metadataName)) {
 
             /* Set the value using the value provided with the metadata. */
-            setField(bean, field, metadata.get(metadataName));
+            setField(bean, field, position != MetadataKeys.NOT_FOUND ? ((MetadataMap) metadata).getAt(position)
+                    : metadata.get(metadataName));
+
+        } else if (!setMissingField(bean, field)) {
+
+            /* Data is absent though mandatory, raise an exception. */
+            throw new MappingException("Mandatory data " + metadataName + " is missing from metadata map ("
+                    + metadata.keySet().toString() + ").");
+        }
+    }
 
-        } else if (!settings.defaultValue().equals(Defaults.EMPTY)) {
+    /**
+     * Sets a field whose key is absent from the metadata.
+     *
+     * @param bean  the destination bean
+     * @param field the field to set
+     * @return {@code false} if the field is mandatory and has no default value, {@code true} otherwise
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    <T> boolean setMissingField(T bean, MappedField field) throws ParserInitializationException, MappingException {
+        if (!field.getDefaultValue().equals(Defaults.EMPTY)) {
 
             /* Set the value using the provided default value. */
-            setField(bean, field, settings.defaultValue());
+            setDefaultField(bean, field, field.getDefaultValue());
 
-        } else if (settings.blankDefaultValue()) {
+        } else if (field.isBlankDefaultValue()) {
 
             /* Set the field using a blank value. */
-            setField(bean, field, Defaults.EMPTY);
+            setDefaultField(bean, field, Defaults.EMPTY);
 
-        } else if (settings.mandatory()) {
+        } else if (field.isMandatory()) {
 
-            /* Data is absent though mandatory, raise an exception. */
-            throw new MappingException("Mandatory data " + metadataName + " is missing from metadata map ("
-                    + metadata.keySet().toString() + ").");
+            return false;
         }
         /* Otherwise, leave field as is. */
+        return true;
+    }
+
+    /**
+     * Sets the field to its default value, which is parsed only once if the parsed value can be shared.
+     * <p/>
+     * Only the values {@link SharedValues#isShareable(Object) SharedValues.isShareable} accepts are kept: defaults of
+     * other types, such as the ones of custom parsers, are parsed for each bean.
+     *
+     * @param bean         the destination bean
+     * @param field        the field to set
+     * @param defaultValue the non-converted default value
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    private <T> void setDefaultField(T bean, MappedField field, String defaultValue)
+            throws ParserInitializationException, MappingException {
+        Object value = field.getParsedDefaultValue();
+        if (value == null) {
+            value = parseField(field, defaultValue);
+            if (SharedValues.isShareable(value)) {
+                field.setParsedDefaultValue(value);
+            } else {
+                setValue(bean, field, value);
+                return;
+            }
+        }
+        setValue(bean, field, SharedValues.copy(value));
     }
 
     /**
@@ -190,14 +592,70 @@ public class UnmappingEngine extends BaseEngine {
      * @throws ParserInitializationException if the parser for the field could not be initialized
      * @throws MappingException              if the mapping fails
      */
-    private <T> void setField(T bean, Field field, String value)
+    <T> void setField(T bean, MappedField field, String value)
             throws ParserInitializationException, MappingException {
+        if (value == null || !setPrimitiveField(bean, field, value)) {
+            setValue(bean, field, value == null ? field.getTypeDefault() : parseField(field, value));
+        }
+    }
+
+    /**
+     * Sets an {@code int}, {@code long} or {@code boolean} field without boxing its value, if its parser is a
+     * {@link PrimitiveParser} and its setter accepts the primitive type.
+     *
+     * @param bean  the destination bean
+     * @param field the field to set
+     * @param value the non-{@code null}, non-converted value for the field
+     * @return {@code true} if the field was set, {@code false} if it cannot be set this way
+     * @throws ParserInitializationException if the parser for the field could not be initialized
+     * @throws MappingException              if the mapping fails
+     */
+    private <T> boolean setPrimitiveField(T bean, MappedField field, String value)
+            throws ParserInitializationException, MappingException {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+            return false;
+        }
+
+        SimpleParser<?> parser = getParser(field);
+        PropertyAccessor accessor = field.getAccessor();
         try {
-            set(bean, field, value == null ? DEFAULT_VALUES.getDefaultValue(field.getType())
-                    : this.<T>getParser(field).convertFromString(value));
-        } catch (IllegalAccessException | InvocationTargetException | IntrospectionException | ParsingException e) {
+            if (type == int.class && parser instanceof PrimitiveParser.OfInt && accessor.hasPrimitiveSetter(type)) {
+                accessor.setInt(bean, ((PrimitiveParser.OfInt) parser).parseInt(value));
+            } else if (type == long.class && parser instanceof PrimitiveParser.OfLong
+                    && accessor.hasPrimitiveSetter(type)) {
+                accessor.setLong(bean, ((PrimitiveParser.OfLong) parser).parseLong(value));
+            } else if (type == boolean.class && parser instanceof PrimitiveParser.OfBoolean
+                    && accessor.hasPrimitiveSetter(type)) {
+                accessor.setBoolean(bean, ((PrimitiveParser.OfBoolean) parser).parseBoolean(value));
+            } else {
+                return false;
+            }
+        } catch (InvocationTargetException | ParsingException e) {
             throw new MappingException(
-                    "Field " + field.getName() + " of " + field.getDeclaringClass().getName() + " could not be set.",
+                    "Field " + field.getName() + " of " + field.getDeclaringClassName() + " could not be set.",
+                    e);
+        }
+        return true;
+    }
+
+    private Object parseField(MappedField field, String value)
+            throws ParserInitializationException, MappingException {
+        try {
+            return getParser(field).convertFromString(value);
+        } catch (ParsingException e) {
+            throw new MappingException(
+                    "Field " + field.getName() + " of " + field.getDeclaringClassName() + " could not be set.",
+                    e);
+        }
+    }
+
+    private <T> void setValue(T bean, MappedField field, Object value) throws MappingException {
+        try {
+            set(bean, field, value);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new MappingException(
+                    "Field " + field.getName() + " of " + field.getDeclaringClassName() + " could not be set.",
                     e);
         }
     }
@@ -213,15 +671,18 @@ public class UnmappingEngine extends BaseEngine {
      * @param field    the field to set
      * @param parser   the {@link ElaborateParser} to use
      * @param metadata the flat metadata
-     * @throws MappingException if the mapping fails
+     * @throws ParserInitializationException if the parser could not be instantiated
+     * @throws MappingException              if the mapping fails
      */
-    private <T> void setElaborateField(T bean, Field field, Class<? extends ElaborateParser<?>> parser,
-                                       Map<String, String> metadata) throws MappingException {
+    @SuppressWarnings("unchecked")
+    <T> void setElaborateField(T bean, MappedField field, Class<? extends ElaborateParser<?>> parser,
+                                Map<String, String> metadata)
+            throws ParserInitializationException, MappingException {
         try {
-            Object value = parser.newInstance().fromMap(metadata);
-            set(bean, field, value == null ? DEFAULT_VALUES.getDefaultValue(field.getType()) : value);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | IntrospectionException | ParsingException e) {
+            Object value = ElaborateParserRegistry.get((Class<? extends ElaborateParser<Object>>) parser)
+                    .fromMap(metadata);
+            set(bean, field, value == null ? field.getTypeDefault() : value);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | ParsingException e) {
             throw new MappingException(
                     "Serialization through parser " + parser.getSimpleName() + " could not be performed for field "
                             + field.getName() + " of bean " + bean.getClass().getSimpleName(),
@@ -0,0 +1,221 @@
+package org.keyboardplaying.mapper.engine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+
+/**
+ * Unmaps metadata to a bean one key at a time, without a map holding all the metadata.
+ * <p/>
+ * Each value is converted and set as soon as it is {@link #accept(String, String) accepted}, to the fields of the
+ * bean and of its {@link Nested} beans bound to its key; values of keys no field is bound to are dropped. Once all the
+ * metadata was supplied, {@link #finish()} applies the default values of the fields which were not set and returns
+ * the bean.
+ * <p/>
+ * The memory used by a session does not depend on the amount of metadata, with one exception: elaborate parsers may
+ * read any key of the map, so a bean declaring elaborate fields keeps all the values it is given until
+ * {@link #finish()}.
+ * <p/>
+ * Sessions always use the reflective mapping, never the {@link GeneratedMapper}s. A session is not thread-safe.
+ *
+ * @param <T> the type of the destination bean
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class UnmappingSession<T> {
+
+    private final UnmappingEngine engine;
+    private final T bean;
+    private final MappingPlan plan;
+
+    /** Whether each field of the plan was set from the metadata. */
+    private final boolean[] seen;
+    /** The sessions of the nested beans, by position in the plan. */
+    private final UnmappingSession<?>[] nested;
+    /** Whether each nested bean already existed in the bean, or must be set on it. */
+    private final boolean[] existing;
+    /** The values read by the elaborate parsers, if any. */
+    private final Map<String, String> buffer;
+
+    private boolean finished;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param engine the engine to convert values with
+     * @param bean   the destination bean
+     * @param plan   the plan of the bean's class
+     * @throws MapperException if one of the mandatory nested beans cannot be instantiated
+     */
+    UnmappingSession(UnmappingEngine engine, T bean, MappingPlan plan) throws MapperException {
+        this.engine = engine;
+        this.bean = bean;
+        this.plan = plan;
+
+        MappedField[] fields = plan.getFields();
+        this.seen = new boolean[fields.length];
+        this.nested = new UnmappingSession<?>[fields.length];
+        this.existing = new boolean[fields.length];
+        this.buffer = plan.hasElaborateFields() ? new HashMap<String, String>() : null;
+
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].isNested()) {
+                openNested(i, fields[i]);
+            }
+        }
+    }
+
+    private void openNested(int position, MappedField field) throws MapperException {
+        try {
+            Object innerBean = engine.get(bean, field);
+            existing[position] = innerBean != null;
+            if (innerBean == null) {
+                innerBean = engine.newInstance(engine.getNestedType(field), null);
+            }
+            nested[position] = open(innerBean);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            fail(field, new MappingException("Error while unmapping nested bean " + field.getName() + " of "
+                    + field.getDeclaringClassName(), e));
+        } catch (MapperException e) {
+            fail(field, e);
+        }
+    }
+
+    private <N> UnmappingSession<N> open(N innerBean) throws MapperException {
+        return new UnmappingSession<>(engine, innerBean, engine.getPlan(innerBean.getClass()));
+    }
+
+    /**
+     * Drops a nested bean which cannot be unmapped, unless it is mandatory.
+     *
+     * @param field the nested field
+     * @param e     the cause of the failure
+     * @throws MapperException if the nested bean is mandatory
+     */
+    private static void fail(MappedField field, MapperException e) throws MapperException {
+        if (field.isNestedMandatory()) {
+            throw e;
+        }
+        // XXX some log here would be great otherwise
+    }
+
+    /**
+     * Returns the destination bean, which may not be fully unmapped yet.
+     *
+     * @return the bean
+     */
+    public T getBean() {
+        return bean;
+    }
+
+    /**
+     * Tells whether the value of a key is used by this session, so that callers may avoid decoding the values
+     * nobody reads.
+     *
+     * @param key the key
+     * @return {@code true} if a field is bound to the key or if an elaborate parser may read it
+     */
+    public boolean isBound(String key) {
+        if (buffer != null || plan.getFieldsForKey(key) != null) {
+            return true;
+        }
+        for (UnmappingSession<?> session : nested) {
+            if (session != null && session.isBound(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the value of a key to the fields bound to it.
+     * <p/>
+     * When a key is supplied several times, the last value prevails.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws MapperException       if a value cannot be converted or set
+     * @throws IllegalStateException if the session is finished
+     */
+    public void accept(String key, String value) throws MapperException {
+        checkNotFinished();
+
+        int[] positions = plan.getFieldsForKey(key);
+        if (positions != null) {
+            MappedField[] fields = plan.getFields();
+            for (int position : positions) {
+                engine.setField(bean, fields[position], value);
+                seen[position] = true;
+            }
+        }
+        if (buffer != null) {
+            buffer.put(key, value);
+        }
+
+        for (int i = 0; i < nested.length; i++) {
+            if (nested[i] != null) {
+                try {
+                    nested[i].accept(key, value);
+                } catch (MapperException e) {
+                    nested[i] = null;
+                    fail(plan.getFields()[i], e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Completes the unmapping: sets the fields which were not supplied to their default values, sets the elaborate
+     * fields, and returns the bean.
+     *
+     * @return the destination bean
+     * @throws MapperException       if a mandatory value is missing or if a field cannot be set
+     * @throws IllegalStateException if the session is already finished
+     */
+    public T finish() throws MapperException {
+        checkNotFinished();
+        finished = true;
+
+        MappedField[] fields = plan.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            MappedField field = fields[i];
+            if (field.isNested()) {
+                finishNested(i, field);
+            } else if (field.getElaborate() != null) {
+                engine.setElaborateField(bean, field, field.getElaborate(), buffer);
+            } else if (!field.hasKey()) {
+                throw new MappingException("No key nor elaborate parser was provided for field " + field.getName()
+                        + " of bean " + bean.getClass().getSimpleName());
+            } else if (!seen[i] && !engine.setMissingField(bean, field)) {
+                throw new MappingException("Mandatory data " + field.getKey() + " is missing from metadata.");
+            }
+        }
+        return bean;
+    }
+
+    private void finishNested(int position, MappedField field) throws MapperException {
+        if (nested[position] == null) {
+            return;
+        }
+        try {
+            Object innerBean = nested[position].finish();
+            if (!existing[position]) {
+                engine.set(bean, field, innerBean);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            fail(field, new MappingException("Error while unmapping nested bean " + field.getName() + " of "
+                    + field.getDeclaringClassName(), e));
+        } catch (MapperException e) {
+            fail(field, e);
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("The session is already finished.");
+        }
+    }
+}
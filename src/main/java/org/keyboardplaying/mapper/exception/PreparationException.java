@@ -0,0 +1,54 @@
+package org.keyboardplaying.mapper.exception;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An exception to throw when bean classes were prepared for mapping and some of their annotations are invalid.
+ * <p/>
+ * The exception reports all the problems found at once. Each of them is also added as a suppressed exception.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class PreparationException extends MappingException {
+
+    /**
+     * Generated serial version UID.
+     */
+    private static final long serialVersionUID = 3069181532954624307L;
+
+    private final List<MapperException> problems;
+
+    /**
+     * Constructs a new exception reporting the supplied problems.
+     *
+     * @param problems the problems found, which must not be empty
+     */
+    public PreparationException(List<? extends MapperException> problems) {
+        super(makeMessage(problems));
+        this.problems = Collections.unmodifiableList(new ArrayList<MapperException>(problems));
+        for (MapperException problem : problems) {
+            addSuppressed(problem);
+        }
+    }
+
+    /**
+     * Returns the problems found.
+     *
+     * @return the problems, in the order they were found
+     */
+    public List<MapperException> getProblems() {
+        return problems;
+    }
+
+    private static String makeMessage(List<? extends MapperException> problems) {
+        StringBuilder message = new StringBuilder();
+        message.append(problems.size()).append(problems.size() == 1 ? " problem was" : " problems were")
+                .append(" found while preparing the mapping:");
+        for (MapperException problem : problems) {
+            message.append(System.lineSeparator()).append(" - ").append(problem.getMessage());
+        }
+        return message.toString();
+    }
+}
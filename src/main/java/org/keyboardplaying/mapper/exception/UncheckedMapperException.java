@@ -0,0 +1,45 @@
+package org.keyboardplaying.mapper.exception;
+
+/**
+ * Wraps a {@link MapperException} thrown where a checked exception cannot be, such as in the getter of a lazily
+ * unmapped bean.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class UncheckedMapperException extends RuntimeException {
+
+    /**
+     * Generated serial version UID.
+     */
+    private static final long serialVersionUID = -3021559718421736012L;
+
+    /**
+     * Constructs a new exception with the specified cause and a detail message of {@code cause.toString()}.
+     *
+     * @param cause the cause (which is saved for later retrieval by the {@link #getCause()} method)
+     */
+    public UncheckedMapperException(MapperException cause) {
+        super(cause);
+    }
+
+    /**
+     * Constructs a new exception with the specified detail message and cause.
+     *
+     * @param message the detail message. The detail message is saved for later retrieval by the {@link #getMessage()}
+     *                method.
+     * @param cause   the cause (which is saved for later retrieval by the {@link #getCause()} method)
+     */
+    public UncheckedMapperException(String message, MapperException cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Returns the cause of this exception.
+     *
+     * @return the {@link MapperException} which is the cause of this exception
+     */
+    @Override
+    public synchronized MapperException getCause() {
+        return (MapperException) super.getCause();
+    }
+}
@@ -0,0 +1,272 @@
+package org.keyboardplaying.mapper.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.engine.UnmappingSession;
+import org.keyboardplaying.mapper.exception.MapperException;
+
+/**
+ * Reads the records of a large key/value file one bean at a time, through a memory mapping of the file.
+ * <p/>
+ * The file holds records made of {@code key=value} lines, each record ending with a separator line (an empty line by
+ * default). Lines follow the {@code .properties} syntax, except that line continuations are not supported: comments
+ * and escape sequences are. The charset must encode the ASCII characters on single bytes, as ISO-8859-1 (the default)
+ * and UTF-8 do.
+ * <p/>
+ * The file is scanned in place, in windows of at most {@link #DEFAULT_WINDOW_SIZE} bytes, so that it may be larger
+ * than the heap or than 2 GB. Keys are decoded to look up the fields bound to them through an
+ * {@link UnmappingSession}, but only the values of bound keys are decoded to {@link String}s.
+ * <p/>
+ * Instances are not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class MappedRecordReader implements Closeable {
+
+    /** The maximum size of the part of the file mapped at once. A line must fit in it. */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private final UnmappingEngine engine;
+    private final FileChannel channel;
+    private final long size;
+    private final byte[] separator;
+    private final Charset charset;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /* The current line, as positions in the window. */
+    private int lineStart;
+    private int lineEnd;
+    private int nextLine;
+
+    private byte[] scratch = new byte[256];
+
+    /**
+     * Opens a file whose records are separated by empty lines and encoded in ISO-8859-1, with a default
+     * {@link UnmappingEngine}.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedRecordReader(Path file) throws IOException {
+        this(new UnmappingEngine(), file, "", StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Opens a file.
+     *
+     * @param engine    the engine to unmap the beans with
+     * @param file      the file
+     * @param separator the content of the lines separating the records
+     * @param charset   the charset of the file, encoding the ASCII characters on single bytes
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedRecordReader(UnmappingEngine engine, Path file, String separator, Charset charset)
+            throws IOException {
+        this(engine, file, separator, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Opens a file, mapping it by windows of the supplied size.
+     *
+     * @param engine     the engine to unmap the beans with
+     * @param file       the file
+     * @param separator  the content of the lines separating the records
+     * @param charset    the charset of the file, encoding the ASCII characters on single bytes
+     * @param windowSize the maximum size of the part of the file mapped at once
+     * @throws IOException if the file cannot be opened
+     */
+    MappedRecordReader(UnmappingEngine engine, Path file, String separator, Charset charset, int windowSize)
+            throws IOException {
+        this.engine = Objects.requireNonNull(engine, "The supplied engine was null.");
+        this.charset = Objects.requireNonNull(charset, "The supplied charset was null.");
+        this.separator = Objects.requireNonNull(separator, "The supplied separator was null.").getBytes(charset);
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(Objects.requireNonNull(file, "The supplied file was null."),
+                StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+    }
+
+    /**
+     * Unmaps the next record of the file to a new bean of specified type.
+     * <p/>
+     * Separator lines preceding the record are skipped, so that an empty record is never returned.
+     *
+     * @param beanType the destination bean's type
+     * @return the destination bean, or {@code null} if the end of the file was reached
+     * @throws IOException     if the file cannot be read or a line is malformed or longer than the window
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T next(Class<T> beanType) throws IOException, MapperException {
+        UnmappingSession<T> session = null;
+        while (nextLine()) {
+            if (isSeparator()) {
+                if (session != null) {
+                    break;
+                }
+                continue;
+            }
+            int start = skipBlanks(lineStart);
+            if (start == lineEnd || window.get(start) == '#' || window.get(start) == '!') {
+                continue;
+            }
+
+            if (session == null) {
+                session = engine.openSession(beanType);
+            }
+            if (indexOf('\\', start) >= 0) {
+                readEscaped(session, start);
+            } else {
+                read(session, start);
+            }
+        }
+        return session == null ? null : session.finish();
+    }
+
+    /**
+     * Reads a line without escape sequences, decoding the value only if its key is bound.
+     */
+    private void read(UnmappingSession<?> session, int start) throws MapperException {
+        int keyEnd = start;
+        while (keyEnd < lineEnd && !isSeparatorChar(window.get(keyEnd)) && !isBlank(window.get(keyEnd))) {
+            keyEnd++;
+        }
+        String key = decode(start, keyEnd);
+        if (!session.isBound(key)) {
+            return;
+        }
+
+        int valueStart = skipBlanks(keyEnd);
+        if (valueStart < lineEnd && isSeparatorChar(window.get(valueStart))
+                && (valueStart == keyEnd || !isSeparatorChar(window.get(keyEnd)))) {
+            valueStart = skipBlanks(valueStart + 1);
+        }
+        session.accept(key, decode(valueStart, lineEnd));
+    }
+
+    /**
+     * Reads a line with escape sequences, which is decoded as a whole.
+     */
+    private void readEscaped(UnmappingSession<?> session, int start) throws IOException, MapperException {
+        PropertiesTokenizer tokenizer = new PropertiesTokenizer(new StringReader(decode(start, lineEnd)));
+        String key = tokenizer.nextKey();
+        if (session.isBound(key)) {
+            session.accept(key, tokenizer.readValue());
+        }
+    }
+
+    /**
+     * Moves to the next line, mapping the next window of the file if needed.
+     *
+     * @return {@code false} if the end of the file was reached
+     * @throws IOException if the line is longer than the window
+     */
+    private boolean nextLine() throws IOException {
+        int start = nextLine;
+        if (start >= window.limit()) {
+            if (windowStart + start >= size) {
+                return false;
+            }
+            map(windowStart + start);
+            start = 0;
+        }
+
+        int end = indexOf('\n', start);
+        if (end < 0 && windowStart + window.limit() < size) {
+            /* The line goes beyond the window, move the window to the start of the line. */
+            map(windowStart + start);
+            start = 0;
+            end = indexOf('\n', start);
+            if (end < 0 && windowStart + window.limit() < size) {
+                throw new IOException("Line at offset " + windowStart + " is longer than " + windowSize + " bytes.");
+            }
+        }
+
+        lineStart = start;
+        lineEnd = end < 0 ? window.limit() : end;
+        nextLine = end < 0 ? window.limit() : end + 1;
+        if (lineEnd > lineStart && window.get(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        return true;
+    }
+
+    private void map(long position) throws IOException {
+        windowStart = position;
+        window = channel.map(MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+        nextLine = 0;
+    }
+
+    private boolean isSeparator() {
+        if (lineEnd - lineStart != separator.length) {
+            return false;
+        }
+        for (int i = 0; i < separator.length; i++) {
+            if (window.get(lineStart + i) != separator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        int limit = c == '\n' ? window.limit() : lineEnd;
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipBlanks(int from) {
+        int position = from;
+        while (position < lineEnd && isBlank(window.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\f';
+    }
+
+    private static boolean isSeparatorChar(byte b) {
+        return b == '=' || b == ':';
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = window.get(start + i);
+        }
+        return new String(scratch, 0, length, charset);
+    }
+
+    /**
+     * Closes the file. The mapping itself is released once the reader is garbage-collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,100 @@
+package org.keyboardplaying.mapper.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A write-only map which appends each entry put into it as a {@code .properties} line.
+ * <p/>
+ * Keys and values are escaped as {@link java.util.Properties#store(java.io.Writer, String)} would, straight into the
+ * destination. Nothing is kept in memory: the map always looks empty. Entries with a {@code null} value, which the
+ * {@code .properties} format cannot represent, are not written. An entry put several times is written several times,
+ * the last line prevailing when the file is read back.
+ * <p/>
+ * Since the {@link java.util.Map} interface cannot throw checked exceptions, write failures are reported as
+ * {@link UncheckedIOException}s.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class PropertiesAppender extends AbstractMap<String, String> {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final Appendable out;
+    private final boolean escapeUnicode;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param out           the destination
+     * @param escapeUnicode {@code true} to escape all characters outside of the printable ASCII range as
+     *                      {@code \\uxxxx}, as required for ISO-8859-1 output
+     */
+    PropertiesAppender(Appendable out, boolean escapeUnicode) {
+        this.out = out;
+        this.escapeUnicode = escapeUnicode;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        if (value != null) {
+            try {
+                append(key, true);
+                out.append('=');
+                append(value, false);
+                out.append('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return Collections.emptySet();
+    }
+
+    private void append(String text, boolean key) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case ' ':
+                    if (key || i == 0) {
+                        out.append('\\');
+                    }
+                    out.append(' ');
+                    break;
+                case '\t':
+                    out.append('\\').append('t');
+                    break;
+                case '\n':
+                    out.append('\\').append('n');
+                    break;
+                case '\r':
+                    out.append('\\').append('r');
+                    break;
+                case '\f':
+                    out.append('\\').append('f');
+                    break;
+                case '=':
+                case ':':
+                case '#':
+                case '!':
+                case '\\':
+                    out.append('\\').append(c);
+                    break;
+                default:
+                    if ((c < 0x20 || c > 0x7e) && escapeUnicode) {
+                        out.append('\\').append('u').append(HEX_DIGITS[c >> 12 & 0xF]).append(HEX_DIGITS[c >> 8 & 0xF])
+                                .append(HEX_DIGITS[c >> 4 & 0xF]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.keyboardplaying.mapper.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.engine.UnmappingSession;
+import org.keyboardplaying.mapper.exception.MapperException;
+
+/**
+ * Unmaps {@code .properties} files to beans, without loading them into a {@link java.util.Properties} or a map.
+ * <p/>
+ * The file is read one key at a time, and each value is set straight to the fields bound to its key through an
+ * {@link UnmappingSession}. The values of the keys no field is bound to are skipped without being decoded, so that the
+ * memory used does not depend on the size of the file (see {@link UnmappingSession} for the beans using elaborate
+ * parsers).
+ * <p/>
+ * The files are parsed as {@link java.util.Properties#load(Reader)} would. The sources are not closed.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class PropertiesReader {
+
+    private final UnmappingEngine engine;
+
+    /**
+     * Creates a new instance, with a default {@link UnmappingEngine}.
+     */
+    public PropertiesReader() {
+        this(new UnmappingEngine());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param engine the engine to unmap the beans with
+     */
+    public PropertiesReader(UnmappingEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "The supplied engine was null.");
+    }
+
+    /**
+     * Instantiates a new bean of specified type and unmaps the content of a {@code .properties} file to it.
+     *
+     * @param reader   the source
+     * @param beanType the destination bean's type
+     * @return the destination bean
+     * @throws IOException     if the source cannot be read or is malformed
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T readToClass(Reader reader, Class<T> beanType) throws IOException, MapperException {
+        Objects.requireNonNull(reader, "The supplied reader was null.");
+        return read(reader, engine.openSession(beanType));
+    }
+
+    /**
+     * Instantiates a new bean of specified type and unmaps the content of a {@code .properties} file to it.
+     * <p/>
+     * As with {@link java.util.Properties#load(InputStream)}, the stream is decoded as ISO-8859-1.
+     *
+     * @param in       the source
+     * @param beanType the destination bean's type
+     * @return the destination bean
+     * @throws IOException     if the source cannot be read or is malformed
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T readToClass(InputStream in, Class<T> beanType) throws IOException, MapperException {
+        return readToClass(toReader(in), beanType);
+    }
+
+    /**
+     * Unmaps the content of a {@code .properties} file to a destination bean.
+     * <p/>
+     * Non-annotated fields are not overwritten.
+     *
+     * @param reader the source
+     * @param bean   the destination bean
+     * @return the destination bean
+     * @throws IOException     if the source cannot be read or is malformed
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T readToBean(Reader reader, T bean) throws IOException, MapperException {
+        Objects.requireNonNull(reader, "The supplied reader was null.");
+        return read(reader, engine.openSession(bean));
+    }
+
+    /**
+     * Unmaps the content of a {@code .properties} file to a destination bean.
+     * <p/>
+     * As with {@link java.util.Properties#load(InputStream)}, the stream is decoded as ISO-8859-1.
+     *
+     * @param in   the source
+     * @param bean the destination bean
+     * @return the destination bean
+     * @throws IOException     if the source cannot be read or is malformed
+     * @throws MapperException if the parser could not be initialized for a field or the mapping fails
+     */
+    public <T> T readToBean(InputStream in, T bean) throws IOException, MapperException {
+        return readToBean(toReader(in), bean);
+    }
+
+    private static Reader toReader(InputStream in) {
+        return new InputStreamReader(Objects.requireNonNull(in, "The supplied stream was null."),
+                StandardCharsets.ISO_8859_1);
+    }
+
+    private static <T> T read(Reader reader, UnmappingSession<T> session) throws IOException, MapperException {
+        PropertiesTokenizer tokenizer = new PropertiesTokenizer(reader);
+        for (String key = tokenizer.nextKey(); key != null; key = tokenizer.nextKey()) {
+            if (session.isBound(key)) {
+                session.accept(key, tokenizer.readValue());
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        return session.finish();
+    }
+}
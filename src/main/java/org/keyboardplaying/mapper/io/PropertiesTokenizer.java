@@ -0,0 +1,245 @@
+package org.keyboardplaying.mapper.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the key/value pairs of a {@code .properties} file one at a time.
+ * <p/>
+ * The syntax is the one of {@link java.util.Properties#load(Reader)}: comments, line continuations, the {@code =},
+ * {@code :} and whitespace separators, and the escape sequences are all supported. Only the current key and value
+ * are held in memory.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class PropertiesTokenizer {
+
+    private static final int EOF = -1;
+    private static final int NONE = -2;
+    /** Marks an escaped character, which never acts as a separator or a line terminator. */
+    private static final int ESCAPED = 0x10000;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private int lookahead = NONE;
+    /** Whether a backslash starting a key was read before the key itself. */
+    private boolean pendingBackslash;
+
+    private final StringBuilder token = new StringBuilder();
+    /** Whether the separator following the current key was read. */
+    private boolean separated;
+    /** Whether the line of the current key was read up to its end. */
+    private boolean lineEnded;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param reader the source, which is not closed by the tokenizer
+     */
+    PropertiesTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next key. Either {@link #readValue()} or {@link #skipValue()} must be called before the next key is
+     * read.
+     *
+     * @return the key, or {@code null} if the end of the source was reached
+     * @throws IOException if the source cannot be read or contains a malformed escape sequence
+     */
+    String nextKey() throws IOException {
+        for (int c = peek(); ; c = peek()) {
+            if (c == EOF) {
+                return null;
+            } else if (isBlank(c) || c == '\r' || c == '\n') {
+                read();
+            } else if (c == '#' || c == '!') {
+                skipComment();
+            } else if (c == '\\') {
+                read();
+                c = peek();
+                if (c != '\r' && c != '\n') {
+                    /* An escape sequence starting the key. */
+                    pendingBackslash = true;
+                    break;
+                }
+                /* A continuation at the start of a line: the next line may still be blank or a comment. */
+                read();
+                if (peek() == EOF) {
+                    /* Properties.load reads an empty key when the continued line ends the source. */
+                    break;
+                } else if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                skipBlanks();
+            } else {
+                break;
+            }
+        }
+
+        token.setLength(0);
+        separated = false;
+        lineEnded = false;
+        for (int c = next(); ; c = next()) {
+            if (isLineEnd(c)) {
+                lineEnded = true;
+                break;
+            } else if (c == '=' || c == ':') {
+                separated = true;
+                break;
+            } else if (isBlank(c)) {
+                break;
+            }
+            token.append((char) c);
+        }
+        return token.toString();
+    }
+
+    /**
+     * Reads the value of the current key.
+     *
+     * @return the value
+     * @throws IOException if the source cannot be read or contains a malformed escape sequence
+     */
+    String readValue() throws IOException {
+        token.setLength(0);
+        value(token);
+        return token.toString();
+    }
+
+    /**
+     * Skips the value of the current key.
+     *
+     * @throws IOException if the source cannot be read or contains a malformed escape sequence
+     */
+    void skipValue() throws IOException {
+        value(null);
+    }
+
+    private void value(StringBuilder value) throws IOException {
+        if (lineEnded) {
+            return;
+        }
+
+        int c = next();
+        while (isBlank(c)) {
+            c = next();
+        }
+        if (!separated && (c == '=' || c == ':')) {
+            c = next();
+            while (isBlank(c)) {
+                c = next();
+            }
+        }
+        for (; !isLineEnd(c); c = next()) {
+            if (value != null) {
+                value.append((char) c);
+            }
+        }
+        lineEnded = true;
+    }
+
+    /**
+     * Reads the next character of the logical line, joining continued lines and decoding escape sequences.
+     *
+     * @return the character, with the {@link #ESCAPED} flag if it was escaped, or {@link #EOF}
+     * @throws IOException if the source cannot be read or contains a malformed escape sequence
+     */
+    private int next() throws IOException {
+        for (;;) {
+            int c = pendingBackslash ? '\\' : read();
+            pendingBackslash = false;
+            if (c != '\\') {
+                return c;
+            }
+
+            int escaped = read();
+            switch (escaped) {
+                case EOF:
+                    return EOF;
+                case '\r':
+                    if (peek() == '\n') {
+                        read();
+                    }
+                    skipBlanks();
+                    break;
+                case '\n':
+                    skipBlanks();
+                    break;
+                case 't':
+                    return ESCAPED | '\t';
+                case 'n':
+                    return ESCAPED | '\n';
+                case 'r':
+                    return ESCAPED | '\r';
+                case 'f':
+                    return ESCAPED | '\f';
+                case 'u':
+                    return ESCAPED | readUnicode();
+                default:
+                    return ESCAPED | escaped;
+            }
+        }
+    }
+
+    private int readUnicode() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw new IOException("Malformed \\uxxxx encoding.");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private void skipBlanks() throws IOException {
+        while (isBlank(peek())) {
+            read();
+        }
+    }
+
+    private void skipComment() throws IOException {
+        for (int c = peek(); c != EOF && c != '\r' && c != '\n'; c = peek()) {
+            read();
+        }
+    }
+
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isLineEnd(int c) {
+        return c == EOF || c == '\r' || c == '\n';
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == NONE) {
+            lookahead = fill();
+        }
+        return lookahead;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        lookahead = NONE;
+        return c;
+    }
+
+    private int fill() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,90 @@
+package org.keyboardplaying.mapper.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import org.keyboardplaying.mapper.engine.MappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+
+/**
+ * Maps beans to {@code .properties} files, without building a map.
+ * <p/>
+ * Each field is written as a {@code key=value} line as soon as it is serialized, with the escaping of
+ * {@link java.util.Properties#store(Writer, String)}. Lines are written in the order the fields are mapped, and
+ * {@code null} values are not written. No comment nor timestamp is written, so that several beans may be written one
+ * after another to the same destination.
+ * <p/>
+ * The destinations are neither flushed nor closed, except for the internal buffer of
+ * {@link #write(Object, OutputStream)}, which is flushed to the stream.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class PropertiesWriter {
+
+    private final MappingEngine engine;
+
+    /**
+     * Creates a new instance, with a default {@link MappingEngine}.
+     */
+    public PropertiesWriter() {
+        this(new MappingEngine());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param engine the engine to map the beans with
+     */
+    public PropertiesWriter(MappingEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "The supplied engine was null.");
+    }
+
+    /**
+     * Writes the annotated bean as {@code .properties} lines.
+     * <p/>
+     * As with {@link java.util.Properties#store(Writer, String)}, characters outside of ISO-8859-1 are not escaped.
+     * Each character is appended separately: a {@link Writer} should be buffered.
+     *
+     * @param bean the annotated bean
+     * @param out  the destination, such as a {@link Writer}, a {@link StringBuilder} or a
+     *             {@link java.nio.CharBuffer}
+     * @throws IOException     if the destination cannot be written
+     * @throws MapperException if a SimpleParser could not be initialized or the mapping fails
+     */
+    public <T> void write(T bean, Appendable out) throws IOException, MapperException {
+        write(bean, out, false);
+    }
+
+    /**
+     * Writes the annotated bean as {@code .properties} lines.
+     * <p/>
+     * As with {@link java.util.Properties#store(OutputStream, String)}, the stream is encoded as ISO-8859-1 and the
+     * characters outside of the printable ASCII range are escaped.
+     *
+     * @param bean the annotated bean
+     * @param out  the destination
+     * @throws IOException     if the destination cannot be written
+     * @throws MapperException if a SimpleParser could not be initialized or the mapping fails
+     */
+    public <T> void write(T bean, OutputStream out) throws IOException, MapperException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Objects.requireNonNull(out, "The supplied stream was null."), StandardCharsets.ISO_8859_1));
+        write(bean, writer, true);
+        writer.flush();
+    }
+
+    private <T> void write(T bean, Appendable out, boolean escapeUnicode) throws IOException, MapperException {
+        Objects.requireNonNull(out, "The supplied destination was null.");
+        try {
+            engine.map(bean, new PropertiesAppender(out, escapeUnicode));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
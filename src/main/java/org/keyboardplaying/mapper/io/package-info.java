@@ -0,0 +1,4 @@
+/**
+ * Readers and writers mapping beans from and to files, without holding all the metadata in memory.
+ */
+package org.keyboardplaying.mapper.io;
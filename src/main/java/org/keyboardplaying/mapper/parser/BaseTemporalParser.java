@@ -1,8 +1,5 @@
 package org.keyboardplaying.mapper.parser;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import org.keyboardplaying.mapper.exception.ParsingException;
@@ -12,6 +9,9 @@ import org.keyboardplaying.mapper.exception.ParsingException;
  * <p/>
  * Using this implies to use {@link Date} objects at least as intermediary steps. You might wish to use more direct ways
  * if it is possible.
+ * <p/>
+ * Conversions are delegated to a {@link TemporalFormat}. Once its format is set, an instance may be shared by several
+ * threads.
  *
  * @param <T> the type of time objects this {@link SimpleParser} converts from and to
  * @author Cyrille Chopelet (https://keyboardplaying.org)
@@ -21,7 +21,7 @@ public abstract class BaseTemporalParser<T> implements TemporalParser<T> {
     /**
      * The format to use for the string representation of timestamps.
      */
-    private DateFormat format;
+    private TemporalFormat format;
 
     /*
      * (non-Javadoc)
@@ -30,7 +30,7 @@ public abstract class BaseTemporalParser<T> implements TemporalParser<T> {
      */
     @Override
     public void setFormat(String format) {
-        this.format = new SimpleDateFormat(format);
+        this.format = TemporalFormat.of(format);
     }
 
     /**
@@ -43,12 +43,7 @@ public abstract class BaseTemporalParser<T> implements TemporalParser<T> {
      * @throws ParsingException if the supplied {@link String} could not be parsed
      */
     protected Date convertStringToDate(String value) throws ParsingException {
-        try {
-            return format.parse(value);
-        } catch (ParseException e) {
-            throw new ParsingException(
-                    "Value <" + value + "> could not be parsed to date using format <" + format + ">.");
-        }
+        return format.parse(value);
     }
 
     /**
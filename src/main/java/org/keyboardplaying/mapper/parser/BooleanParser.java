@@ -1,16 +1,19 @@
 package org.keyboardplaying.mapper.parser;
 
 import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
 import org.keyboardplaying.mapper.exception.ParsingException;
 
 import java.util.Arrays;
 
 /**
  * Implementation of {@link SimpleParser} for {@code Boolean} to {@code String} parsing.
+ * <p/>
+ * {@code boolean} values are converted without boxing, see {@link PrimitiveParser}.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
-public class BooleanParser implements SimpleParser<Boolean> {
+public class BooleanParser implements PrimitiveParser.OfBoolean {
 
     /**
      * The {@link String} representation of {@code true}.
@@ -33,6 +36,22 @@ public class BooleanParser implements SimpleParser<Boolean> {
                 "The array of false representations should contain at least one value.");
     }
 
+    /**
+     * Returns a new instance of this parser, with the same representations, whose representations can be set without
+     * affecting this one.
+     * <p/>
+     * Subclasses without a no-arg constructor, or with settings of their own, should override this method.
+     *
+     * @return a new instance of this parser
+     * @throws ParserInitializationException if the new instance cannot be created
+     */
+    public BooleanParser copy() throws ParserInitializationException {
+        BooleanParser copy = getClass() == BooleanParser.class ? new BooleanParser() : ParserCopies.newInstance(this);
+        copy.whenTrue = whenTrue;
+        copy.whenFalse = whenFalse;
+        return copy;
+    }
+
     private String[] checkArray(String[] array, String message) {
         if (array == null || array.length < 1) {
             throw new IllegalArgumentException(message);
@@ -43,20 +62,19 @@ public class BooleanParser implements SimpleParser<Boolean> {
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertFromString(java.lang.String)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfBoolean#parseBoolean(java.lang.CharSequence)
      */
     @Override
-    public Boolean convertFromString(String value) throws ParsingException {
-        Boolean result;
-        if (containsIgnoreCase(whenTrue, value)) {
-            result = true;
-        } else if (containsIgnoreCase(whenFalse, value)) {
-            result = false;
-        } else {
-            throw new ParsingException("Value <" + value + "> could not be parsed to boolean (authorized: "
-                    + Arrays.toString(this.whenTrue) + "/" + Arrays.toString(this.whenFalse) + ")");
+    public boolean parseBoolean(CharSequence value) throws ParsingException {
+        /* null matches neither representation and is reported as any unknown value. */
+        String string = value == null ? null : value.toString();
+        if (containsIgnoreCase(whenTrue, string)) {
+            return true;
+        } else if (containsIgnoreCase(whenFalse, string)) {
+            return false;
         }
-        return result;
+        throw new ParsingException("Value <" + value + "> could not be parsed to boolean (authorized: "
+                + Arrays.toString(this.whenTrue) + "/" + Arrays.toString(this.whenFalse) + ")");
     }
 
     private boolean containsIgnoreCase(String[] array, String value) {
@@ -71,10 +89,10 @@ public class BooleanParser implements SimpleParser<Boolean> {
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertToString(java.lang.Object)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfBoolean#formatBoolean(boolean)
      */
     @Override
-    public String convertToString(Boolean bool) {
-        return (bool ? this.whenTrue : this.whenFalse)[0];
+    public String formatBoolean(boolean value) {
+        return (value ? this.whenTrue : this.whenFalse)[0];
     }
 }
@@ -11,6 +11,9 @@ import org.keyboardplaying.mapper.exception.ParsingException;
  * <p/>
  * <strong>Notice:</strong> Please note that all implementations of this interface should provide a {@code public}
  * no-arg constructor, so that the {@link ParserProvider} is able to instantiate any {@link ElaborateParser}.
+ * <p/>
+ * The engines create an instance for each value to convert, except for the parsers annotated with {@link Shareable},
+ * whose single instance is reused.
  *
  * @param <F> the type of field this parser parses from and to
  * @author Cyrille Chopelet (https://keyboardplaying.org)
@@ -4,20 +4,25 @@ import org.keyboardplaying.mapper.exception.ParsingException;
 
 /**
  * Implementation of {@link SimpleParser} for {@code Integer} to {@code String} parsing.
+ * <p/>
+ * {@code int} values are converted without boxing, see {@link PrimitiveParser}.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
-public class IntegerParser implements SimpleParser<Integer> {
+public class IntegerParser implements PrimitiveParser.OfInt {
 
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertFromString(java .lang.String)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfInt#parseInt(java.lang.CharSequence)
      */
     @Override
-    public Integer convertFromString(String value) throws ParsingException {
+    public int parseInt(CharSequence value) throws ParsingException {
+        if (value == null) {
+            throw new ParsingException("Value <null> could not be parsed to integer");
+        }
         try {
-            return Integer.valueOf(value);
+            return Integer.parseInt(value.toString());
         } catch (IllegalArgumentException e) {
             throw new ParsingException("Value <" + value + "> could not be parsed to integer", e);
         }
@@ -26,10 +31,10 @@ public class IntegerParser implements SimpleParser<Integer> {
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertToString(java.lang .Object)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfInt#formatInt(int)
      */
     @Override
-    public String convertToString(Integer value) {
-        return value.toString();
+    public String formatInt(int value) {
+        return Integer.toString(value);
     }
 }
@@ -4,20 +4,25 @@ import org.keyboardplaying.mapper.exception.ParsingException;
 
 /**
  * Implementation of {@link SimpleParser} for {@code Long} to {@code String} parsing.
+ * <p/>
+ * {@code long} values are converted without boxing, see {@link PrimitiveParser}.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
-public class LongParser implements SimpleParser<Long> {
+public class LongParser implements PrimitiveParser.OfLong {
 
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertFromString(java .lang.String)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfLong#parseLong(java.lang.CharSequence)
      */
     @Override
-    public Long convertFromString(String value) throws ParsingException {
+    public long parseLong(CharSequence value) throws ParsingException {
+        if (value == null) {
+            throw new ParsingException("Value <null> could not be parsed to long");
+        }
         try {
-            return Long.valueOf(value);
+            return Long.parseLong(value.toString());
         } catch (IllegalArgumentException e) {
             throw new ParsingException("Value <" + value + "> could not be parsed to long", e);
         }
@@ -26,10 +31,10 @@ public class LongParser implements SimpleParser<Long> {
     /*
      * (non-Javadoc)
      *
-     * @see org.keyboardplaying.mapper.parser.SimpleParser#convertToString(java.lang .Object)
+     * @see org.keyboardplaying.mapper.parser.PrimitiveParser.OfLong#formatLong(long)
      */
     @Override
-    public String convertToString(Long value) {
-        return value.toString();
+    public String formatLong(long value) {
+        return Long.toString(value);
     }
 }
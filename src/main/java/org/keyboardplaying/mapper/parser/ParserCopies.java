@@ -0,0 +1,35 @@
+package org.keyboardplaying.mapper.parser;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+
+/**
+ * Creates the new instances the default {@code copy()} methods of configurable parsers start from.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class ParserCopies {
+
+    /* Private constructor, static methods only. */
+    private ParserCopies() {
+    }
+
+    /**
+     * Creates a new instance of the supplied parser's class, using its no-arg constructor.
+     *
+     * @param parser the parser to copy
+     * @return a new, unconfigured instance
+     * @throws ParserInitializationException if the class has no accessible no-arg constructor or it fails
+     */
+    @SuppressWarnings("unchecked")
+    static <P> P newInstance(P parser) throws ParserInitializationException {
+        try {
+            return (P) parser.getClass().getDeclaredConstructor().newInstance();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new ParserInitializationException(parser.getClass().getName()
+                    + " could not be copied. Does it define a public no-arg constructor or override copy()?", e);
+        }
+    }
+}
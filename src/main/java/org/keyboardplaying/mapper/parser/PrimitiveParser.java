@@ -0,0 +1,120 @@
+package org.keyboardplaying.mapper.parser;
+
+import java.util.Objects;
+
+import org.keyboardplaying.mapper.exception.ParsingException;
+
+/**
+ * A {@link SimpleParser} for a primitive type, which can convert values without boxing them.
+ * <p/>
+ * When the parser of a primitive field implements one of the specializations below, the engines read and write the
+ * field through its primitive getter and setter, and convert the value with the primitive methods of the parser. The
+ * methods of {@link SimpleParser} are implemented on top of the primitive ones, for the wrapper types. Parsing a
+ * {@code null} {@link String} fails with a {@link ParsingException}; formatting a {@code null} wrapper fails with a
+ * {@link NullPointerException} naming the problem, as {@code convertToString} does not declare checked exceptions
+ * for these parsers.
+ *
+ * @param <T> the wrapper type of the primitive type being parsed
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public interface PrimitiveParser<T> extends SimpleParser<T> {
+
+    /**
+     * A {@link PrimitiveParser} for {@code int} values.
+     */
+    interface OfInt extends PrimitiveParser<Integer> {
+
+        /**
+         * Parses a {@code String} to an {@code int}.
+         *
+         * @param value the {@code String} value accepted
+         * @return the {@code int}
+         * @throws ParsingException if the parsing cannot be performed
+         */
+        int parseInt(CharSequence value) throws ParsingException;
+
+        /**
+         * Parses an {@code int} to its {@code String} representation.
+         *
+         * @param value the {@code int} to parse
+         * @return the {@code String} representation
+         */
+        String formatInt(int value);
+
+        @Override
+        default Integer convertFromString(String value) throws ParsingException {
+            return parseInt(value);
+        }
+
+        @Override
+        default String convertToString(Integer value) {
+            return formatInt(Objects.requireNonNull(value, "A null value cannot be formatted as int."));
+        }
+    }
+
+    /**
+     * A {@link PrimitiveParser} for {@code long} values.
+     */
+    interface OfLong extends PrimitiveParser<Long> {
+
+        /**
+         * Parses a {@code String} to a {@code long}.
+         *
+         * @param value the {@code String} value accepted
+         * @return the {@code long}
+         * @throws ParsingException if the parsing cannot be performed
+         */
+        long parseLong(CharSequence value) throws ParsingException;
+
+        /**
+         * Parses a {@code long} to its {@code String} representation.
+         *
+         * @param value the {@code long} to parse
+         * @return the {@code String} representation
+         */
+        String formatLong(long value);
+
+        @Override
+        default Long convertFromString(String value) throws ParsingException {
+            return parseLong(value);
+        }
+
+        @Override
+        default String convertToString(Long value) {
+            return formatLong(Objects.requireNonNull(value, "A null value cannot be formatted as long."));
+        }
+    }
+
+    /**
+     * A {@link PrimitiveParser} for {@code boolean} values.
+     */
+    interface OfBoolean extends PrimitiveParser<Boolean> {
+
+        /**
+         * Parses a {@code String} to a {@code boolean}.
+         *
+         * @param value the {@code String} value accepted
+         * @return the {@code boolean}
+         * @throws ParsingException if the parsing cannot be performed
+         */
+        boolean parseBoolean(CharSequence value) throws ParsingException;
+
+        /**
+         * Parses a {@code boolean} to its {@code String} representation.
+         *
+         * @param value the {@code boolean} to parse
+         * @return the {@code String} representation
+         */
+        String formatBoolean(boolean value);
+
+        @Override
+        default Boolean convertFromString(String value) throws ParsingException {
+            return parseBoolean(value);
+        }
+
+        @Override
+        default String convertToString(Boolean value) {
+            return formatBoolean(Objects.requireNonNull(value, "A null value cannot be formatted as boolean."));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.keyboardplaying.mapper.parser;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link ElaborateParser} as stateless, and therefore safe to share between all fields and threads.
+ * <p/>
+ * The engines create a single instance of a shareable parser. Other parsers are instantiated for each value they
+ * convert, and may therefore keep state while converting it.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Shareable {
+}
@@ -0,0 +1,366 @@
+package org.keyboardplaying.mapper.parser;
+
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.exception.ParsingException;
+
+/**
+ * Converts {@link Date} instances from and to their {@link String} representation, using a date and time pattern.
+ * <p/>
+ * This class is backed by an immutable {@link DateTimeFormatter}: instances are thread-safe and are cached per
+ * pattern, so that all parsers using the same pattern share a single instance.
+ * <p/>
+ * The behaviour mimics the {@link java.text.SimpleDateFormat} this class replaces: parsing is lenient and stops at the
+ * end of the pattern, ignoring any trailing text, missing fields default to the epoch or to midnight, and dates are
+ * interpreted in the default time zone.
+ * <p/>
+ * Patterns are those of {@link java.text.SimpleDateFormat}, translated to the {@link DateTimeFormatter} builder where
+ * both disagree on a letter: {@code u} is the day number of week, {@code S} the number of milliseconds, {@code yy} is
+ * resolved within 80 years before and 20 years after the creation of the format, {@code Z} is an RFC 822 offset and
+ * {@code X} an ISO 8601 one. Characters other than letters are literals, letters unknown to
+ * {@link java.text.SimpleDateFormat} are rejected.
+ * <p/>
+ * The default patterns, {@link Defaults#FORMAT_DATE} and {@link Defaults#FORMAT_DATETIME}, have a fixed width and are
+ * handled by hand-written code reading and writing the digits at their positions. Values this code cannot handle
+ * (other lengths, out-of-range fields, years beyond four digits) go through the {@link DateTimeFormatter}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class TemporalFormat {
+
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    /* Length of the fixed-width layouts: yyyy/MM/dd and yyyy/MM/dd-HH:mm:ss. */
+    private static final int DATE_LENGTH = 10;
+    private static final int DATETIME_LENGTH = 19;
+
+    private static final ConcurrentMap<String, TemporalFormat> FORMATS = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+    /** The length of the fixed-width layout matching the pattern, or {@code 0} if there is none. */
+    private final int fixedLength;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pattern the pattern
+     */
+    private TemporalFormat(String pattern) {
+        this.pattern = pattern;
+        this.formatter = toFormatter(pattern);
+        this.fixedLength = Defaults.FORMAT_DATE.equals(pattern) ? DATE_LENGTH
+                : Defaults.FORMAT_DATETIME.equals(pattern) ? DATETIME_LENGTH : 0;
+    }
+
+    /**
+     * Returns the format for the supplied pattern.
+     *
+     * @param pattern the pattern, as described in {@link java.text.SimpleDateFormat}
+     * @return the format
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static TemporalFormat of(String pattern) {
+        TemporalFormat format = FORMATS.get(pattern);
+        if (format == null) {
+            format = new TemporalFormat(pattern);
+            TemporalFormat existing = FORMATS.putIfAbsent(pattern, format);
+            if (existing != null) {
+                format = existing;
+            }
+        }
+        return format;
+    }
+
+    /**
+     * Builds the formatter for a {@link java.text.SimpleDateFormat} pattern.
+     *
+     * @param pattern the pattern
+     * @return the formatter
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    private static DateTimeFormatter toFormatter(String pattern) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseLenient();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int count = 1;
+            if (c == '\'') {
+                /* Quoted text, '' being an escaped quote: the syntax is the same. */
+                int end = pattern.indexOf('\'', i + 1);
+                while (end > 0 && end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+                    end = pattern.indexOf('\'', end + 2);
+                }
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated quote in pattern <" + pattern + ">.");
+                }
+                count = end + 1 - i;
+                builder.appendPattern(pattern.substring(i, end + 1));
+            } else if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z') {
+                while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                appendField(builder, c, count, pattern);
+            } else {
+                /* Brackets, braces and hashes are reserved by DateTimeFormatter, not by SimpleDateFormat. */
+                builder.appendLiteral(c);
+            }
+            i += count;
+        }
+        return builder.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+    }
+
+    private static void appendField(DateTimeFormatterBuilder builder, char letter, int count, String pattern) {
+        switch (letter) {
+        case 'y':
+            if (count == 2) {
+                builder.appendValueReduced(ChronoField.YEAR_OF_ERA, 2, 2, LocalDate.now().minusYears(80));
+            } else {
+                appendRepeated(builder, letter, count);
+            }
+            break;
+        case 'G':
+        case 'a':
+            appendRepeated(builder, letter, 1);
+            break;
+        case 'M':
+        case 'L':
+        case 'E':
+        case 'z':
+            /* Beyond four letters, DateTimeFormatter uses narrow or no text where SimpleDateFormat uses full text. */
+            appendRepeated(builder, letter, Math.min(count, 4));
+            break;
+        case 'u':
+            appendNumber(builder, ChronoField.DAY_OF_WEEK, count);
+            break;
+        case 'F':
+            appendNumber(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count);
+            break;
+        case 'S':
+            builder.appendValue(ChronoField.MILLI_OF_SECOND, count, Math.max(count, 3), SignStyle.NOT_NEGATIVE);
+            break;
+        case 'Z':
+            builder.appendOffset("+HHMM", "+0000");
+            break;
+        case 'X':
+            if (count > 3) {
+                throw new IllegalArgumentException("Invalid ISO 8601 format in pattern <" + pattern + ">.");
+            }
+            builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM" : "+HH:MM", "Z");
+            break;
+        case 'Y':
+        case 'w':
+        case 'W':
+        case 'D':
+        case 'd':
+        case 'H':
+        case 'k':
+        case 'K':
+        case 'h':
+        case 'm':
+        case 's':
+            appendRepeated(builder, letter, count);
+            break;
+        default:
+            throw new IllegalArgumentException("Illegal pattern character '" + letter + "' in <" + pattern + ">.");
+        }
+    }
+
+    private static void appendRepeated(DateTimeFormatterBuilder builder, char letter, int count) {
+        char[] letters = new char[count];
+        Arrays.fill(letters, letter);
+        builder.appendPattern(new String(letters));
+    }
+
+    private static void appendNumber(DateTimeFormatterBuilder builder, ChronoField field, int count) {
+        if (count == 1) {
+            builder.appendValue(field);
+        } else {
+            builder.appendValue(field, count);
+        }
+    }
+
+    /**
+     * Returns the pattern of this format.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Converts a {@link String} representation of a date to a {@link Date} instance.
+     *
+     * @param value the {@link String} representation of a date
+     * @return a {@link Date} instance
+     * @throws ParsingException if the supplied {@link String} could not be parsed
+     */
+    public Date parse(String value) throws ParsingException {
+        if (fixedLength > 0 && value.length() == fixedLength) {
+            LocalDateTime dateTime = parseFixed(value);
+            if (dateTime != null) {
+                return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+            }
+        }
+
+        TemporalAccessor parsed;
+        try {
+            parsed = formatter.parse(value, new ParsePosition(0));
+        } catch (DateTimeParseException e) {
+            throw new ParsingException(
+                    "Value <" + value + "> could not be parsed to date using format <" + pattern + ">.", e);
+        }
+
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        ZoneId zone = parsed.query(TemporalQueries.zone());
+        return Date.from(ZonedDateTime.of(date == null ? getPartialDate(parsed) : date,
+                time == null ? LocalTime.MIDNIGHT : time, zone == null ? ZoneId.systemDefault() : zone).toInstant());
+    }
+
+    /**
+     * Builds the date from the fields of a pattern which does not describe a full date, defaulting to the epoch.
+     *
+     * @param parsed the parsed fields
+     * @return the date
+     */
+    private static LocalDate getPartialDate(TemporalAccessor parsed) {
+        LocalDate date = EPOCH.withYear(getField(parsed, ChronoField.YEAR, EPOCH.getYear()));
+        return date.plusMonths(getField(parsed, ChronoField.MONTH_OF_YEAR, 1) - 1L)
+                .plusDays(getField(parsed, ChronoField.DAY_OF_MONTH, 1) - 1L);
+    }
+
+    private static int getField(TemporalAccessor parsed, ChronoField field, int defaultValue) {
+        return parsed.isSupported(field) ? parsed.get(field) : defaultValue;
+    }
+
+    /**
+     * Converts a {@link Date} instance to a {@link String} representation.
+     *
+     * @param value the {@link Date}
+     * @return a {@link String} representation of the supplied date
+     */
+    public String format(Date value) {
+        /* Not Date.toInstant(): java.sql.Date and java.sql.Time do not support it. */
+        ZonedDateTime dateTime = Instant.ofEpochMilli(value.getTime()).atZone(ZoneId.systemDefault());
+        if (fixedLength > 0 && dateTime.getYear() >= 1 && dateTime.getYear() <= 9999) {
+            return formatFixed(dateTime);
+        }
+        return formatter.format(dateTime);
+    }
+
+    /**
+     * Reads a value in the fixed-width layout.
+     *
+     * @param value the value, whose length is the layout's
+     * @return the date and time, or {@code null} if the value does not strictly follow the layout
+     */
+    private LocalDateTime parseFixed(String value) {
+        if (value.charAt(4) != '/' || value.charAt(7) != '/') {
+            return null;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (fixedLength == DATETIME_LENGTH) {
+            if (value.charAt(10) != '-' || value.charAt(13) != ':' || value.charAt(16) != ':') {
+                return null;
+            }
+            hour = digits(value, 11, 2);
+            minute = digits(value, 14, 2);
+            second = digits(value, 17, 2);
+        }
+
+        /* Out-of-range fields are rolled over by the lenient formatter, leave them to it. */
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 28 && day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return month == 2 ? (Year.isLeap(year) ? 29 : 28) : month == 4 || month == 6 || month == 9 || month == 11
+                ? 30 : 31;
+    }
+
+    /**
+     * Reads a fixed number of digits.
+     *
+     * @param value  the value
+     * @param offset the position of the first digit
+     * @param length the number of digits
+     * @return the number, or {@code -1} if a character is not a digit
+     */
+    private static int digits(String value, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Writes a value in the fixed-width layout.
+     *
+     * @param dateTime the date and time, whose year is between 1 and 9999
+     * @return the {@link String} representation
+     */
+    private String formatFixed(ZonedDateTime dateTime) {
+        char[] chars = new char[fixedLength];
+        writeDigits(chars, 0, 4, dateTime.getYear());
+        chars[4] = '/';
+        writeDigits(chars, 5, 2, dateTime.getMonthValue());
+        chars[7] = '/';
+        writeDigits(chars, 8, 2, dateTime.getDayOfMonth());
+        if (fixedLength == DATETIME_LENGTH) {
+            chars[10] = '-';
+            writeDigits(chars, 11, 2, dateTime.getHour());
+            chars[13] = ':';
+            writeDigits(chars, 14, 2, dateTime.getMinute());
+            chars[16] = ':';
+            writeDigits(chars, 17, 2, dateTime.getSecond());
+        }
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -1,5 +1,7 @@
 package org.keyboardplaying.mapper.parser;
 
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+
 /**
  * Specific version of {@link SimpleParser} for temporal objects.
  * <p/>
@@ -13,8 +15,26 @@ public interface TemporalParser<T> extends SimpleParser<T> {
 
     /**
      * Sets the format this parser should use.
+     * <p/>
+     * The format is a {@link java.text.SimpleDateFormat} pattern. Implementations relying on a
+     * {@link java.time.format.DateTimeFormatter} must translate the letters both classes interpret differently, as
+     * {@link TemporalFormat} does.
      *
      * @param format the format this parser should use
+     * @throws IllegalArgumentException if the format is not a valid pattern
      */
     void setFormat(String format);
+
+    /**
+     * Returns a new instance of this parser, whose format can be set without affecting this one.
+     * <p/>
+     * The default implementation invokes the no-arg constructor of the parser's class. Parsers without one, or with
+     * settings of their own, should override it.
+     *
+     * @return a new instance of this parser
+     * @throws ParserInitializationException if the new instance cannot be created
+     */
+    default TemporalParser<T> copy() throws ParserInitializationException {
+        return ParserCopies.newInstance(this);
+    }
 }
@@ -0,0 +1,133 @@
+package org.keyboardplaying.mapper.processor;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+import org.keyboardplaying.mapper.annotation.BooleanValues;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.annotation.Temporal;
+
+/**
+ * An annotated field of a bean, as seen by the {@link MapperProcessor}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class BeanField {
+
+    private final VariableElement element;
+    private final Nested nested;
+    private final Metadata metadata;
+    private final ExecutableElement getter;
+    private final ExecutableElement setter;
+    private final TypeMirror getterType;
+    private final TypeMirror setterType;
+
+    /* Resolved types, see setters. */
+    private TypeElement elaborate;
+    private TypeElement nestedImplementation;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param element    the field
+     * @param nested     the {@link Nested} annotation of the field, or {@code null}
+     * @param metadata   the {@link Metadata} annotation of the field, or {@code null} if {@link Nested} is present
+     * @param getter     the getter of the field
+     * @param setter     the setter of the field
+     * @param getterType the return type of the getter, as seen from the bean class
+     * @param setterType the parameter type of the setter, as seen from the bean class
+     */
+    BeanField(VariableElement element, Nested nested, Metadata metadata, ExecutableElement getter,
+              ExecutableElement setter, TypeMirror getterType, TypeMirror setterType) {
+        this.element = element;
+        this.nested = nested;
+        this.metadata = metadata;
+        this.getter = getter;
+        this.setter = setter;
+        this.getterType = getterType;
+        this.setterType = setterType;
+    }
+
+    /**
+     * Returns the qualified name of the field, for error messages.
+     *
+     * @return the declaring class's qualified name and the field's name
+     */
+    String getQualifiedName() {
+        return ((TypeElement) element.getEnclosingElement()).getQualifiedName() + "." + element.getSimpleName();
+    }
+
+    /**
+     * Returns the declared type of the field.
+     *
+     * @return the type of the field
+     */
+    TypeMirror getType() {
+        return element.asType();
+    }
+
+    boolean isNested() {
+        return nested != null;
+    }
+
+    Nested getNested() {
+        return nested;
+    }
+
+    Metadata getMetadata() {
+        return metadata;
+    }
+
+    Temporal getTemporal() {
+        return element.getAnnotation(Temporal.class);
+    }
+
+    BooleanValues getBooleanValues() {
+        return element.getAnnotation(BooleanValues.class);
+    }
+
+    String getGetterName() {
+        return getter.getSimpleName().toString();
+    }
+
+    String getSetterName() {
+        return setter.getSimpleName().toString();
+    }
+
+    TypeMirror getGetterType() {
+        return getterType;
+    }
+
+    TypeMirror getSetterType() {
+        return setterType;
+    }
+
+    /**
+     * Returns the {@link org.keyboardplaying.mapper.parser.ElaborateParser} of the field.
+     *
+     * @return the parser class, or {@code null} if the field uses a simple parser
+     */
+    TypeElement getElaborate() {
+        return elaborate;
+    }
+
+    void setElaborate(TypeElement elaborate) {
+        this.elaborate = elaborate;
+    }
+
+    /**
+     * Returns the class to instantiate for a nested bean.
+     *
+     * @return the class from {@link Nested#className()}, or {@code null} to instantiate the field's type
+     */
+    TypeElement getNestedImplementation() {
+        return nestedImplementation;
+    }
+
+    void setNestedImplementation(TypeElement nestedImplementation) {
+        this.nestedImplementation = nestedImplementation;
+    }
+}
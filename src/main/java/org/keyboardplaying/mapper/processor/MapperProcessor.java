@@ -0,0 +1,296 @@
+package org.keyboardplaying.mapper.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.engine.GeneratedMapper;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+
+/**
+ * Generates a {@link GeneratedMapper} for each bean class declaring fields annotated with {@link Metadata} or
+ * {@link Nested}.
+ * <p/>
+ * A bean class is eligible if it is a public, concrete, non-generic top-level class with a public no-arg constructor,
+ * and if every annotated field, including inherited ones, has a public getter and setter. Classes which are not
+ * eligible are reported with a note and keep being mapped reflectively.
+ * <p/>
+ * The processor is registered as a service and is picked up whenever this library is on the annotation processor
+ * path. It only supports the {@link Metadata} and {@link Nested} annotations, which it never claims, so that the
+ * compiler does not run it on sources which do not use them. Projects which do not want mappers to be generated can
+ * disable it with the {@code -proc:none} compiler option, or by listing their processors with {@code -processor}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SupportedAnnotationTypes({ "org.keyboardplaying.mapper.annotation.Metadata",
+        "org.keyboardplaying.mapper.annotation.Nested" })
+public class MapperProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (annotations.isEmpty()) {
+            /* Nothing to map in this round, e.g. the one compiling the generated mappers. */
+            return false;
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            if (type.getKind() == ElementKind.CLASS) {
+                process(type);
+            }
+        }
+        /* Do not claim the annotations, other processors may want them too. */
+        return false;
+    }
+
+    private void process(TypeElement type) {
+        List<BeanField> fields = new ArrayList<>();
+        String reason = describe(type, fields);
+        if (fields.isEmpty()) {
+            /* Not a bean. */
+            return;
+        }
+
+        if (reason != null) {
+            processingEnv.getMessager().printMessage(Kind.NOTE,
+                    "No mapper generated for " + type.getQualifiedName() + ": " + reason, type);
+            return;
+        }
+
+        String mapperName = type.getQualifiedName() + GeneratedMapper.SUFFIX;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(mapperName, type).openWriter()) {
+            new MapperWriter(processingEnv.getTypeUtils(), type, fields).write(writer);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Mapper " + mapperName + " could not be written: " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Collects the annotated fields of a class and checks a mapper can be generated for it.
+     *
+     * @param type   the class
+     * @param fields the list to which the annotated fields are added
+     * @return the reason why no mapper can be generated, or {@code null} if the class is eligible
+     */
+    private String describe(TypeElement type, List<BeanField> fields) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        String reason = checkClass(type);
+
+        DeclaredType beanType = (DeclaredType) type.asType();
+        List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(type));
+
+        /* Walk the hierarchy in the order the engines do: declared fields first, then superclasses. */
+        for (TypeElement klass = type; klass != null; klass = superclass(klass)) {
+            for (VariableElement field : ElementFilter.fieldsIn(klass.getEnclosedElements())) {
+                Nested nested = field.getAnnotation(Nested.class);
+                Metadata metadata = nested == null ? field.getAnnotation(Metadata.class) : null;
+                if (nested == null && metadata == null) {
+                    continue;
+                }
+
+                ExecutableElement getter = findGetter(methods, field);
+                ExecutableElement setter = findSetter(methods, field, getter, beanType);
+                if (getter == null || setter == null) {
+                    /* Still counts as an annotated field, though it cannot be described. */
+                    fields.add(null);
+                    reason = reason != null ? reason
+                            : "field " + field.getSimpleName() + " does not possess a public getter and setter";
+                    continue;
+                }
+
+                BeanField beanField = new BeanField(field, nested, metadata, getter, setter,
+                        ((ExecutableType) types.asMemberOf(beanType, getter)).getReturnType(),
+                        ((ExecutableType) types.asMemberOf(beanType, setter)).getParameterTypes().get(0));
+                fields.add(beanField);
+                if (reason == null) {
+                    reason = nested != null ? resolveNested(beanField) : resolveMetadata(beanField);
+                }
+            }
+        }
+
+        return reason;
+    }
+
+    private String checkClass(TypeElement type) {
+        String reason = null;
+        if (type.getNestingKind().isNested()) {
+            reason = "class is not a top-level class";
+        } else if (!type.getModifiers().contains(Modifier.PUBLIC) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            reason = "class is not public and concrete";
+        } else if (!type.getTypeParameters().isEmpty()) {
+            reason = "class is generic";
+        } else if (!hasPublicNoArgConstructor(type)) {
+            reason = "class does not provide a public no-arg constructor";
+        } else if (isNameTaken(type)) {
+            reason = "a class named " + type.getSimpleName() + GeneratedMapper.SUFFIX + " already exists";
+        }
+        return reason;
+    }
+
+    /**
+     * Tells whether the name of the mapper is used by a class which is not a mapper, and would therefore clash with
+     * it. Mappers generated by a previous compilation are simply replaced.
+     *
+     * @param type the bean class
+     * @return {@code true} if the mapper cannot be generated under its name
+     */
+    private boolean isNameTaken(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        TypeElement existing = elements.getTypeElement(type.getQualifiedName() + GeneratedMapper.SUFFIX);
+        return existing != null && !types.isSubtype(types.erasure(existing.asType()),
+                types.erasure(elements.getTypeElement(GeneratedMapper.class.getCanonicalName()).asType()));
+    }
+
+    private String resolveNested(BeanField field) {
+        String className = field.getNested().className();
+        if (!className.isEmpty()) {
+            TypeElement implementation = processingEnv.getElementUtils().getTypeElement(className);
+            Types types = processingEnv.getTypeUtils();
+            if (implementation == null || !isPublic(implementation)
+                    || !types.isAssignable(types.erasure(implementation.asType()), types.erasure(field.getType()))) {
+                return "class " + className + " of nested field " + field.getQualifiedName()
+                        + " cannot be resolved to a public subtype of the field";
+            }
+            field.setNestedImplementation(implementation);
+        } else if (field.getType().getKind() != TypeKind.DECLARED
+                || !isPublic((TypeElement) processingEnv.getTypeUtils().asElement(field.getType()))) {
+            return "nested field " + field.getQualifiedName() + " is not of a public class type";
+        }
+        return null;
+    }
+
+    private String resolveMetadata(BeanField field) {
+        TypeElement elaborate = getElaborate(field.getMetadata());
+        if (elaborate != null) {
+            if (!isPublic(elaborate) || !hasPublicNoArgConstructor(elaborate)
+                    || elaborate.getModifiers().contains(Modifier.ABSTRACT)) {
+                return "parser " + elaborate.getQualifiedName() + " cannot be instantiated";
+            }
+            field.setElaborate(elaborate);
+        } else if (field.getMetadata().value().isEmpty()) {
+            return "field " + field.getQualifiedName() + " provides neither a key nor an elaborate parser";
+        } else if (field.getType().getKind() == TypeKind.TYPEVAR) {
+            return "field " + field.getQualifiedName() + " has a generic type";
+        }
+        return null;
+    }
+
+    private TypeElement getElaborate(Metadata metadata) {
+        TypeMirror mirror;
+        try {
+            Class<?> parser = metadata.elaborate();
+            mirror = processingEnv.getElementUtils().getTypeElement(parser.getCanonicalName()).asType();
+        } catch (MirroredTypeException e) {
+            /* The class may not exist yet, it is only available as a mirror. */
+            mirror = e.getTypeMirror();
+        }
+        TypeElement parser = (TypeElement) processingEnv.getTypeUtils().asElement(mirror);
+        return parser.getQualifiedName().contentEquals(ElaborateParser.None.class.getCanonicalName()) ? null : parser;
+    }
+
+    private ExecutableElement findGetter(List<ExecutableElement> methods, VariableElement field) {
+        String capitalized = capitalize(field.getSimpleName().toString());
+        ExecutableElement getter = findMethod(methods, "is" + capitalized, null);
+        if (getter == null) {
+            getter = findMethod(methods, "get" + capitalized, null);
+        }
+        return getter == null || getter.getReturnType().getKind() == TypeKind.VOID ? null : getter;
+    }
+
+    private ExecutableElement findSetter(List<ExecutableElement> methods, VariableElement field,
+                                         ExecutableElement getter, DeclaredType beanType) {
+        String name = "set" + capitalize(field.getSimpleName().toString());
+        ExecutableElement setter = findMethod(methods, name, field.asType());
+        if (setter == null && getter != null) {
+            setter = findMethod(methods, name,
+                    ((ExecutableType) processingEnv.getTypeUtils().asMemberOf(beanType, getter)).getReturnType());
+        }
+        return setter;
+    }
+
+    /**
+     * Finds a public method, comparing erased parameter types as {@link Class#getMethod(String, Class[])} would.
+     *
+     * @param methods       the methods of the class
+     * @param name          the name of the method
+     * @param parameterType the type of the single parameter, or {@code null} for a method without parameters
+     * @return the method, or {@code null} if none was found
+     */
+    private ExecutableElement findMethod(List<ExecutableElement> methods, String name, TypeMirror parameterType) {
+        Types types = processingEnv.getTypeUtils();
+        for (ExecutableElement method : methods) {
+            if (!method.getSimpleName().contentEquals(name) || !method.getModifiers().contains(Modifier.PUBLIC)
+                    || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (parameterType == null ? parameters.isEmpty()
+                    : parameters.size() == 1 && types.isSameType(types.erasure(parameters.get(0).asType()),
+                    types.erasure(parameterType))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private TypeElement superclass(TypeElement klass) {
+        TypeMirror superclass = klass.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(superclass);
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private static boolean hasPublicNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPublic(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
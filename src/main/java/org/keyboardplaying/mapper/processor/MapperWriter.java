@@ -0,0 +1,390 @@
+package org.keyboardplaying.mapper.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+import org.keyboardplaying.mapper.annotation.BooleanValues;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.engine.GeneratedMapper;
+import org.keyboardplaying.mapper.engine.MappingEngine;
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+
+/**
+ * Writes the source of the {@link GeneratedMapper} of a bean class.
+ * <p/>
+ * The generated code mirrors what the engines do reflectively, field after field, in the same order. Types are
+ * always written with their qualified names so that no import can clash with the bean's own types.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+final class MapperWriter {
+
+    private static final String INDENT = "    ";
+
+    private final Types types;
+    private final TypeElement type;
+    private final List<BeanField> fields;
+
+    private final StringBuilder out = new StringBuilder();
+    private int depth;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param types  the type utilities of the processing environment
+     * @param type   the bean class
+     * @param fields the annotated fields of the bean class, in mapping order
+     */
+    MapperWriter(Types types, TypeElement type, List<BeanField> fields) {
+        this.types = types;
+        this.type = type;
+        this.fields = fields;
+    }
+
+    /**
+     * Writes the source of the mapper.
+     *
+     * @param writer the destination
+     * @throws IOException if the source cannot be written
+     */
+    void write(Writer writer) throws IOException {
+        String beanName = type.getQualifiedName().toString();
+        String mapperName = type.getSimpleName() + GeneratedMapper.SUFFIX;
+        PackageElement pkg = (PackageElement) type.getEnclosingElement();
+
+        if (!pkg.isUnnamed()) {
+            line("package " + pkg.getQualifiedName() + ";");
+            line("");
+        }
+        line("/**");
+        line(" * Maps {@link " + beanName + "}, generated by " + MapperProcessor.class.getName() + ".");
+        line(" */");
+        line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        open("public final class " + mapperName + " extends " + GeneratedMapper.class.getName() + "<" + beanName
+                + ">");
+        line("");
+
+        writeParsers(mapperName, beanName);
+        writeNewInstance(beanName);
+        writeMap(beanName);
+        writeUnmap(beanName);
+
+        close();
+        writer.write(out.toString());
+    }
+
+    private void writeParsers(String mapperName, String beanName) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (hasParser(fields.get(i))) {
+                line("private final " + SimpleParser.class.getName() + " p" + i + ";");
+            }
+            if (hasDefaultValue(fields.get(i))) {
+                line("private final " + AtomicReference.class.getName() + " d" + i + " = new "
+                        + AtomicReference.class.getName() + "();");
+            }
+        }
+        line("");
+
+        open("public " + mapperName + "() throws " + MapperException.class.getName());
+        line("super(" + beanName + ".class);");
+        for (int i = 0; i < fields.size(); i++) {
+            BeanField field = fields.get(i);
+            if (hasParser(field)) {
+                Temporal temporal = field.getTemporal();
+                BooleanValues booleanValues = field.getBooleanValues();
+                line("p" + i + " = parser(" + types.erasure(field.getType()) + ".class, " + literal(
+                        field.getQualifiedName()) + ", " + (temporal == null ? "null"
+                        : Temporal.TemporalType.class.getCanonicalName() + "." + temporal.value().name()) + ", "
+                        + (booleanValues == null ? "null, null"
+                        : literal(booleanValues.whenTrue()) + ", " + literal(booleanValues.whenFalse())) + ");");
+            }
+        }
+        close();
+    }
+
+    private void writeNewInstance(String beanName) {
+        line("");
+        line("@Override");
+        open("public " + beanName + " newInstance()");
+        line("return new " + beanName + "();");
+        close();
+    }
+
+    private void writeMap(String beanName) {
+        line("");
+        line("@Override");
+        open("public void map(" + beanName + " bean, java.util.Map<java.lang.String, java.lang.String> map, "
+                + MappingEngine.class.getName() + " engine) throws " + MapperException.class.getName());
+        for (int i = 0; i < fields.size(); i++) {
+            BeanField field = fields.get(i);
+            String name = literal(field.getQualifiedName());
+            String getter = "bean." + field.getGetterName() + "()";
+
+            if (field.isNested()) {
+                line("mapNested(" + getter + ", map, engine, " + field.getNested().mandatory() + ", " + name + ");");
+                continue;
+            }
+
+            Metadata metadata = field.getMetadata();
+            open("");
+            line(field.getGetterType() + " value = " + getter + ";");
+            String put;
+            if (field.getElaborate() != null) {
+                put = "toMap(elaborate((java.lang.Class) " + field.getElaborate().getQualifiedName()
+                        + ".class), value, map, " + name + ");";
+            } else if (isPrimitive(field.getGetterType())) {
+                put = "map.put(" + literal(metadata.value()) + ", " + formatMethod(field.getGetterType()) + "(p" + i
+                        + ", value, " + name + "));";
+            } else {
+                put = "map.put(" + literal(metadata.value()) + ", value == null ? null : format(p" + i + ", value, "
+                        + name + "));";
+            }
+            if (isPrimitive(field.getGetterType())) {
+                line(put);
+            } else {
+                open("if (value != null || !putDefault(map, " + literal(metadata.value()) + ", "
+                        + literal(metadata.defaultMetadata()) + ", " + metadata.blankDefaultMetadata() + ", "
+                        + metadata.mandatory() + ", " + name + "))");
+                line(put);
+                close();
+            }
+            close();
+        }
+        close();
+    }
+
+    private void writeUnmap(String beanName) {
+        line("");
+        line("@Override");
+        open("public void unmap(java.util.Map<java.lang.String, java.lang.String> map, " + beanName + " bean, "
+                + UnmappingEngine.class.getName() + " engine) throws " + MapperException.class.getName());
+        for (int i = 0; i < fields.size(); i++) {
+            BeanField field = fields.get(i);
+            if (field.isNested()) {
+                writeNestedUnmap(field);
+            } else if (field.getElaborate() != null) {
+                writeElaborateUnmap(field);
+            } else {
+                writeFieldUnmap(field, i);
+            }
+        }
+        close();
+    }
+
+    private void writeNestedUnmap(BeanField field) {
+        boolean mandatory = field.getNested().mandatory();
+        TypeElement implementation = field.getNestedImplementation();
+        String instantiated = implementation == null ? types.erasure(field.getType()).toString()
+                : implementation.getQualifiedName().toString();
+
+        open(mandatory ? "" : "try");
+        line(field.getGetterType() + " value = bean." + field.getGetterName() + "();");
+        open("if (value == null)");
+        line("bean." + field.getSetterName() + "(engine.unmapToClass(map, " + instantiated + ".class));");
+        close("} else {");
+        line("engine.unmapToBean(map, value);");
+        close();
+        if (mandatory) {
+            close();
+        } else {
+            close("} catch (" + MapperException.class.getName() + " e) {");
+            line("/* Nested bean is not mandatory. */");
+            close();
+        }
+    }
+
+    private void writeElaborateUnmap(BeanField field) {
+        open("");
+        line("java.lang.Object value = fromMap(elaborate((java.lang.Class) " + field.getElaborate().getQualifiedName()
+                + ".class), map, " + literal(field.getQualifiedName()) + ");");
+        line("bean." + field.getSetterName() + "(value == null ? " + defaultValue(field.getSetterType()) + " : ("
+                + boxed(field.getSetterType()) + ") value);");
+        close();
+    }
+
+    private void writeFieldUnmap(BeanField field, int index) {
+        Metadata metadata = field.getMetadata();
+        String key = literal(metadata.value());
+        String name = literal(field.getQualifiedName());
+        String setter = "bean." + field.getSetterName();
+        String cast = "(" + boxed(field.getSetterType()) + ") ";
+
+        open("if (map.containsKey(" + key + "))");
+        line("java.lang.String value = map.get(" + key + ");");
+        String parse = parseMethod(field.getSetterType());
+        line(setter + "(value == null ? " + defaultValue(field.getSetterType()) + " : "
+                + ("parse".equals(parse) ? cast : "") + parse + "(p" + index + ", value, " + name + "));");
+        if (!metadata.defaultValue().isEmpty()) {
+            close("} else {");
+            line(setter + "(" + cast + "parseDefault(p" + index + ", " + literal(metadata.defaultValue()) + ", "
+                    + name + ", d" + index + "));");
+        } else if (metadata.blankDefaultValue()) {
+            close("} else {");
+            line(setter + "(" + cast + "parseDefault(p" + index + ", \"\", " + name + ", d" + index + "));");
+        } else if (metadata.mandatory()) {
+            close("} else {");
+            line("throw missing(" + key + ", map);");
+        }
+        close();
+    }
+
+    private static boolean hasParser(BeanField field) {
+        return !field.isNested() && field.getElaborate() == null;
+    }
+
+    private static boolean hasDefaultValue(BeanField field) {
+        return hasParser(field) && (!field.getMetadata().defaultValue().isEmpty()
+                || field.getMetadata().blankDefaultValue());
+    }
+
+    /**
+     * Returns the method of {@link GeneratedMapper} formatting values of the supplied type.
+     *
+     * @param type the type of the getter
+     * @return the name of a method converting the primitive value without boxing it if possible, {@code format}
+     * otherwise
+     */
+    private static String formatMethod(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return "formatInt";
+            case LONG:
+                return "formatLong";
+            case BOOLEAN:
+                return "formatBoolean";
+            default:
+                return "format";
+        }
+    }
+
+    /**
+     * Returns the method of {@link GeneratedMapper} parsing values of the supplied type.
+     *
+     * @param type the type of the setter
+     * @return the name of a method converting the primitive value without boxing it if possible, {@code parse}
+     * otherwise
+     */
+    private static String parseMethod(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return "parseInt";
+            case LONG:
+                return "parseLong";
+            case BOOLEAN:
+                return "parseBoolean";
+            default:
+                return "parse";
+        }
+    }
+
+    private static boolean isPrimitive(TypeMirror type) {
+        return type.getKind().isPrimitive();
+    }
+
+    private String boxed(TypeMirror type) {
+        return isPrimitive(type) ? types.boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                : type.toString();
+    }
+
+    /**
+     * Returns the value the engines set when the metadata is {@code null}.
+     *
+     * @param type the type of the field
+     * @return the literal of the default value of the type
+     */
+    private static String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case BYTE:
+                return "(byte) 0";
+            case CHAR:
+                return "(char) 0";
+            case SHORT:
+                return "(short) 0";
+            case INT:
+                return "0";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            default:
+                return "null";
+        }
+    }
+
+    private static String literal(String[] values) {
+        StringBuilder literal = new StringBuilder("new java.lang.String[] {");
+        for (int i = 0; i < values.length; i++) {
+            literal.append(i == 0 ? "" : ", ").append(literal(values[i]));
+        }
+        return literal.append('}').toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void open(String statement) {
+        line(statement.isEmpty() ? "{" : statement + " {");
+        depth++;
+    }
+
+    private void close() {
+        close("}");
+    }
+
+    private void close(String statement) {
+        depth--;
+        line(statement);
+        if (!"}".equals(statement)) {
+            depth++;
+        }
+    }
+
+    private void line(String line) {
+        for (int i = 0; i < depth && !line.isEmpty(); i++) {
+            out.append(INDENT);
+        }
+        out.append(line).append('\n');
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The annotation processor generating the mappers of the annotated beans at compile time.
+ */
+package org.keyboardplaying.mapper.processor;
@@ -0,0 +1,119 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestInnerImpl;
+
+/**
+ * Tests for {@link UnmappingEngine#applyChanges(Map, Object)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class ApplyChangesTest {
+
+    private final UnmappingEngine engine = new UnmappingEngine();
+
+    @Test
+    public void testOnlyChangedFieldsAreSet() throws MapperException {
+        CountingBean bean = new CountingBean();
+
+        assertSame(bean, engine.applyChanges(Collections.singletonMap("b", "changed"), bean));
+
+        assertEquals("a", bean.a);
+        assertEquals("changed", bean.b);
+        assertEquals(0, bean.aWrites);
+        assertEquals(1, bean.bWrites);
+    }
+
+    @Test
+    public void testNoDefaultsNorMandatoryChecks() throws MapperException {
+        TestBean bean = new TestBean();
+        bean.setHello("Hello");
+
+        engine.applyChanges(Collections.singletonMap("some_int", "7"), bean);
+
+        assertEquals(7, bean.getSomeInt());
+        assertEquals("Hello", bean.getHello());
+        assertNull(bean.getMandatory());
+    }
+
+    @Test
+    public void testNestedBeans() throws MapperException {
+        TestBean bean = new TestBean();
+        TestInnerImpl inner = new TestInnerImpl();
+        inner.setHello("Hello");
+        bean.setInnerImpl(inner);
+
+        engine.applyChanges(Collections.singletonMap("hello_world_inner", "Bye"), bean);
+
+        assertSame(inner, bean.getInnerImpl());
+        assertEquals("Bye", inner.getHello());
+        /* The nested bean was null and the change-set holds its key. */
+        assertNotNull(bean.getInnerItf());
+        assertEquals("Bye", bean.getInnerItf().getHello());
+    }
+
+    @Test
+    public void testUntouchedNullNestedBeanStaysNull() throws MapperException {
+        TestBean bean = new TestBean();
+
+        engine.applyChanges(Collections.singletonMap("some_int", "7"), bean);
+
+        assertNull(bean.getInnerImpl());
+        assertNull(bean.getInnerItf());
+    }
+
+    @Test
+    public void testElaborateFieldsAreSkipped() throws MapperException {
+        TestBean bean = new TestBean();
+        bean.setContact("Pikachu (+1 23 45 67 89)");
+
+        Map<String, String> changes = new HashMap<>();
+        changes.put("somebody_s_name", "Raichu");
+        engine.applyChanges(changes, bean);
+
+        assertEquals("Pikachu (+1 23 45 67 89)", bean.getContact());
+    }
+
+    public static class CountingBean {
+
+        @Metadata("a")
+        private String a = "a";
+
+        @Metadata("b")
+        private String b = "b";
+
+        private int aWrites;
+        private int bWrites;
+
+        public String getA() {
+            return a;
+        }
+
+        public void setA(String a) {
+            aWrites++;
+            this.a = a;
+        }
+
+        public String getB() {
+            return b;
+        }
+
+        public void setB(String b) {
+            bWrites++;
+            this.b = b;
+        }
+    }
+}
@@ -2,12 +2,22 @@ package org.keyboardplaying.mapper.engine;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.math.BigInteger;
+import java.net.URL;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 import org.keyboardplaying.mapper.exception.ParserInitializationException;
@@ -48,14 +58,20 @@ public class AutoDiscoverParserProviderTest {
     }
 
     /**
-     * Tests the fetching of a standard parser for a subclass.
-     * <p/>
-     * The descriptor file must be defined for the subclass.
+     * Tests the fetching of a standard parser for a subclass, which has no descriptor of its own.
      */
     @Test
     public void testGetSubclassParser() throws ParserInitializationException {
-        // you still need to write a descriptor for GregorianCalendar, though
         assertParserClass(CalendarParser.class, GregorianCalendar.class);
+        assertParserClass(ExtendedDateParser.class, Timestamp.class);
+    }
+
+    /**
+     * Tests the fetching of the parser of a wrapper type for its primitive type.
+     */
+    @Test
+    public void testGetPrimitiveCounterpartParser() throws ParserInitializationException {
+        assertParserClass(DoubleParser.class, double.class);
     }
 
     /**
@@ -68,6 +84,21 @@ public class AutoDiscoverParserProviderTest {
         provider.getParser(char.class);
     }
 
+    /**
+     * Ensures a type without a descriptor keeps failing once its absence was remembered.
+     */
+    @Test
+    public void testGetParserWithoutDescriptorTwice() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.getParser(float.class);
+                fail("A ParserInitializationException was expected.");
+            } catch (ParserInitializationException e) {
+                assertEquals("No parser descriptor found for type float.", e.getMessage());
+            }
+        }
+    }
+
     /**
      * Tests the fetching of a SimpleParser when the descriptor file is empty.
      */
@@ -105,7 +136,7 @@ public class AutoDiscoverParserProviderTest {
     }
 
     /**
-     * Tests the fetching of a SimpleParser defined within using project.
+     * Tests the fetching of a SimpleParser defined within using project through a descriptor file.
      */
     @Test
     public void testGetExtensibleParser() throws ParserInitializationException {
@@ -113,13 +144,38 @@ public class AutoDiscoverParserProviderTest {
     }
 
     /**
-     * Tests the fetching of a SimpleParser for a class whose descriptor overrides one defined by default.
+     * Tests the fetching of a SimpleParser for a class whose index entry overrides one defined by default.
      */
     @Test
-    public void testDescriptorOverriding() throws ParserInitializationException {
+    public void testIndexOverriding() throws ParserInitializationException {
         assertParserClass(ExtendedDateParser.class, Date.class);
     }
 
+    /**
+     * Ensures the descriptor of a type is not looked for when an index binds it.
+     */
+    @Test
+    public void testIndexedTypeSkipsDescriptorLookup() throws ParserInitializationException {
+        final List<String> lookups = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(new ClassLoader(original) {
+            @Override
+            public URL getResource(String name) {
+                if (name.startsWith("META-INF/services/org.keyboardplaying.mapper.parser/")) {
+                    lookups.add(name);
+                }
+                return super.getResource(name);
+            }
+        });
+        try {
+            assertParserClass(StringParser.class, CharSequence.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        assertTrue(lookups.toString(), lookups.isEmpty());
+    }
+
     /**
      * Tests the fetching of a SimpleParser when the class in the descriptor is not a parser.
      */
@@ -138,6 +194,27 @@ public class AutoDiscoverParserProviderTest {
         provider.getParser(Byte.class);
     }
 
+    /**
+     * Ensures concurrent lookups all get the same parser instance, including for types sharing a parser.
+     */
+    @Test
+    public void testConcurrentGetParser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Object>> lookups = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                Class<?> type = i % 2 == 0 ? int.class : Integer.class;
+                lookups.add(() -> provider.getParser(type));
+            }
+            Object expected = provider.getParser(Integer.class);
+            for (Future<Object> parser : executor.invokeAll(lookups)) {
+                assertSame(expected, parser.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private void assertParserClass(Class<?> expectedParserClass, Class<?> fieldClass)
             throws ParserInitializationException {
         assertEquals(expectedParserClass, provider.getParser(fieldClass).getClass());
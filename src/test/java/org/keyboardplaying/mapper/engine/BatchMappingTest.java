@@ -0,0 +1,215 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestSubBean;
+
+/**
+ * Tests for the batch methods of the {@link MappingEngine} and {@link UnmappingEngine}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class BatchMappingTest {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(3);
+
+    private final MappingEngine mappingEngine = new MappingEngine();
+    private final UnmappingEngine unmappingEngine = new UnmappingEngine();
+
+    @AfterClass
+    public static void shutdownExecutor() {
+        EXECUTOR.shutdown();
+    }
+
+    @Test
+    public void testMapAll() throws MapperException {
+        assertMapped(mappingEngine.mapAll(makeBeans()));
+    }
+
+    @Test
+    public void testMapAllInForkJoinPool() throws MapperException {
+        assertMapped(mappingEngine.mapAll(makeBeans(), ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testMapAllInExecutor() throws MapperException {
+        // not a random-access list
+        assertMapped(mappingEngine.mapAll(new LinkedHashSet<>(makeBeans()), EXECUTOR));
+    }
+
+    @Test
+    public void testMapAllEmpty() throws MapperException {
+        assertEquals(0, mappingEngine.mapAll(new ArrayList<>(), EXECUTOR).size());
+    }
+
+    @Test(expected = MappingException.class)
+    public void testMapAllFailure() throws MapperException {
+        List<TestBean> beans = makeBeans();
+        beans.get(BATCH_SIZE / 2).setMandatory(null);
+
+        mappingEngine.mapAll(beans, EXECUTOR);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMapAllWithNullBean() throws MapperException {
+        List<TestBean> beans = makeBeans();
+        beans.set(BATCH_SIZE - 1, null);
+
+        mappingEngine.mapAll(beans, EXECUTOR);
+    }
+
+    /**
+     * Ensures no slice is processed once a rejection was reported: the running one is waited for, the pending one is
+     * abandoned.
+     */
+    @Test
+    public void testMapAllRejected() throws Exception {
+        List<CountingBean> beans = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            beans.add(new CountingBean());
+        }
+        final List<Future<?>> accepted = new ArrayList<>();
+        final List<Runnable> pending = new ArrayList<>();
+        Executor rejecting = new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                if (accepted.isEmpty()) {
+                    accepted.add(EXECUTOR.submit(task));
+                } else if (pending.isEmpty()) {
+                    pending.add(task);
+                } else {
+                    throw new RejectedExecutionException("Saturated");
+                }
+            }
+        };
+
+        try {
+            mappingEngine.mapAll(beans, rejecting);
+            fail("The rejection should be reported.");
+        } catch (RejectedExecutionException e) {
+            int reads = CountingBean.READS.get();
+            accepted.get(0).get();
+            pending.get(0).run();
+            assertEquals(reads, CountingBean.READS.get());
+        }
+    }
+
+    @Test
+    public void testMapAllFromExecutorThread() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            assertMapped(single.submit(() -> mappingEngine.mapAll(makeBeans(), single)).get());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnmapAll() throws MapperException {
+        assertUnmapped(unmappingEngine.unmapAll(makeMetadata(), TestBean.class));
+    }
+
+    @Test
+    public void testUnmapAllInExecutor() throws MapperException {
+        assertUnmapped(unmappingEngine.unmapAll(makeMetadata(), TestBean.class, EXECUTOR));
+    }
+
+    @Test(expected = MappingException.class)
+    public void testUnmapAllFailure() throws MapperException {
+        List<Map<String, String>> metadata = makeMetadata();
+        metadata.get(1).remove("Do do do");
+
+        unmappingEngine.unmapAll(metadata, TestBean.class, ForkJoinPool.commonPool());
+    }
+
+    public static class CountingBean {
+
+        static final AtomicInteger READS = new AtomicInteger();
+
+        @Metadata("value")
+        private String value = "value";
+
+        public String getValue() {
+            READS.incrementAndGet();
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    /* Mixes bean classes to make sure each bean is mapped according to its own class. */
+    private List<TestBean> makeBeans() {
+        List<TestBean> beans = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            TestBean bean;
+            if (i % 3 == 0) {
+                TestSubBean sub = new TestSubBean();
+                sub.setHelloSub("sub " + i);
+                bean = sub;
+            } else {
+                bean = new TestBean();
+            }
+            bean.setMandatory("mandatory");
+            bean.setHello("hello " + i);
+            bean.setSomeInt(i);
+            beans.add(bean);
+        }
+        return beans;
+    }
+
+    private void assertMapped(List<Map<String, String>> maps) {
+        assertEquals(BATCH_SIZE, maps.size());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, String> map = maps.get(i);
+            assertEquals("hello " + i, map.get("hello_world"));
+            assertEquals(String.valueOf(i), map.get("some_int"));
+            assertEquals(i % 3 == 0 ? "sub " + i : null, map.get("hello_world_sub"));
+        }
+    }
+
+    private List<Map<String, String>> makeMetadata() {
+        List<Map<String, String>> metadata = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, String> map = new HashMap<>();
+            map.put("Do do do", "mandatory");
+            map.put("some_int", String.valueOf(i));
+            metadata.add(map);
+        }
+        return metadata;
+    }
+
+    private void assertUnmapped(Collection<TestBean> beans) {
+        assertEquals(BATCH_SIZE, beans.size());
+        int i = 0;
+        for (TestBean bean : beans) {
+            assertEquals(TestBean.class, bean.getClass());
+            assertEquals(i++, bean.getSomeInt());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestInnerImpl;
+
+/**
+ * Tests for {@link MappingEngine#view(Object)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class BeanMapViewTest {
+
+    private final MappingEngine engine = new MappingEngine();
+
+    @Test
+    public void testSameAsMap() throws MapperException {
+        TestBean bean = new TestBean();
+        bean.setMandatory("De da da da");
+        bean.setSomeInt(42);
+        bean.setContact("Pikachu (+1 23 45 67 89)");
+        TestInnerImpl inner = new TestInnerImpl();
+        inner.setHello("Hello, Little Big Planet!");
+        bean.setInnerImpl(inner);
+
+        Map<String, String> expected = engine.map(bean);
+        Map<String, String> view = engine.view(bean);
+
+        assertEquals(expected, view);
+        assertEquals(view, expected);
+        assertEquals(expected.size(), view.size());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertTrue(view.containsKey(entry.getKey()));
+            assertEquals(entry.getValue(), view.get(entry.getKey()));
+        }
+        assertFalse(view.containsKey("unknown"));
+        assertNull(view.get("unknown"));
+    }
+
+    @Test
+    public void testGetReadsOnlyOneField() {
+        CountingBean bean = new CountingBean();
+
+        assertEquals("a", engine.view(bean).get("a"));
+        assertEquals(1, bean.aReads);
+        assertEquals(0, bean.bReads);
+    }
+
+    @Test
+    public void testViewIsLive() {
+        CountingBean bean = new CountingBean();
+        Map<String, String> view = engine.view(bean);
+
+        bean.setB("changed");
+
+        assertEquals("changed", view.get("b"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        engine.view(new CountingBean()).put("a", "value");
+    }
+
+    @Test(expected = UncheckedMapperException.class)
+    public void testMissingMandatory() {
+        engine.view(new TestBean()).get("Do do do");
+    }
+
+    @Test
+    public void testLastFieldPrevails() throws MapperException {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("key", "second");
+
+        assertEquals(expected, engine.map(new DuplicateKeyBean()));
+        assertEquals(expected, engine.view(new DuplicateKeyBean()));
+        assertEquals("second", engine.view(new DuplicateKeyBean()).get("key"));
+    }
+
+    public static class CountingBean {
+
+        @Metadata("a")
+        private String a = "a";
+
+        @Metadata("b")
+        private String b = "b";
+
+        private int aReads;
+        private int bReads;
+
+        public String getA() {
+            aReads++;
+            return a;
+        }
+
+        public void setA(String a) {
+            this.a = a;
+        }
+
+        public String getB() {
+            bReads++;
+            return b;
+        }
+
+        public void setB(String b) {
+            this.b = b;
+        }
+    }
+
+    public static class DuplicateKeyBean {
+
+        @Metadata("key")
+        private String first = "first";
+
+        @Metadata("key")
+        private String second = "second";
+
+        public String getFirst() {
+            return first;
+        }
+
+        public void setFirst(String first) {
+            this.first = first;
+        }
+
+        public String getSecond() {
+            return second;
+        }
+
+        public void setSecond(String second) {
+            this.second = second;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+import org.keyboardplaying.mapper.parser.ContactParser;
+import org.keyboardplaying.mapper.parser.ElaborateParser;
+
+/**
+ * Tests for the {@link ElaborateParserRegistry}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class ElaborateParserRegistryTest {
+
+    @Test
+    public void testShareableParserIsSharedBetweenThreads() throws Exception {
+        ElaborateParser<String> parser = ElaborateParserRegistry.get(ContactParser.class);
+
+        assertSame(parser, ElaborateParserRegistry.get(ContactParser.class));
+        assertSame(parser, inOtherThread(ContactParser.class));
+    }
+
+    @Test
+    public void testStatefulParserIsInstantiatedOnEachCall() throws Exception {
+        ElaborateParser<Object> parser = ElaborateParserRegistry.get(StatefulParser.class);
+
+        /* A stateful parser may be required again while in use, e.g. for a nested bean: it must get a new instance. */
+        assertNotSame(parser, ElaborateParserRegistry.get(StatefulParser.class));
+        assertNotSame(parser, inOtherThread(StatefulParser.class));
+    }
+
+    @Test(expected = ParserInitializationException.class)
+    public void testParserWithoutNoArgConstructor() throws MapperException {
+        ElaborateParserRegistry.get(UninstantiableParser.class);
+    }
+
+    private static <F> ElaborateParser<F> inOtherThread(final Class<? extends ElaborateParser<F>> parserClass)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(new Callable<ElaborateParser<F>>() {
+                @Override
+                public ElaborateParser<F> call() throws MapperException {
+                    return ElaborateParserRegistry.get(parserClass);
+                }
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static class StatefulParser implements ElaborateParser<Object> {
+
+        @Override
+        public Object fromMap(Map<String, String> map) {
+            return null;
+        }
+
+        @Override
+        public void toMap(Object value, Map<String, String> map) {
+        }
+    }
+
+    public static class UninstantiableParser extends StatefulParser {
+
+        public UninstantiableParser(String argument) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestClashingBean;
+import org.keyboardplaying.mapper.mock.bean.TestClashingBeanMapper;
+import org.keyboardplaying.mapper.mock.bean.TestSubBean;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+
+/**
+ * Tests the lookup of the {@link GeneratedMapper}s produced at test compilation.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class GeneratedMapperTest {
+
+    @Test
+    public void testGeneratedMapperIsFound() {
+        MappingEngine engine = new MappingEngine();
+
+        GeneratedMapper<TestSubBean> mapper = engine.getGeneratedMapper(TestSubBean.class);
+
+        assertNotNull(mapper);
+        assertEquals(TestSubBean.class, mapper.getBeanType());
+    }
+
+    @Test
+    public void testGeneratedMapperIsIgnoredWhenDisabled() {
+        MappingEngine engine = new MappingEngine();
+        engine.setUseGeneratedMappers(false);
+
+        assertNull(engine.getGeneratedMapper(TestBean.class));
+    }
+
+    @Test
+    public void testGeneratedMapperIsIgnoredWithCustomProvider() {
+        MappingEngine engine = new MappingEngine();
+        engine.setParserProvider(new ParserProvider() {
+            @Override
+            public <T> SimpleParser<T> getParser(Class<T> klass) {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        assertNull(engine.getGeneratedMapper(TestBean.class));
+    }
+
+    @Test
+    public void testNoMapperForClassWithoutAnnotatedFields() {
+        assertNull(new MappingEngine().getGeneratedMapper(Object.class));
+    }
+
+    @Test(expected = ExceptionInInitializerError.class)
+    public void testUnrelatedMapperIsNotInitialized() throws MapperException, ClassNotFoundException {
+        TestClashingBean bean = new TestClashingBean();
+        bean.setName("clash");
+
+        assertNull(new MappingEngine().getGeneratedMapper(TestClashingBean.class));
+        assertEquals(Collections.singletonMap("clashing_name", "clash"), new MappingEngine().map(bean));
+        assertEquals("clash", new UnmappingEngine()
+                .unmapToClass(Collections.singletonMap("clashing_name", "clash"), TestClashingBean.class).getName());
+
+        /* Had the lookup initialized the class, its failure would now be reported as a NoClassDefFoundError. */
+        Class.forName(TestClashingBeanMapper.class.getName(), true, TestClashingBean.class.getClassLoader());
+    }
+}
@@ -0,0 +1,23 @@
+package org.keyboardplaying.mapper.engine;
+
+/**
+ * Runs the tests of the {@link MappingEngine} with {@link AccessMode#LAMBDA}, bypassing the generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class LambdaAccessMappingEngineTest extends MappingEngineTest {
+
+    /**
+     * Creates a new instance.
+     */
+    public LambdaAccessMappingEngineTest() {
+        super(makeEngine());
+    }
+
+    private static MappingEngine makeEngine() {
+        MappingEngine engine = new MappingEngine();
+        engine.setAccessMode(AccessMode.LAMBDA);
+        engine.setUseGeneratedMappers(false);
+        return engine;
+    }
+}
@@ -0,0 +1,23 @@
+package org.keyboardplaying.mapper.engine;
+
+/**
+ * Runs the tests of the {@link UnmappingEngine} with {@link AccessMode#LAMBDA}, bypassing the generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class LambdaAccessUnmappingEngineTest extends UnmappingEngineTest {
+
+    /**
+     * Creates a new instance.
+     */
+    public LambdaAccessUnmappingEngineTest() {
+        super(makeEngine());
+    }
+
+    private static UnmappingEngine makeEngine() {
+        UnmappingEngine engine = new UnmappingEngine();
+        engine.setAccessMode(AccessMode.LAMBDA);
+        engine.setUseGeneratedMappers(false);
+        return engine;
+    }
+}
@@ -0,0 +1,167 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+import org.keyboardplaying.mapper.exception.UncheckedMapperException;
+
+/**
+ * Tests for {@link UnmappingEngine#unmapLazily(Map, Class, Class)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class LazyUnmappingTest {
+
+    private final UnmappingEngine engine = new UnmappingEngine();
+
+    @Test
+    public void testUnreadFieldsAreNotParsed() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Pikachu");
+        metadata.put("date", "not a date");
+        metadata.put("big", "not a number");
+
+        Record record = engine.unmapLazily(metadata, Record.class, RecordBean.class);
+
+        assertEquals("Pikachu", record.getName());
+    }
+
+    @Test
+    public void testReadFieldIsParsedOnce() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Pikachu");
+        metadata.put("big", "42");
+
+        Record record = engine.unmapLazily(metadata, Record.class, RecordBean.class);
+        assertEquals(BigInteger.valueOf(42), record.getBig());
+
+        // the metadata is only read once
+        metadata.put("big", "43");
+        assertEquals(BigInteger.valueOf(42), record.getBig());
+    }
+
+    @Test
+    public void testSetterPreventsUnmapping() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Pikachu");
+
+        Record record = engine.unmapLazily(metadata, Record.class, RecordBean.class);
+        record.setName("Raichu");
+
+        assertEquals("Raichu", record.getName());
+    }
+
+    @Test
+    public void testOtherMethodsUnmapAll() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Pikachu");
+        metadata.put("big", "42");
+
+        Record record = engine.unmapLazily(metadata, Record.class, RecordBean.class);
+
+        assertEquals("Pikachu/null/42", record.toString());
+        assertNull(record.getDate());
+    }
+
+    @Test
+    public void testMetadataMap() throws MapperException {
+        RecordBean bean = new RecordBean();
+        bean.setName("Pikachu");
+        bean.setBig(BigInteger.TEN);
+        MappingEngine mappingEngine = new MappingEngine();
+        mappingEngine.setUseMetadataMaps(true);
+
+        Record record = engine.unmapLazily(mappingEngine.map(bean), Record.class, RecordBean.class);
+
+        assertEquals(BigInteger.TEN, record.getBig());
+        assertEquals("Pikachu", record.getName());
+    }
+
+    @Test(expected = UncheckedMapperException.class)
+    public void testConversionErrorOnRead() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Pikachu");
+        metadata.put("date", "not a date");
+
+        engine.unmapLazily(metadata, Record.class, RecordBean.class).getDate();
+    }
+
+    @Test(expected = MappingException.class)
+    public void testMissingMandatory() throws MapperException {
+        engine.unmapLazily(new HashMap<String, String>(), Record.class, RecordBean.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAnInterface() throws MapperException {
+        engine.unmapLazily(new HashMap<String, String>(), RecordBean.class, RecordBean.class);
+    }
+
+    public interface Record {
+
+        String getName();
+
+        void setName(String name);
+
+        Date getDate();
+
+        BigInteger getBig();
+    }
+
+    public static class RecordBean implements Record {
+
+        @Metadata(value = "name", mandatory = true)
+        private String name;
+
+        @Metadata("date")
+        @Temporal(TemporalType.DATE)
+        private Date date;
+
+        @Metadata("big")
+        private BigInteger big;
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        @Override
+        public BigInteger getBig() {
+            return big;
+        }
+
+        public void setBig(BigInteger big) {
+            this.big = big;
+        }
+
+        @Override
+        public String toString() {
+            return name + "/" + date + "/" + big;
+        }
+    }
+}
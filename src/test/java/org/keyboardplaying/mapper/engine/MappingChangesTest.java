@@ -0,0 +1,120 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestInnerImpl;
+
+/**
+ * Tests for {@link MappingEngine#mapChanges(Object, Map, MappingSnapshot)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class MappingChangesTest {
+
+    private final MappingEngine engine = new MappingEngine();
+
+    private static TestBean newBean() {
+        TestBean bean = new TestBean();
+        bean.setMandatory("De da da da");
+        bean.setSomeInt(42);
+        bean.setContact("Pikachu (+1 23 45 67 89)");
+        bean.setDate(new Date(0));
+        TestInnerImpl inner = new TestInnerImpl();
+        inner.setHello("Hello, Little Big Planet!");
+        bean.setInnerImpl(inner);
+        return bean;
+    }
+
+    @Test
+    public void testFirstMappingWritesAll() throws MapperException {
+        TestBean bean = newBean();
+        Map<String, String> map = new HashMap<>();
+
+        Set<String> changed = engine.mapChanges(bean, map, new MappingSnapshot());
+
+        Map<String, String> expected = engine.map(bean);
+        assertEquals(expected, map);
+        assertEquals(expected.keySet(), changed);
+    }
+
+    @Test
+    public void testOnlyChangesWritten() throws MapperException {
+        TestBean bean = newBean();
+        MappingSnapshot snapshot = new MappingSnapshot();
+        Map<String, String> map = new HashMap<>();
+        engine.mapChanges(bean, map, snapshot);
+
+        assertTrue(engine.mapChanges(bean, new HashMap<String, String>(), snapshot).isEmpty());
+
+        bean.setSomeInt(43);
+        bean.setContact("Raichu (+1 98 76 54 32)");
+        Map<String, String> delta = new HashMap<>();
+        Set<String> changed = engine.mapChanges(bean, delta, snapshot);
+
+        assertEquals(new HashSet<>(Arrays.asList("some_int", "somebody_s_name", "somebody_s_phone")), changed);
+        assertEquals(changed, delta.keySet());
+        assertEquals("43", delta.get("some_int"));
+        assertEquals(engine.map(bean), snapshot.getMetadata());
+    }
+
+    @Test
+    public void testMutableFieldModifiedInPlace() throws MapperException {
+        TestBean bean = newBean();
+        MappingSnapshot snapshot = new MappingSnapshot();
+        engine.mapChanges(bean, new HashMap<String, String>(), snapshot);
+
+        bean.getDate().setTime(86_400_000L * 365);
+        Set<String> changed = engine.mapChanges(bean, new HashMap<String, String>(), snapshot);
+
+        assertEquals(Collections.singleton("some_even_more_important_date"), changed);
+    }
+
+    @Test
+    public void testRemovedKeys() throws MapperException {
+        TestBean bean = newBean();
+        MappingSnapshot snapshot = new MappingSnapshot();
+        Map<String, String> map = new HashMap<>();
+        engine.mapChanges(bean, map, snapshot);
+        assertTrue(map.containsKey("hello_world_inner"));
+
+        bean.setInnerImpl(null);
+        Set<String> changed = engine.mapChanges(bean, map, snapshot);
+
+        assertTrue(changed.contains("hello_world_inner"));
+        assertFalse(map.containsKey("hello_world_inner"));
+        assertEquals(engine.map(bean), map);
+    }
+
+    @Test
+    public void testFailureKeepsChangesForNextCall() throws MapperException {
+        TestBean bean = newBean();
+        MappingSnapshot snapshot = new MappingSnapshot();
+        engine.mapChanges(bean, new HashMap<String, String>(), snapshot);
+
+        bean.setSomeInt(43);
+        bean.setMandatory(null);
+        try {
+            engine.mapChanges(bean, new HashMap<String, String>(), snapshot);
+        } catch (MapperException e) {
+            // expected
+        }
+        bean.setMandatory("De da da da");
+
+        assertEquals(Collections.singleton("some_int"),
+                engine.mapChanges(bean, new HashMap<String, String>(), snapshot));
+    }
+}
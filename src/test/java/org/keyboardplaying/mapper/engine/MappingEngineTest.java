@@ -31,7 +31,18 @@ import org.keyboardplaying.mapper.mock.bean.TestSubBean;
 @SuppressWarnings("javadoc")
 public class MappingEngineTest {
 
-    private final MappingEngine mappingEngine = new MappingEngine();
+    private final MappingEngine mappingEngine;
+
+    /**
+     * Creates a new instance, testing an engine with the default settings.
+     */
+    public MappingEngineTest() {
+        this(new MappingEngine());
+    }
+
+    MappingEngineTest(MappingEngine mappingEngine) {
+        this.mappingEngine = mappingEngine;
+    }
 
     /**
      * Tests mapping a {@code null} bean.
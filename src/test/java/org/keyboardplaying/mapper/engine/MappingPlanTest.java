@@ -0,0 +1,96 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestSubBean;
+import org.keyboardplaying.mapper.parser.ContactParser;
+
+/**
+ * Tests for the {@link MappingPlan}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class MappingPlanTest {
+
+    /**
+     * Ensures all annotated fields are listed in declaration order, and the annotation settings resolved.
+     */
+    @Test
+    public void testBuild() {
+        MappedField[] fields = MappingPlan.build(TestBean.class).getFields();
+
+        assertEquals(12, fields.length);
+        assertEquals("hello", fields[0].getName());
+        assertEquals("hello_world", fields[0].getKey());
+        assertEquals("Didn't receive hello... :(", fields[0].getDefaultValue());
+        assertEquals("Didn't send hello... :(", fields[0].getDefaultMetadata());
+        assertFalse(fields[0].isNested());
+        assertNull(fields[0].getElaborate());
+
+        assertTrue(fields[1].isMandatory());
+        assertTrue(fields[9].isNested());
+        assertEquals("", fields[9].getNestedClassName());
+        assertEquals("org.keyboardplaying.mapper.mock.bean.TestInnerImpl", fields[10].getNestedClassName());
+        assertEquals(ContactParser.class, fields[11].getElaborate());
+        assertFalse(fields[11].hasKey());
+    }
+
+    /**
+     * Ensures inherited fields come after the declared ones.
+     */
+    @Test
+    public void testBuildSubclass() {
+        MappedField[] fields = MappingPlan.build(TestSubBean.class).getFields();
+
+        assertEquals(13, fields.length);
+        assertEquals("helloSub", fields[0].getName());
+        assertEquals("hello", fields[1].getName());
+    }
+
+    /**
+     * Ensures a class without annotated field gets an empty plan.
+     */
+    @Test
+    public void testBuildObject() {
+        assertEquals(0, MappingPlan.build(Object.class).getFields().length);
+    }
+
+    /**
+     * Ensures the positions of the keys are kept with the plan, for the last index they were looked up in.
+     */
+    @Test
+    public void testKeyPositions() {
+        MappingPlan plan = MappingPlan.build(TestBean.class);
+        MetadataKeys keys = MetadataKeys.of(Arrays.asList("some_int", "hello_world"));
+        MetadataKeys otherKeys = MetadataKeys.of(Arrays.asList("hello_world"));
+
+        int[] positions = plan.getKeyPositions(keys);
+        assertEquals(1, positions[0]);
+        assertSame(positions, plan.getKeyPositions(keys));
+
+        int[] otherPositions = plan.getKeyPositions(otherKeys);
+        assertNotSame(positions, otherPositions);
+        assertEquals(0, otherPositions[0]);
+        assertEquals(MetadataKeys.NOT_FOUND, otherPositions[indexOf(plan, "someInt")]);
+    }
+
+    private static int indexOf(MappingPlan plan, String name) {
+        MappedField[] fields = plan.getFields();
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
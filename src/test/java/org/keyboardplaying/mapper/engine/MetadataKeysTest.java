@@ -0,0 +1,61 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MetadataKeys}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class MetadataKeysTest {
+
+    @Test
+    public void testIndexOf() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            list.add("key_" + i);
+        }
+        MetadataKeys keys = MetadataKeys.of(list);
+
+        assertEquals(200, keys.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, keys.indexOf("key_" + i));
+            assertEquals("key_" + i, keys.keyAt(i));
+        }
+        assertEquals(MetadataKeys.NOT_FOUND, keys.indexOf("key_200"));
+        assertEquals(MetadataKeys.NOT_FOUND, keys.indexOf(null));
+        assertEquals(MetadataKeys.NOT_FOUND, keys.indexOf(42));
+    }
+
+    @Test
+    public void testDuplicatesIgnored() {
+        MetadataKeys keys = MetadataKeys.of(Arrays.asList("a", "b", "a"));
+
+        assertEquals(2, keys.size());
+        assertEquals(1, keys.indexOf("b"));
+    }
+
+    @Test
+    public void testSameHashCodes() {
+        // "Aa" and "BB" share their hash code, no perfect hash can separate them
+        MetadataKeys keys = MetadataKeys.of(Arrays.asList("Aa", "BB", "C"));
+
+        assertEquals(0, keys.indexOf("Aa"));
+        assertEquals(1, keys.indexOf("BB"));
+        assertEquals(2, keys.indexOf("C"));
+        assertEquals(MetadataKeys.NOT_FOUND, keys.indexOf("D"));
+    }
+
+    @Test
+    public void testNoKeys() {
+        assertEquals(MetadataKeys.NOT_FOUND, MetadataKeys.of(Collections.<String>emptyList()).indexOf("a"));
+    }
+}
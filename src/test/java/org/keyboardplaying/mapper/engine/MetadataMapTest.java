@@ -0,0 +1,102 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestInnerImpl;
+
+/**
+ * Tests for the {@link MetadataMap}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class MetadataMapTest {
+
+    @Test
+    public void testSameAsHashMap() {
+        MetadataMap map = new MetadataMap(MetadataKeys.of(Arrays.asList("a", "b", "c")));
+        Map<String, String> expected = new HashMap<>();
+        for (Map<String, String> m : Arrays.asList(map, expected)) {
+            assertNull(m.put("a", "1"));
+            assertEquals("1", m.put("a", "2"));
+            m.put("b", null);
+            m.put("other", "3");
+            m.put("another", null);
+        }
+
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(4, map.size());
+        assertTrue(map.containsKey("b"));
+        assertFalse(map.containsKey("c"));
+        assertTrue(map.containsKey("another"));
+        assertEquals("2", map.get("a"));
+        assertNull(map.get("c"));
+
+        assertNull(map.remove("b"));
+        assertEquals("3", map.remove("other"));
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("b"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testIterator() {
+        MetadataMap map = new MetadataMap(MetadataKeys.of(Arrays.asList("a", "b", "c")));
+        map.put("c", "3");
+        map.put("a", "1");
+        map.put("other", "4");
+
+        Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+        Map.Entry<String, String> entry = iterator.next();
+        assertEquals("a", entry.getKey());
+        entry.setValue("one");
+        assertEquals("c", iterator.next().getKey());
+        assertTrue(iterator.hasNext());
+        iterator.remove();
+        assertEquals("other", iterator.next().getKey());
+        iterator.remove();
+        assertFalse(iterator.hasNext());
+
+        assertEquals(1, map.size());
+        assertEquals("one", map.get("a"));
+    }
+
+    @Test
+    public void testMapAndUnmap() throws MapperException {
+        TestBean bean = new TestBean();
+        bean.setMandatory("De da da da");
+        bean.setSomeInt(42);
+        bean.setContact("Pikachu (+1 23 45 67 89)");
+        TestInnerImpl inner = new TestInnerImpl();
+        inner.setHello("Hello, Little Big Planet!");
+        bean.setInnerImpl(inner);
+
+        MappingEngine mappingEngine = new MappingEngine();
+        Map<String, String> expected = mappingEngine.map(bean);
+        mappingEngine.setUseMetadataMaps(true);
+        Map<String, String> map = mappingEngine.map(bean);
+
+        assertTrue(map instanceof MetadataMap);
+        assertEquals(expected, map);
+
+        UnmappingEngine unmappingEngine = new UnmappingEngine();
+        unmappingEngine.setUseGeneratedMappers(false);
+        TestBean unmapped = unmappingEngine.unmapToClass(map, TestBean.class);
+        assertEquals(expected, mappingEngine.map(unmapped));
+    }
+}
@@ -0,0 +1,118 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.MapperException;
+
+/**
+ * Tests for the default values parsed once per field.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class ParsedDefaultValueTest {
+
+    private final UnmappingEngine engine = new UnmappingEngine();
+    private final Map<String, String> metadata = Collections.emptyMap();
+
+    @Test
+    public void testMutableDefaultIsCopied() throws MapperException {
+        engine.setUseGeneratedMappers(false);
+
+        DefaultBean first = engine.unmapToClass(metadata, DefaultBean.class);
+        Date expected = new Date(first.date.getTime());
+        first.date.setTime(0);
+        DefaultBean second = engine.unmapToClass(metadata, DefaultBean.class);
+
+        assertEquals(expected, second.date);
+        assertNotSame(first.date, second.date);
+    }
+
+    @Test
+    public void testImmutableDefaultIsShared() throws MapperException {
+        engine.setUseGeneratedMappers(false);
+
+        DefaultBean first = engine.unmapToClass(metadata, DefaultBean.class);
+        DefaultBean second = engine.unmapToClass(metadata, DefaultBean.class);
+
+        assertEquals(Integer.valueOf(1234567), second.number);
+        assertSame(first.number, second.number);
+        assertEquals("", second.blank);
+    }
+
+    /**
+     * Pins the types whose parsed defaults are kept: any other type is parsed again for each bean.
+     */
+    @Test
+    public void testShareable() {
+        assertTrue(SharedValues.isShareable("value"));
+        assertTrue(SharedValues.isShareable(42));
+        assertTrue(SharedValues.isShareable(4.2));
+        assertTrue(SharedValues.isShareable('c'));
+        assertTrue(SharedValues.isShareable(BigInteger.ONE));
+        assertTrue(SharedValues.isShareable(BigDecimal.ONE));
+        assertTrue(SharedValues.isShareable(TemporalType.DATE));
+        assertTrue(SharedValues.isShareable(new Date()));
+        assertTrue(SharedValues.isShareable(new Timestamp(0)));
+        assertTrue(SharedValues.isShareable(new GregorianCalendar()));
+        assertFalse(SharedValues.isShareable(new StringBuilder()));
+        assertFalse(SharedValues.isShareable(new int[0]));
+        assertFalse(SharedValues.isShareable(new AtomicInteger()));
+        assertFalse(SharedValues.isShareable(new DefaultBean()));
+        assertFalse(SharedValues.isShareable(null));
+    }
+
+    public static class DefaultBean {
+
+        @Metadata(value = "date", defaultValue = "2016/01/01")
+        @Temporal(TemporalType.DATE)
+        private Date date;
+
+        @Metadata(value = "number", defaultValue = "1234567")
+        private Integer number;
+
+        @Metadata(value = "blank", blankDefaultValue = true)
+        private String blank;
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public void setNumber(Integer number) {
+            this.number = number;
+        }
+
+        public String getBlank() {
+            return blank;
+        }
+
+        public void setBlank(String blank) {
+            this.blank = blank;
+        }
+    }
+}
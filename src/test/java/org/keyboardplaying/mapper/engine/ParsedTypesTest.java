@@ -0,0 +1,147 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Temporal;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.FieldMappingException;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.parser.DoubleParser;
+import org.keyboardplaying.mapper.mock.parser.ExtendedDateParser;
+import org.keyboardplaying.mapper.parser.CalendarParser;
+import org.keyboardplaying.mapper.parser.IntegerParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+import org.keyboardplaying.mapper.parser.StringParser;
+
+/**
+ * Tests for {@link ParsedTypes}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class ParsedTypesTest {
+
+    @Test
+    public void testGetParsedType() {
+        assertEquals(String.class, ParsedTypes.getParsedType(StringParser.class));
+        assertEquals(Integer.class, ParsedTypes.getParsedType(IntegerParser.class));
+        assertEquals(Calendar.class, ParsedTypes.getParsedType(CalendarParser.class));
+        assertEquals(Date.class, ParsedTypes.getParsedType(ExtendedDateParser.class));
+        assertEquals(Double.class, ParsedTypes.getParsedType(DoubleParser.class));
+        assertNull(ParsedTypes.getParsedType(GenericParser.class));
+    }
+
+    @Test
+    public void testCanProduce() {
+        assertTrue(ParsedTypes.canProduce(new IntegerParser(), int.class));
+        assertTrue(ParsedTypes.canProduce(new IntegerParser(), Number.class));
+        assertTrue(ParsedTypes.canProduce(new GenericParser<Object>(), Timestamp.class));
+        assertFalse(ParsedTypes.canProduce(new ExtendedDateParser(), Timestamp.class));
+        assertFalse(ParsedTypes.canProduce(new CalendarParser(), GregorianCalendar.class));
+    }
+
+    @Test
+    public void testSupertypeParserMapsButDoesNotUnmap() throws MapperException {
+        TimestampBean bean = new TimestampBean();
+        bean.setTimestamp(new Timestamp(0));
+        Map<String, String> map = new MappingEngine().map(bean);
+        assertTrue(map.containsKey("timestamp"));
+
+        try {
+            new UnmappingEngine().unmapToClass(Collections.singletonMap("timestamp", "1970-01-01"),
+                    TimestampBean.class);
+            fail("The parser of java.util.Date should not be used to unmap a timestamp.");
+        } catch (FieldMappingException e) {
+            assertTrue(e.getMessage().contains(Timestamp.class.getName()));
+        }
+    }
+
+    @Test
+    public void testSqlDateAndTimeAreFormatted() throws MapperException {
+        SqlBean bean = new SqlBean();
+        bean.setDate(new java.sql.Date(0));
+        bean.setTime(new Time(0));
+        MappingEngine engine = new MappingEngine();
+        String expectedDate = new SimpleDateFormat(Defaults.FORMAT_DATE).format(bean.getDate());
+        String expectedTime = new SimpleDateFormat(Defaults.FORMAT_DATETIME).format(bean.getTime());
+
+        Map<String, String> map = engine.map(bean);
+        assertEquals(expectedDate, map.get("date"));
+        assertEquals(expectedTime, map.get("time"));
+
+        Map<String, String> view = engine.view(bean);
+        assertEquals(expectedDate, view.get("date"));
+        assertEquals(expectedTime, view.get("time"));
+    }
+
+    public static class GenericParser<T> implements SimpleParser<T> {
+
+        @Override
+        public T convertFromString(String value) {
+            return null;
+        }
+
+        @Override
+        public String convertToString(T value) {
+            return null;
+        }
+    }
+
+    public static class SqlBean {
+
+        @Metadata("date")
+        @Temporal(TemporalType.DATE)
+        private java.sql.Date date;
+
+        @Metadata("time")
+        @Temporal(TemporalType.DATETIME)
+        private Time time;
+
+        public java.sql.Date getDate() {
+            return date;
+        }
+
+        public void setDate(java.sql.Date date) {
+            this.date = date;
+        }
+
+        public Time getTime() {
+            return time;
+        }
+
+        public void setTime(Time time) {
+            this.time = time;
+        }
+    }
+
+    public static class TimestampBean {
+
+        @Metadata("timestamp")
+        @Temporal(TemporalType.DATE)
+        private Timestamp timestamp;
+
+        public Timestamp getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(Timestamp timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+}
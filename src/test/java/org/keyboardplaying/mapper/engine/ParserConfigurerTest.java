@@ -0,0 +1,112 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.annotation.Temporal.TemporalType;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.ParserInitializationException;
+import org.keyboardplaying.mapper.parser.BooleanParser;
+import org.keyboardplaying.mapper.parser.CalendarParser;
+import org.keyboardplaying.mapper.parser.DateParser;
+import org.keyboardplaying.mapper.parser.SimpleParser;
+import org.keyboardplaying.mapper.parser.StringParser;
+
+/**
+ * Tests for the {@link ParserConfigurer}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class ParserConfigurerTest {
+
+    @Test
+    public void testParserWithoutSettingsIsShared() throws MapperException {
+        StringParser parser = new StringParser();
+
+        assertSame(parser, ParserConfigurer.configure(parser, null, null, null));
+    }
+
+    @Test
+    public void testBooleanParserIsCopied() throws MapperException {
+        BooleanParser shared = new BooleanParser();
+
+        SimpleParser<Boolean> yesNo = ParserConfigurer.configure(shared, null,
+                new String[]{Defaults.BOOLEAN_YES}, new String[]{Defaults.BOOLEAN_NO});
+        SimpleParser<Boolean> trueFalse = ParserConfigurer.configure(shared, null, null, null);
+
+        assertNotSame(shared, yesNo);
+        assertEquals(Defaults.BOOLEAN_YES, yesNo.convertToString(true));
+        assertEquals(Defaults.TRUE, trueFalse.convertToString(true));
+        // the shared instance keeps its own settings
+        assertEquals(Defaults.BOOLEAN_YES, shared.convertToString(true));
+    }
+
+    @Test
+    public void testTemporalParserIsCopied() throws MapperException {
+        CalendarParser shared = new CalendarParser();
+
+        SimpleParser<Calendar> date = ParserConfigurer.configure(shared, TemporalType.DATE, null, null);
+        SimpleParser<Calendar> dateTime = ParserConfigurer.configure(shared, TemporalType.DATETIME, null,
+                null);
+
+        GregorianCalendar calendar = new GregorianCalendar(2015, 4, 14, 11, 22, 33);
+        assertEquals("2015/05/14", date.convertToString(calendar));
+        assertEquals("2015/05/14-11:22:33", dateTime.convertToString(calendar));
+    }
+
+    @Test
+    public void testTemporalParserCopyKeepsItsSettings() throws MapperException {
+        LabelledDateParser shared = new LabelledDateParser("on ");
+
+        SimpleParser<Date> date = ParserConfigurer.configure(shared, TemporalType.DATE, null, null);
+
+        assertNotSame(shared, date);
+        assertEquals("on 2015/05/14", date.convertToString(new GregorianCalendar(2015, 4, 14).getTime()));
+    }
+
+    @Test(expected = ParserInitializationException.class)
+    public void testParserWithoutNoArgConstructorNorCopy() throws MapperException {
+        ParserConfigurer.configure(new ConstantBooleanParser(true), null, null, null);
+    }
+
+    public static class LabelledDateParser extends DateParser {
+
+        private final String label;
+
+        public LabelledDateParser(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String convertToString(Date value) {
+            return label + super.convertToString(value);
+        }
+
+        @Override
+        public LabelledDateParser copy() {
+            return new LabelledDateParser(label);
+        }
+    }
+
+    public static class ConstantBooleanParser extends BooleanParser {
+
+        private final boolean value;
+
+        public ConstantBooleanParser(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean parseBoolean(CharSequence string) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.annotation.Nested;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.PreparationException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+
+/**
+ * Tests for {@link BaseEngine#prepare(Class...)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class PrepareTest {
+
+    @Test
+    public void testValidBeans() throws MapperException {
+        MappingEngine mappingEngine = new MappingEngine();
+        mappingEngine.setUseGeneratedMappers(false);
+        mappingEngine.prepare(TestBean.class);
+
+        /* The parsers were resolved with the plan, including those of nested beans. */
+        for (MappedField field : mappingEngine.getPlan(TestBean.class).getFields()) {
+            if (!field.isNested() && field.getElaborate() == null) {
+                assertNotNull(field.getName(), field.getParser());
+            }
+        }
+
+        new UnmappingEngine().prepare(TestBean.class);
+    }
+
+    @Test
+    public void testAllProblemsReported() {
+        try {
+            new MappingEngine().prepare(BrokenBean.class);
+            fail("The broken bean should not be prepared.");
+        } catch (PreparationException e) {
+            /* Missing @Temporal, no key, invalid default, unknown nested class. */
+            assertEquals(4, e.getProblems().size());
+            assertEquals(4, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void testUnmappingChecks() {
+        try {
+            new UnmappingEngine().prepare(ReadOnlyBean.class);
+            fail("The read-only bean should not be prepared for unmapping.");
+        } catch (PreparationException e) {
+            /* No public constructor, no setter. */
+            assertEquals(2, e.getProblems().size());
+        }
+    }
+
+    public static class BrokenBean {
+
+        @Metadata("date")
+        private Date date;
+
+        @Metadata
+        private String noKey;
+
+        @Metadata(value = "number", defaultValue = "not a number")
+        private int number;
+
+        @Nested(className = "org.keyboardplaying.mapper.Unknown")
+        private Object unknown;
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public String getNoKey() {
+            return noKey;
+        }
+
+        public void setNoKey(String noKey) {
+            this.noKey = noKey;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+
+        public Object getUnknown() {
+            return unknown;
+        }
+
+        public void setUnknown(Object unknown) {
+            this.unknown = unknown;
+        }
+    }
+
+    public static class ReadOnlyBean {
+
+        @Metadata("value")
+        private String value;
+
+        private ReadOnlyBean() {
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+}
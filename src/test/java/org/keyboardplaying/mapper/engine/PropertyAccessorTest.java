@@ -0,0 +1,181 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestSubBean;
+
+/**
+ * Tests for the {@link PropertyAccessor}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class PropertyAccessorTest {
+
+    /**
+     * Tests reading and writing through a {@code getXxx} getter and a primitive {@code isXxx} getter.
+     */
+    @Test
+    public void testGetAndSet() throws ReflectiveOperationException {
+        PropertyAccessor hello = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("hello"));
+        PropertyAccessor someBool = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("someBool"));
+        TestBean bean = new TestBean();
+
+        hello.set(bean, "Hello, World!");
+        someBool.set(bean, true);
+
+        assertEquals("Hello, World!", hello.get(bean));
+        assertEquals(Boolean.TRUE, someBool.get(bean));
+    }
+
+    /**
+     * Tests reading and writing primitive properties without boxing.
+     */
+    @Test
+    public void testPrimitiveGetAndSet() throws ReflectiveOperationException {
+        PropertyAccessor someInt = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("someInt"));
+        PropertyAccessor someBool = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("someBool"));
+        PropertyAccessor someLong = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("someLong"));
+        TestBean bean = new TestBean();
+
+        assertTrue(someInt.hasPrimitiveGetter(int.class));
+        assertTrue(someInt.hasPrimitiveSetter(int.class));
+        assertFalse(someInt.hasPrimitiveGetter(long.class));
+        assertTrue(someBool.hasPrimitiveSetter(boolean.class));
+        /* A Long property is not primitive. */
+        assertFalse(someLong.hasPrimitiveGetter(long.class));
+
+        someInt.setInt(bean, 42);
+        someBool.setBoolean(bean, true);
+
+        assertEquals(42, someInt.getInt(bean));
+        assertTrue(someBool.getBoolean(bean));
+        assertEquals(42, bean.getSomeInt());
+    }
+
+    /**
+     * Tests reading and writing through lambda accessors, including primitive ones.
+     */
+    @Test
+    public void testGetAndSetLambda() throws ReflectiveOperationException {
+        PropertyAccessor hello = PropertyAccessor.of(TestSubBean.class, TestBean.class.getDeclaredField("hello"),
+                AccessMode.LAMBDA);
+        PropertyAccessor someInt = PropertyAccessor.of(TestSubBean.class, TestBean.class.getDeclaredField("someInt"),
+                AccessMode.LAMBDA);
+        TestSubBean bean = new TestSubBean();
+
+        hello.set(bean, "Hello, World!");
+        someInt.set(bean, 42);
+
+        assertEquals("Hello, World!", hello.get(bean));
+        assertEquals(42, someInt.get(bean));
+        // no fallback to method handles
+        assertEquals("LambdaAccessor", hello.getClass().getSimpleName());
+    }
+
+    /**
+     * Tests an inherited field is accessed through the accessors of the subclass.
+     */
+    @Test
+    public void testInheritedField() throws ReflectiveOperationException {
+        PropertyAccessor hello = PropertyAccessor.of(TestSubBean.class, TestBean.class.getDeclaredField("hello"));
+        TestSubBean bean = new TestSubBean();
+
+        hello.set(bean, "Hello, sub!");
+
+        assertEquals("Hello, sub!", bean.getHello());
+    }
+
+    /**
+     * Ensures reading a field without getter fails.
+     */
+    @Test(expected = IllegalAccessException.class)
+    public void testGetWithoutGetter() throws ReflectiveOperationException {
+        Object bean = new Object() {
+            @SuppressWarnings("unused")
+            private String hello;
+
+            @SuppressWarnings("unused")
+            public void setHello(String hello) {
+                this.hello = hello;
+            }
+        };
+
+        PropertyAccessor.of(bean.getClass(), bean.getClass().getDeclaredField("hello")).get(bean);
+    }
+
+    /**
+     * Ensures an exception thrown by the getter is wrapped.
+     */
+    @Test(expected = InvocationTargetException.class)
+    public void testGetterThrowing() throws ReflectiveOperationException {
+        Object bean = makeThrowingBean();
+
+        PropertyAccessor.of(bean.getClass(), bean.getClass().getDeclaredField("hello")).get(bean);
+    }
+
+    /**
+     * Ensures an exception thrown by the getter is wrapped when the accessor is a lambda.
+     */
+    @Test(expected = InvocationTargetException.class)
+    public void testLambdaGetterThrowing() throws ReflectiveOperationException {
+        Object bean = makeThrowingBean();
+
+        PropertyAccessor.of(bean.getClass(), bean.getClass().getDeclaredField("hello"), AccessMode.LAMBDA)
+                .get(bean);
+    }
+
+    /**
+     * Ensures wrong arguments are reported as {@link java.lang.reflect.Method#invoke(Object, Object...)} would, in
+     * every access mode.
+     */
+    @Test
+    public void testWrongArguments() throws ReflectiveOperationException {
+        for (AccessMode mode : AccessMode.values()) {
+            PropertyAccessor hello = PropertyAccessor.of(TestBean.class, TestBean.class.getDeclaredField("hello"),
+                    mode);
+            PropertyAccessor someInt = PropertyAccessor.of(TestBean.class,
+                    TestBean.class.getDeclaredField("someInt"), mode);
+
+            assertIllegalArgument(hello, new TestBean(), 42);
+            assertIllegalArgument(someInt, new TestBean(), "42");
+            assertIllegalArgument(someInt, new TestBean(), null);
+            assertIllegalArgument(hello, new Object(), "Hello, World!");
+            try {
+                hello.get(new Object());
+                fail("Reading a bean of the wrong type should fail.");
+            } catch (IllegalArgumentException e) {
+                /* Expected. */
+            }
+        }
+    }
+
+    private static void assertIllegalArgument(PropertyAccessor accessor, Object bean, Object value)
+            throws ReflectiveOperationException {
+        try {
+            accessor.set(bean, value);
+            fail("Setting " + value + " to " + accessor.getName() + " should fail.");
+        } catch (IllegalArgumentException e) {
+            /* Expected. */
+        }
+    }
+
+    private Object makeThrowingBean() {
+        return new Object() {
+            @SuppressWarnings("unused")
+            private String hello;
+
+            @SuppressWarnings("unused")
+            public String getHello() {
+                throw new IllegalStateException("Not today.");
+            }
+        };
+    }
+}
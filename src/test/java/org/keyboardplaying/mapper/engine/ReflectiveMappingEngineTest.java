@@ -0,0 +1,22 @@
+package org.keyboardplaying.mapper.engine;
+
+/**
+ * Runs the tests of the {@link MappingEngine} bypassing the generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ReflectiveMappingEngineTest extends MappingEngineTest {
+
+    /**
+     * Creates a new instance.
+     */
+    public ReflectiveMappingEngineTest() {
+        super(makeEngine());
+    }
+
+    private static MappingEngine makeEngine() {
+        MappingEngine engine = new MappingEngine();
+        engine.setUseGeneratedMappers(false);
+        return engine;
+    }
+}
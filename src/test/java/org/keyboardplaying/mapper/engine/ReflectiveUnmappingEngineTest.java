@@ -0,0 +1,22 @@
+package org.keyboardplaying.mapper.engine;
+
+/**
+ * Runs the tests of the {@link UnmappingEngine} bypassing the generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ReflectiveUnmappingEngineTest extends UnmappingEngineTest {
+
+    /**
+     * Creates a new instance.
+     */
+    public ReflectiveUnmappingEngineTest() {
+        super(makeEngine());
+    }
+
+    private static UnmappingEngine makeEngine() {
+        UnmappingEngine engine = new UnmappingEngine();
+        engine.setUseGeneratedMappers(false);
+        return engine;
+    }
+}
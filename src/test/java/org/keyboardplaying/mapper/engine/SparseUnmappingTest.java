@@ -0,0 +1,146 @@
+package org.keyboardplaying.mapper.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+
+/**
+ * Tests for the unmapping of metadata holding few keys compared to the fields of the bean.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class SparseUnmappingTest {
+
+    private final UnmappingEngine engine = new UnmappingEngine();
+
+    @Before
+    public void setUp() {
+        engine.setUseGeneratedMappers(false);
+    }
+
+    @Test
+    public void testUnconditionalFields() {
+        MappingPlan plan = MappingPlan.build(WideBean.class);
+
+        /* mandatory, withDefault and withBlankDefault, in declaration order. */
+        assertEquals(3, plan.getUnconditionalFields().length);
+    }
+
+    @Test
+    public void testSparseMetadata() throws MapperException {
+        WideBean bean = engine.unmapToClass(Collections.singletonMap("mandatory", "set"), WideBean.class);
+
+        assertEquals("set", bean.mandatory);
+        assertEquals("default", bean.withDefault);
+        assertEquals("", bean.withBlankDefault);
+        assertNull(bean.a);
+        assertEquals(0, bean.b);
+    }
+
+    @Test
+    public void testSparseMetadataOverridesDefaults() throws MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("mandatory", "set");
+        metadata.put("with_default", "value");
+
+        WideBean bean = engine.unmapToClass(metadata, WideBean.class);
+
+        assertEquals("value", bean.withDefault);
+        assertEquals("", bean.withBlankDefault);
+    }
+
+    @Test(expected = MappingException.class)
+    public void testSparseMetadataMissingMandatory() throws MapperException {
+        engine.unmapToClass(Collections.singletonMap("a", "value"), WideBean.class);
+    }
+
+    public static class WideBean {
+
+        @Metadata(value = "mandatory", mandatory = true)
+        private String mandatory;
+
+        @Metadata(value = "with_default", defaultValue = "default")
+        private String withDefault;
+
+        @Metadata(value = "with_blank_default", blankDefaultValue = true)
+        private String withBlankDefault;
+
+        @Metadata("a")
+        private String a;
+
+        @Metadata("b")
+        private int b;
+
+        @Metadata("c")
+        private String c;
+
+        @Metadata("d")
+        private String d;
+
+        public String getMandatory() {
+            return mandatory;
+        }
+
+        public void setMandatory(String mandatory) {
+            this.mandatory = mandatory;
+        }
+
+        public String getWithDefault() {
+            return withDefault;
+        }
+
+        public void setWithDefault(String withDefault) {
+            this.withDefault = withDefault;
+        }
+
+        public String getWithBlankDefault() {
+            return withBlankDefault;
+        }
+
+        public void setWithBlankDefault(String withBlankDefault) {
+            this.withBlankDefault = withBlankDefault;
+        }
+
+        public String getA() {
+            return a;
+        }
+
+        public void setA(String a) {
+            this.a = a;
+        }
+
+        public int getB() {
+            return b;
+        }
+
+        public void setB(int b) {
+            this.b = b;
+        }
+
+        public String getC() {
+            return c;
+        }
+
+        public void setC(String c) {
+            this.c = c;
+        }
+
+        public String getD() {
+            return d;
+        }
+
+        public void setD(String d) {
+            this.d = d;
+        }
+    }
+}
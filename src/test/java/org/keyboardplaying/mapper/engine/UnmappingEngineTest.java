@@ -29,7 +29,18 @@ import org.keyboardplaying.mapper.parser.DateParser;
 @SuppressWarnings("javadoc")
 public class UnmappingEngineTest {
 
-    private final UnmappingEngine mappingEngine = new UnmappingEngine();
+    private final UnmappingEngine mappingEngine;
+
+    /**
+     * Creates a new instance, testing an engine with the default settings.
+     */
+    public UnmappingEngineTest() {
+        this(new UnmappingEngine());
+    }
+
+    UnmappingEngineTest(UnmappingEngine mappingEngine) {
+        this.mappingEngine = mappingEngine;
+    }
 
     /**
      * Tests the {@link Nested} annotation.
@@ -0,0 +1,127 @@
+package org.keyboardplaying.mapper.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+
+/**
+ * Tests for the {@link MappedRecordReader}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class MappedRecordReaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadRecords() throws IOException, MapperException {
+        Path file = write("# header\n"
+                + "name=first\n"
+                + "count = 1\n"
+                + "unbound=ignored\n"
+                + "\n"
+                + "\n"
+                + "! second record\r\n"
+                + "name: second\r\n"
+                + "count 2\r\n"
+                + "\r\n"
+                + "name=caf\\u00e9 \\= \\#3\n"
+                + "count=3");
+
+        try (MappedRecordReader reader = new MappedRecordReader(file)) {
+            assertRecord("first", 1, reader.next(Record.class));
+            assertRecord("second", 2, reader.next(Record.class));
+            assertRecord("café = #3", 3, reader.next(Record.class));
+            assertNull(reader.next(Record.class));
+        }
+    }
+
+    @Test
+    public void testReadAcrossWindows() throws IOException, MapperException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("name=record ").append(i).append("\ncount=").append(i).append("\n--\n");
+        }
+        Path file = write(content.toString());
+
+        try (MappedRecordReader reader = new MappedRecordReader(new UnmappingEngine(), file, "--",
+                StandardCharsets.UTF_8, 32)) {
+            for (int i = 0; i < 100; i++) {
+                assertRecord("record " + i, i, reader.next(Record.class));
+            }
+            assertNull(reader.next(Record.class));
+        }
+    }
+
+    @Test
+    public void testReadEmptyFile() throws IOException, MapperException {
+        try (MappedRecordReader reader = new MappedRecordReader(write(""))) {
+            assertNull(reader.next(Record.class));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLineLongerThanWindow() throws IOException, MapperException {
+        try (MappedRecordReader reader = new MappedRecordReader(new UnmappingEngine(),
+                write("name=a name longer than the window\ncount=1\n"), "", StandardCharsets.UTF_8, 16)) {
+            reader.next(Record.class);
+        }
+    }
+
+    @Test(expected = MappingException.class)
+    public void testReadMissingMandatory() throws IOException, MapperException {
+        try (MappedRecordReader reader = new MappedRecordReader(write("count=1\n"))) {
+            reader.next(Record.class);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+        return file;
+    }
+
+    private static void assertRecord(String name, int count, Record record) {
+        assertEquals(name, record.getName());
+        assertEquals(count, record.getCount());
+    }
+
+    public static class Record {
+
+        @Metadata(value = "name", mandatory = true)
+        private String name;
+
+        @Metadata("count")
+        private int count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.keyboardplaying.mapper.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.engine.MappingEngine;
+import org.keyboardplaying.mapper.engine.UnmappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.exception.MappingException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+import org.keyboardplaying.mapper.mock.bean.TestInnerImpl;
+
+/**
+ * Tests for the {@link PropertiesReader}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class PropertiesReaderTest {
+
+    private final PropertiesReader reader = new PropertiesReader();
+
+    @Test
+    public void testReadSameAsUnmapping() throws IOException, MapperException {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("Do do do", "De da da da");
+        metadata.put("hello_world", "Hello, World!");
+        metadata.put("hello_world_inner", "Hello, Little Big Planet!");
+        metadata.put("some_bool", "true");
+        metadata.put("some_yesno", "yes");
+        metadata.put("some_int", "42");
+        metadata.put("some_long", "-1234567890123");
+        metadata.put("some_bigint", "123456789012345678901234567890");
+        metadata.put("some_important_date", "2012/04/23-10:24:00");
+        metadata.put("some_even_more_important_date", "2012/04/23");
+        metadata.put("somebody_s_name", "Pikachu");
+        metadata.put("somebody_s_phone", "+1 23 45 67 89");
+        metadata.put("ignored key", "ignored value");
+
+        TestBean expected = new UnmappingEngine().unmapToClass(metadata, TestBean.class);
+        TestBean actual = reader.readToClass(new StringReader(store(metadata)), TestBean.class);
+
+        MappingEngine mappingEngine = new MappingEngine();
+        assertEquals(mappingEngine.map(expected), mappingEngine.map(actual));
+    }
+
+    @Test
+    public void testReadDefaults() throws IOException, MapperException {
+        TestBean bean = reader.readToClass(new StringReader("Do\\ do\\ do = De da da da"), TestBean.class);
+
+        assertEquals("De da da da", bean.getMandatory());
+        assertEquals("Didn't receive hello... :(", bean.getHello());
+        // the nested bean misses its mandatory data, but is not mandatory itself
+        assertNull(bean.getInnerImpl());
+    }
+
+    @Test
+    public void testReadToBean() throws IOException, MapperException {
+        TestBean bean = new TestBean();
+        TestInnerImpl inner = new TestInnerImpl();
+        bean.setInnerImpl(inner);
+
+        TestBean result = reader.readToBean(
+                new ByteArrayInputStream("Do\\ do\\ do=x\nhello_world_inner=café".getBytes(
+                        StandardCharsets.ISO_8859_1)), bean);
+
+        assertSame(bean, result);
+        assertSame(inner, bean.getInnerImpl());
+        assertEquals("café", inner.getHello());
+    }
+
+    @Test
+    public void testLastValuePrevails() throws IOException, MapperException {
+        TestBean bean = reader.readToClass(new StringReader("Do\\ do\\ do=first\nDo\\ do\\ do=last"), TestBean.class);
+
+        assertEquals("last", bean.getMandatory());
+    }
+
+    @Test(expected = MappingException.class)
+    public void testReadMissingMandatory() throws IOException, MapperException {
+        reader.readToClass(new StringReader("hello_world = Hello"), TestBean.class);
+    }
+
+    @Test(expected = MappingException.class)
+    public void testReadUnparseableValue() throws IOException, MapperException {
+        reader.readToClass(new StringReader("Do\\ do\\ do=x\nsome_int=forty-two"), TestBean.class);
+    }
+
+    private static String store(Map<String, String> metadata) throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(metadata);
+        StringWriter writer = new StringWriter();
+        properties.store(writer, "test");
+        return writer.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package org.keyboardplaying.mapper.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PropertiesTokenizer}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class PropertiesTokenizerTest {
+
+    private static final String CONTENT = "# a comment \\\n"
+            + "! another comment\n"
+            + "\n"
+            + "   plain=value\n"
+            + "colon:value\r\n"
+            + "spaced   =   value  \r"
+            + "blank value\n"
+            + "double = = value\n"
+            + "tab\tvalue\n"
+            + "empty=\n"
+            + "keyOnly\n"
+            + "continued = first, \\\n"
+            + "            second, \\\r\n"
+            + "\tthird\n"
+            + "con\\\n"
+            + "   tinued\\ key = #not a comment\n"
+            + "escaped\\=key\\:=\\t\\n\\u00e9\\\\\\x\n"
+            + "=no key\n"
+            + "duplicate=first\n"
+            + "duplicate=last\n"
+            + "trailing=backslash\\";
+
+    @Test
+    public void testSameAsProperties() throws IOException {
+        Properties expected = new Properties();
+        expected.load(new StringReader(CONTENT));
+
+        assertEquals(expected, tokenize(CONTENT));
+    }
+
+    @Test
+    public void testLeadingContinuations() throws IOException {
+        for (String content : new String[]{"\\\n\t", "\\\n ", " :a=!fa\n\\\n\t", "f!\n\\\r#b", "\\\r\n  ! c\nk=v",
+                "\\\n\\\n\n\\\na"}) {
+            Properties expected = new Properties();
+            expected.load(new StringReader(content));
+
+            assertEquals(content, expected, tokenize(content));
+        }
+    }
+
+    /**
+     * Compares the tokenizer to {@link Properties#load(java.io.Reader)} on short random contents made of the
+     * characters which matter to the syntax.
+     */
+    @Test
+    public void testRandomContentSameAsProperties() throws IOException {
+        char[] alphabet = {'a', 'n', '=', ':', ' ', '\t', '\\', '\r', '\n', '#', '!'};
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            char[] content = new char[random.nextInt(16)];
+            for (int j = 0; j < content.length; j++) {
+                content[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            Properties expected = new Properties();
+            expected.load(new StringReader(new String(content)));
+
+            assertEquals(new String(content), expected, tokenize(new String(content)));
+        }
+    }
+
+    @Test
+    public void testSkipValue() throws IOException {
+        PropertiesTokenizer tokenizer = new PropertiesTokenizer(new StringReader("skipped = a \\\n b\nread=c"));
+
+        assertEquals("skipped", tokenizer.nextKey());
+        tokenizer.skipValue();
+        assertEquals("read", tokenizer.nextKey());
+        assertEquals("c", tokenizer.readValue());
+        assertNull(tokenizer.nextKey());
+    }
+
+    @Test
+    public void testLongValue() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            value.append((char) ('a' + i % 26));
+        }
+
+        assertEquals(value.toString(), tokenize("key=" + value).get("key"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedUnicode() throws IOException {
+        tokenize("key=\\u00g9");
+    }
+
+    private static Map<String, String> tokenize(String content) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        PropertiesTokenizer tokenizer = new PropertiesTokenizer(new StringReader(content));
+        for (String key = tokenizer.nextKey(); key != null; key = tokenizer.nextKey()) {
+            result.put(key, tokenizer.readValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package org.keyboardplaying.mapper.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.annotation.Metadata;
+import org.keyboardplaying.mapper.engine.MappingEngine;
+import org.keyboardplaying.mapper.exception.MapperException;
+import org.keyboardplaying.mapper.mock.bean.TestBean;
+
+/**
+ * Tests for the {@link PropertiesWriter}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class PropertiesWriterTest {
+
+    private static final String TRICKY = " leading space, = : # ! \\ \t\n\r\f, café, €, \u0001";
+
+    private final PropertiesWriter writer = new PropertiesWriter();
+
+    @Test
+    public void testWriteSameAsMapping() throws IOException, MapperException {
+        TestBean bean = new TestBean();
+        bean.setMandatory(TRICKY);
+        bean.setSomeInt(42);
+        bean.setContact("Pikachu (+1 23 45 67 89)");
+
+        StringBuilder out = new StringBuilder();
+        writer.write(bean, out);
+
+        assertEquals(withoutNulls(new MappingEngine().map(bean)), load(out.toString()));
+    }
+
+    @Test
+    public void testWriteToStream() throws IOException, MapperException {
+        TestBean bean = new TestBean();
+        bean.setMandatory(TRICKY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(bean, out);
+
+        for (byte b : out.toByteArray()) {
+            assertTrue(b >= 0x20 && b <= 0x7e || b == '\n');
+        }
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(TRICKY, properties.getProperty("Do do do"));
+    }
+
+    @Test
+    public void testWriteSeveralBeans() throws IOException, MapperException {
+        StringBuilder out = new StringBuilder();
+        writer.write(new KeyBean("first"), out);
+        writer.write(new KeyBean("second"), out);
+
+        assertEquals("key=first\nkey=second\n", out.toString());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteFailure() throws IOException, MapperException {
+        writer.write(new KeyBean("value"), new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw new IOException("Disk full");
+            }
+        });
+    }
+
+    private static Map<String, String> withoutNulls(Map<String, String> map) {
+        Map<String, String> result = new HashMap<>();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (entry.getValue() != null) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, String> load(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        Map<String, String> result = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            result.put(key, properties.getProperty(key));
+        }
+        return result;
+    }
+
+    public static class KeyBean {
+
+        @Metadata("key")
+        private String value;
+
+        public KeyBean(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
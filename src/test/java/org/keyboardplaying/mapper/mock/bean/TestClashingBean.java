@@ -0,0 +1,33 @@
+package org.keyboardplaying.mapper.mock.bean;
+
+import org.keyboardplaying.mapper.annotation.Metadata;
+
+/**
+ * A bean whose mapper name is already taken by {@link TestClashingBeanMapper}, for testing that unrelated classes are
+ * not mistaken for generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class TestClashingBean {
+
+    @Metadata("clashing_name")
+    private String name;
+
+    /**
+     * Returns the name of this instance.
+     *
+     * @return the name of this instance
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name for this instance.
+     *
+     * @param name the new name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,23 @@
+package org.keyboardplaying.mapper.mock.bean;
+
+/**
+ * A class which is named like the generated mapper of {@link TestClashingBean} but is not one, as a DAO or another
+ * framework's mapper could be.
+ * <p/>
+ * Its static initialization fails, so that the engines must not initialize it when looking up generated mappers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class TestClashingBeanMapper {
+
+    /** The value the static initialization fails on. */
+    public static final Object UNREACHABLE = fail();
+
+    private TestClashingBeanMapper() {
+        /* Not instantiable. */
+    }
+
+    private static Object fail() {
+        throw new IllegalStateException(TestClashingBeanMapper.class.getSimpleName() + " must not be initialized");
+    }
+}
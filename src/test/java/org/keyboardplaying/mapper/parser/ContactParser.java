@@ -11,6 +11,7 @@ import org.keyboardplaying.mapper.exception.ParsingException;
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
+@Shareable
 public class ContactParser implements ElaborateParser<String> {
 
     private static final String NAME_FIELD = "somebody_s_name";
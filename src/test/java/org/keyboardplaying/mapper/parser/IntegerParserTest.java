@@ -1,5 +1,10 @@
 package org.keyboardplaying.mapper.parser;
 
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.exception.ParsingException;
+
 /**
  * {@link NumberParserTest} implementation for {@link IntegerParser}.
  *
@@ -23,4 +28,39 @@ public class IntegerParserTest extends NumberParserTest<Integer> {
     protected Integer getValue(int number) {
         return number;
     }
+
+    /**
+     * Tests the conversion of {@code int} values without boxing.
+     */
+    @Test
+    public void testPrimitive() throws ParsingException {
+        IntegerParser parser = new IntegerParser();
+
+        assertEquals(-42, parser.parseInt(new StringBuilder("-42")));
+        assertEquals("2147483647", parser.formatInt(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Ensures a {@link String} which is not a number cannot be parsed to an {@code int}.
+     */
+    @Test(expected = ParsingException.class)
+    public void testPrimitiveNotANumber() throws ParsingException {
+        new IntegerParser().parseInt("forty-two");
+    }
+
+    /**
+     * Ensures a {@code null} {@link String} cannot be parsed.
+     */
+    @Test(expected = ParsingException.class)
+    public void testConvertNullString() throws ParsingException {
+        new IntegerParser().convertFromString(null);
+    }
+
+    /**
+     * Ensures a {@code null} {@link Integer} cannot be formatted.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConvertNullInteger() {
+        new IntegerParser().convertToString(null);
+    }
 }
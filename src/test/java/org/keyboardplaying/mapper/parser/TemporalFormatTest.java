@@ -0,0 +1,94 @@
+package org.keyboardplaying.mapper.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.Test;
+import org.keyboardplaying.mapper.Defaults;
+import org.keyboardplaying.mapper.exception.ParsingException;
+
+/**
+ * Tests for the {@link TemporalFormat}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@SuppressWarnings("javadoc")
+public class TemporalFormatTest {
+
+    @Test
+    public void testFormatsAreShared() {
+        assertSame(TemporalFormat.of(Defaults.FORMAT_DATE), TemporalFormat.of(Defaults.FORMAT_DATE));
+    }
+
+    /**
+     * Ensures the default formats produce and read the same strings as {@link SimpleDateFormat} did.
+     */
+    @Test
+    public void testCompatibilityWithSimpleDateFormat() throws ParseException, ParsingException {
+        Random random = new Random(42);
+        for (String pattern : new String[]{Defaults.FORMAT_DATE, Defaults.FORMAT_DATETIME}) {
+            SimpleDateFormat legacy = new SimpleDateFormat(pattern);
+            TemporalFormat format = TemporalFormat.of(pattern);
+
+            for (int i = 0; i < 1000; i++) {
+                // any second between 1900 and 2100
+                Date date = new Date((random.nextLong() % 6311390400L) * 1000L);
+                String expected = legacy.format(date);
+
+                assertEquals(expected, format.format(date));
+                assertEquals(legacy.parse(expected), format.parse(expected));
+            }
+        }
+    }
+
+    /**
+     * Ensures values the fixed-width code leaves to the formatter are still read leniently.
+     */
+    @Test
+    public void testOutOfRangeFieldsAreRolledOver() throws ParseException, ParsingException {
+        for (String value : new String[]{"2012/02/30-12:00:00", "2011/13/01-24:00:60", "2012/1/2-3:04:05"}) {
+            assertEquals(new SimpleDateFormat(Defaults.FORMAT_DATETIME).parse(value),
+                    TemporalFormat.of(Defaults.FORMAT_DATETIME).parse(value));
+        }
+    }
+
+    @Test
+    public void testTrailingTextIsIgnored() throws ParseException, ParsingException {
+        assertEquals(new SimpleDateFormat(Defaults.FORMAT_DATE).parse("1985/10/24"),
+                TemporalFormat.of(Defaults.FORMAT_DATE).parse("1985/10/24-21:20:42"));
+    }
+
+    /**
+     * Ensures the letters {@link java.time.format.DateTimeFormatter} interprets differently keep their
+     * {@link SimpleDateFormat} meaning.
+     */
+    @Test
+    public void testSimpleDateFormatLetters() throws ParseException, ParsingException {
+        Date date = new SimpleDateFormat(Defaults.FORMAT_DATETIME).parse("1985/10/24-21:20:42");
+        date.setTime(date.getTime() + 7);
+        for (String pattern : new String[]{"dd/MM/yy", "yyyy-MM-dd u", "HH:mm:ss.S", "HH:mm:ss.SSS", "[yyyy] {MM} #",
+                "EEEEE d MMMMM yyyy", "yyyy-MM-dd'T'HH:mm:ssZ", "yyyy-MM-dd'T'HH:mm:ssXXX", "'o''clock' h a"}) {
+            SimpleDateFormat legacy = new SimpleDateFormat(pattern);
+            TemporalFormat format = TemporalFormat.of(pattern);
+            String expected = legacy.format(date);
+
+            assertEquals(pattern, expected, format.format(date));
+            assertEquals(pattern, legacy.parse(expected), format.parse(expected));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownLetter() {
+        TemporalFormat.of("yyyy-MM-dd VV");
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testIncompleteDate() throws ParsingException {
+        TemporalFormat.of(Defaults.FORMAT_DATETIME).parse("1985/10/24");
+    }
+}